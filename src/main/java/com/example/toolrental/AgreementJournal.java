@@ -0,0 +1,501 @@
+/**
+ * AgreementJournal class for the Tool Rental System application.
+ *
+ * This class is a durable, append-only journal of rental agreements. Each
+ * agreement is stored as one fixed-size binary record with a monotonically
+ * increasing id, written through a MappedByteBuffer over the active segment
+ * file. Agreements can be read back by id, which the free-text records in
+ * rental_agreements.log do not allow.
+ *
+ * Segment file (agreements-<first id>.journal):
+ * - Header (32 bytes): int MAGIC, int VERSION, long firstId, int RECORD_SIZE,
+ *   then padding.
+ * - Records (RECORD_SIZE bytes each, big-endian), ids contiguous from firstId:
+ *   - long id
+ *   - long toolCode: The tool code packed by ToolCodeKey.
+ *   - int checkOutEpochDay, int dueEpochDay
+ *   - int rentalDays, int chargeDays
+ *   - short discountPercent
+ *   - int quantity
+ *   - long dailyRentalChargeCents: FixedPointPricing.NOT_REPRESENTABLE when
+ *     the daily rate has sub-cent digits.
+ *   - long preDiscountChargeCents, discountAmountCents, finalChargeCents
+ *   - long recordedAt: Epoch milliseconds of the append.
+ *   - int batchRemaining: Records still to follow in the same append.
+ *   - int crc: CRC32 of the record bytes before it.
+ *
+ * Key functionalities:
+ * - Appending a whole cart as one sequential write into one segment, so a
+ *   cart is either fully journaled or, after a crash, not at all.
+ * - Rolling to a new segment when the next append does not fit.
+ * - Finding a record by id through a sparse index holding one entry per
+ *   segment; within a segment the fixed record size turns the id into an
+ *   offset, so no per-record index is kept in memory.
+ * - Recovering on open: the last segment is scanned, and everything after
+ *   the last complete append with valid CRCs (a torn tail) is truncated.
+ *
+ * Components:
+ * - segments: The sparse index, each segment keyed by its first id.
+ * - active: The last segment, mapped read-write; older segments are mapped
+ *   read-only on their first lookup.
+ * - forceOnAppend: Whether each append is forced to disk before returning.
+ *
+ * Example usage:
+ * - try (AgreementJournal journal = new AgreementJournal(Paths.get("journal"))) {
+ *       List<RentalAgreement> agreements = cart.checkout(journal);
+ *   }
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+public class AgreementJournal implements Closeable {
+
+    private static final Logger logger = LoggerConfig.getLogger();
+
+    public static final int MAGIC = 0x41474A31;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 86;
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private static final int CRC_OFFSET = RECORD_SIZE - 4;
+    private static final String SEGMENT_PREFIX = "agreements-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    // Records read per chunk while recovering the last segment
+    private static final int RECOVERY_CHUNK_RECORDS = 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean forceOnAppend;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final byte[] scratch = new byte[RECORD_SIZE];
+    private final ByteBuffer record = ByteBuffer.wrap(scratch);
+    private final CRC32 crc = new CRC32();
+    private Segment active;
+    private long nextId;
+    private boolean closed;
+
+    public AgreementJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, true);
+    }
+
+    public AgreementJournal(Path directory, int segmentSize, boolean forceOnAppend) throws IOException {
+        if (segmentSize < HEADER_SIZE + RECORD_SIZE) {
+            throw new IllegalArgumentException("Segment size must be at least " + (HEADER_SIZE + RECORD_SIZE) + " bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.forceOnAppend = forceOnAppend;
+
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                long firstId = parseFirstId(file);
+                segments.put(firstId, new Segment(file, firstId));
+            }
+        }
+
+        if (segments.isEmpty()) {
+            active = createSegment(1);
+        } else {
+            active = recover(segments.lastEntry().getValue());
+        }
+        nextId = active.firstId + (active.end - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    // Journals the agreements with consecutive ids in one sequential write and returns the first id
+    public synchronized long append(List<RentalAgreement> agreements) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Agreement journal is closed");
+        }
+        if (agreements.isEmpty()) {
+            return nextId;
+        }
+
+        long length = (long) agreements.size() * RECORD_SIZE;
+        if (HEADER_SIZE + length > segmentSize) {
+            throw new IllegalArgumentException("Cart of " + agreements.size() + " agreements does not fit in one journal segment");
+        }
+        // Reject the whole cart before writing any of it, so no partial append is left behind
+        for (RentalAgreement agreement : agreements) {
+            encode(agreement, 0, 0, 0);
+        }
+        if (active.end + length > active.buffer.capacity()) {
+            roll();
+        }
+
+        long firstId = nextId;
+        long recordedAt = System.currentTimeMillis();
+        MappedByteBuffer buffer = active.buffer;
+        buffer.position(active.end);
+        for (int i = 0; i < agreements.size(); i++) {
+            encode(agreements.get(i), firstId + i, recordedAt, agreements.size() - 1 - i);
+            buffer.put(scratch);
+        }
+        if (forceOnAppend) {
+            buffer.force();
+        }
+
+        active.end = buffer.position();
+        nextId = firstId + agreements.size();
+        return firstId;
+    }
+
+    // Returns the record with this id, or null if no agreement was journaled with it
+    public synchronized Record read(long id) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Agreement journal is closed");
+        }
+        Map.Entry<Long, Segment> entry = segments.floorEntry(id);
+        if (entry == null || id >= nextId) {
+            return null;
+        }
+
+        Segment segment = entry.getValue();
+        long offset = HEADER_SIZE + (id - segment.firstId) * RECORD_SIZE;
+        ByteBuffer buffer = segment.map();
+        if (offset + RECORD_SIZE > buffer.limit()) {
+            return null;
+        }
+
+        ByteBuffer view = buffer.duplicate();
+        view.position((int) offset);
+        view.get(scratch);
+        if (!isValid(id)) {
+            throw new IOException("Corrupt journal record " + id + " in " + segment.file);
+        }
+        return decode();
+    }
+
+    // The id the next appended agreement will get
+    public synchronized long getNextId() {
+        return nextId;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        active.buffer.force();
+        active.channel.close();
+    }
+
+    private void roll() throws IOException {
+        active.buffer.force();
+        active.channel.close();
+        active.channel = null;
+        active = createSegment(nextId);
+    }
+
+    private Segment createSegment(long firstId) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstId, SEGMENT_SUFFIX));
+        Segment segment = new Segment(file, firstId);
+        segment.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment.buffer = segment.channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        writeHeader(segment);
+        segments.put(firstId, segment);
+        return segment;
+    }
+
+    private static void writeHeader(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, segment.firstId);
+        buffer.putInt(16, RECORD_SIZE);
+        buffer.force();
+        segment.end = HEADER_SIZE;
+    }
+
+    // Keeps every complete append with valid records and truncates whatever follows it
+    private Segment recover(Segment segment) throws IOException {
+        FileChannel channel = FileChannel.open(segment.file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+
+        long committedEnd = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (size >= HEADER_SIZE && readFully(channel, header, 0)
+                && header.getInt(0) == MAGIC && header.getInt(4) == VERSION
+                && header.getLong(8) == segment.firstId && header.getInt(16) == RECORD_SIZE) {
+            committedEnd = HEADER_SIZE;
+            ByteBuffer chunk = ByteBuffer.allocate(RECORD_SIZE * RECOVERY_CHUNK_RECORDS);
+            long position = HEADER_SIZE;
+            long id = segment.firstId;
+            scan:
+            while (position < size) {
+                chunk.clear();
+                channel.read(chunk, position);
+                chunk.flip();
+                if (chunk.remaining() < RECORD_SIZE) {
+                    break;
+                }
+                while (chunk.remaining() >= RECORD_SIZE) {
+                    chunk.get(scratch);
+                    if (!isValid(id)) {
+                        break scan;
+                    }
+                    position += RECORD_SIZE;
+                    id++;
+                    if (record.getInt(CRC_OFFSET - 4) == 0) {
+                        committedEnd = position;
+                    }
+                }
+            }
+        }
+
+        // Preallocated space past the last append is zero-filled, so only report a tail that held data
+        if (committedEnd < size && hasData(channel, Math.max(committedEnd, HEADER_SIZE), size)) {
+            logger.log(Level.WARNING, "Truncating torn tail of journal segment {0} at offset {1}", new Object[]{segment.file, committedEnd});
+        }
+        channel.truncate(committedEnd);
+        channel.force(true);
+
+        segment.channel = channel;
+        segment.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, committedEnd));
+        if (committedEnd == 0) {
+            writeHeader(segment);
+        } else {
+            segment.end = (int) committedEnd;
+        }
+        return segment;
+    }
+
+    private static boolean hasData(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(RECORD_SIZE * RECOVERY_CHUNK_RECORDS);
+        for (long position = from; position < to; ) {
+            chunk.clear();
+            int read = channel.read(chunk, position);
+            if (read <= 0) {
+                return false;
+            }
+            for (int i = 0; i < read; i++) {
+                if (chunk.get(i) != 0) {
+                    return true;
+                }
+            }
+            position += read;
+        }
+        return false;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseFirstId(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a journal segment: " + file, e);
+        }
+    }
+
+    private void encode(RentalAgreement agreement, long id, long recordedAt, int batchRemaining) {
+        long toolCodeKey = ToolCodeKey.pack(agreement.getToolCode());
+        if (toolCodeKey == ToolCodeKey.NONE) {
+            throw new IllegalArgumentException("Tool code cannot be journaled: " + agreement.getToolCode());
+        }
+
+        record.clear();
+        record.putLong(id);
+        record.putLong(toolCodeKey);
+        record.putInt(Math.toIntExact(agreement.getCheckOutDate().toEpochDay()));
+        record.putInt(Math.toIntExact(agreement.getDueDate().toEpochDay()));
+        record.putInt(agreement.getRentalDays());
+        record.putInt(agreement.getChargeDays());
+        record.putShort((short) agreement.getDiscountPercent());
+        record.putInt(agreement.getQuantity());
+        record.putLong(FixedPointPricing.toCents(agreement.getDailyRentalCharge()));
+        record.putLong(toCents(agreement, agreement.getPreDiscountCharge()));
+        record.putLong(toCents(agreement, agreement.getDiscountAmount()));
+        record.putLong(toCents(agreement, agreement.getFinalCharge()));
+        record.putLong(recordedAt);
+        record.putInt(batchRemaining);
+
+        crc.reset();
+        crc.update(scratch, 0, CRC_OFFSET);
+        record.putInt((int) crc.getValue());
+    }
+
+    private static long toCents(RentalAgreement agreement, BigDecimal amount) {
+        long cents = FixedPointPricing.toCents(amount);
+        if (cents == FixedPointPricing.NOT_REPRESENTABLE) {
+            throw new IllegalArgumentException("Charge cannot be journaled for tool code: " + agreement.getToolCode());
+        }
+        return cents;
+    }
+
+    // Checks the record in scratch
+    private boolean isValid(long id) {
+        if (record.getLong(0) != id) {
+            return false;
+        }
+        crc.reset();
+        crc.update(scratch, 0, CRC_OFFSET);
+        return record.getInt(CRC_OFFSET) == (int) crc.getValue();
+    }
+
+    private Record decode() {
+        record.clear();
+        return new Record(
+                record.getLong(),
+                ToolCodeKey.unpack(record.getLong()),
+                record.getInt(),
+                record.getInt(),
+                record.getInt(),
+                record.getInt(),
+                record.getShort(),
+                record.getInt(),
+                record.getLong(),
+                record.getLong(),
+                record.getLong(),
+                record.getLong(),
+                record.getLong()
+        );
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private final long firstId;
+        private FileChannel channel;
+        private MappedByteBuffer buffer;
+        private int end;
+
+        private Segment(Path file, long firstId) {
+            this.file = file;
+            this.firstId = firstId;
+        }
+
+        // Older segments are mapped read-only the first time one of their records is read
+        private ByteBuffer map() throws IOException {
+            if (buffer == null) {
+                try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                }
+            }
+            return buffer;
+        }
+    }
+
+    public static class Record {
+
+        private final long id;
+        private final String toolCode;
+        private final int checkOutEpochDay;
+        private final int dueEpochDay;
+        private final int rentalDays;
+        private final int chargeDays;
+        private final int discountPercent;
+        private final int quantity;
+        private final long dailyRentalChargeCents;
+        private final long preDiscountChargeCents;
+        private final long discountAmountCents;
+        private final long finalChargeCents;
+        private final long recordedAt;
+
+        private Record(long id, String toolCode, int checkOutEpochDay, int dueEpochDay, int rentalDays, int chargeDays, int discountPercent, int quantity, long dailyRentalChargeCents, long preDiscountChargeCents, long discountAmountCents, long finalChargeCents, long recordedAt) {
+            this.id = id;
+            this.toolCode = toolCode;
+            this.checkOutEpochDay = checkOutEpochDay;
+            this.dueEpochDay = dueEpochDay;
+            this.rentalDays = rentalDays;
+            this.chargeDays = chargeDays;
+            this.discountPercent = discountPercent;
+            this.quantity = quantity;
+            this.dailyRentalChargeCents = dailyRentalChargeCents;
+            this.preDiscountChargeCents = preDiscountChargeCents;
+            this.discountAmountCents = discountAmountCents;
+            this.finalChargeCents = finalChargeCents;
+            this.recordedAt = recordedAt;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getToolCode() {
+            return toolCode;
+        }
+
+        public LocalDate getCheckOutDate() {
+            return LocalDate.ofEpochDay(checkOutEpochDay);
+        }
+
+        public LocalDate getDueDate() {
+            return LocalDate.ofEpochDay(dueEpochDay);
+        }
+
+        public int getRentalDays() {
+            return rentalDays;
+        }
+
+        public int getChargeDays() {
+            return chargeDays;
+        }
+
+        public int getDiscountPercent() {
+            return discountPercent;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public long getDailyRentalChargeCents() {
+            return dailyRentalChargeCents;
+        }
+
+        public long getPreDiscountChargeCents() {
+            return preDiscountChargeCents;
+        }
+
+        public long getDiscountAmountCents() {
+            return discountAmountCents;
+        }
+
+        public long getFinalChargeCents() {
+            return finalChargeCents;
+        }
+
+        public long getRecordedAt() {
+            return recordedAt;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+/**
+ * AgreementTemplate class for the Tool Rental System application.
+ *
+ * This class renders rental agreements from a layout that is compiled once
+ * into a list of literal text and field segments. Rendering appends each
+ * literal and writes each field straight into a StringBuilder: money, dates
+ * and integers are converted digit by digit, with no format string parsed
+ * and no DateTimeFormatter built per call. The output is character for
+ * character what the String.format calls it replaces produced, including
+ * the decimal separator and digits of the default FORMAT locale.
+ *
+ * Key functionalities:
+ * - Compiling a layout with {field} placeholders and {n} for the platform
+ *   line separator (what %n printed), rejecting unknown placeholders.
+ * - Rendering money as %.2f does: rounded half up to two decimals, with the
+ *   sign of the unrounded amount and the locale's decimal separator.
+ * - Rendering dates as the MM/dd/yy pattern does, and integers as %d does.
+ * - Rendering one line per rate period for a rental that crosses a rate
+ *   change, so the printed rates add up to the pre-discount charge; nothing
+ *   is rendered for a rental priced at a single rate.
+ * - Reusing one buffer per thread through render(agreement, number).
+ *
+ * Components:
+ * - Field: The values a layout can place, read from a RentalAgreement, the
+ *   agreement or line number, or the running Totals of a consolidated
+ *   agreement.
+ * - AGREEMENT: The layout printed by RentalAgreement.printAgreement.
+ * - CONSOLIDATED_TOOL / CONSOLIDATED_SUMMARY: The per-tool and summary
+ *   layouts printed by ShoppingCart.printConsolidatedAgreement.
+ * - Totals: Running totals of the agreements added to it, the one reduction
+ *   behind consolidated agreements, BulkPricingEngine results and /checkout
+ *   responses.
+ *
+ * Example usage:
+ * - AgreementTemplate.AGREEMENT.render(agreement, 1) returns the text of
+ *   rental agreement 1.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class AgreementTemplate {
+
+    public enum Field {
+        NUMBER("number"),
+        TOOL_CODE("toolCode"),
+        TOOL_TYPE("toolType"),
+        TOOL_BRAND("toolBrand"),
+        RENTAL_DAYS("rentalDays"),
+        CHECK_OUT_DATE("checkOutDate"),
+        // The printed due date, the day after the last rental day
+        DUE_DATE("dueDate"),
+        DAILY_RENTAL_CHARGE("dailyRentalCharge"),
+        // Zero or more whole lines, one per RatePeriodCharge of the agreement
+        RATE_PERIOD_CHARGES("ratePeriodCharges"),
+        QUANTITY("quantity"),
+        CHARGE_DAYS("chargeDays"),
+        PRE_DISCOUNT_CHARGE("preDiscountCharge"),
+        DISCOUNT_PERCENT("discountPercent"),
+        DISCOUNT_AMOUNT("discountAmount"),
+        FINAL_CHARGE("finalCharge"),
+        TOTAL_PRE_DISCOUNT_CHARGE("totalPreDiscountCharge"),
+        TOTAL_DISCOUNT_AMOUNT("totalDiscountAmount"),
+        TOTAL_FINAL_CHARGE("totalFinalCharge");
+
+        private final String placeholder;
+
+        Field(String placeholder) {
+            this.placeholder = placeholder;
+        }
+
+        public String getPlaceholder() {
+            return placeholder;
+        }
+
+        static Field forPlaceholder(String placeholder) {
+            for (Field field : values()) {
+                if (field.placeholder.equals(placeholder)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown template field: " + placeholder);
+        }
+    }
+
+    // Declared before the templates, which are compiled during class initialization
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    // Buffers above this size are not kept for reuse, so one huge cart does not pin memory per thread
+    private static final int MAX_REUSED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private static volatile NumberSymbols numberSymbols = new NumberSymbols(Locale.getDefault(Locale.Category.FORMAT));
+
+    public static final AgreementTemplate AGREEMENT = compile(
+            "********** Rental Agreement {number} **********{n}"
+            + "---------- Tool Information ----------\n"
+            + "Tool code: {toolCode}{n}"
+            + "Tool type: {toolType}{n}"
+            + "Tool brand: {toolBrand}{n}"
+            + "Rental days: {rentalDays}{n}"
+            + "Check out date: {checkOutDate}{n}"
+            + "Due date: {dueDate}{n}"
+            + "--------------------------------------\n"
+            + "------------ Charges -----------------\n"
+            + "Daily rental charge per tool: ${dailyRentalCharge}{n}"
+            + "{ratePeriodCharges}"
+            + "Quantity: {quantity}{n}"
+            + "Charge days: {chargeDays}{n}"
+            + "Pre-discount charge: ${preDiscountCharge}{n}"
+            + "Discount percent: {discountPercent}%{n}"
+            + "Discount amount: ${discountAmount}{n}"
+            + "** Final charge: ${finalCharge} **{n}"
+            + "**************************************\n");
+
+    public static final AgreementTemplate CONSOLIDATED_TOOL = compile(
+            "\n---------- Tool {number} Information ({toolCode} - {toolType}) ----------{n}"
+            + "Tool code: {toolCode}{n}"
+            + "Tool type: {toolType}{n}"
+            + "Tool brand: {toolBrand}{n}"
+            + "Rental days: {rentalDays}{n}"
+            + "Check out date: {checkOutDate}{n}"
+            + "Due date: {dueDate}{n}"
+            + "\n"
+            + "------------ Charges -----------------\n"
+            + "Daily rental charge per tool: ${dailyRentalCharge}{n}"
+            + "{ratePeriodCharges}"
+            + "Quantity: {quantity}{n}"
+            + "Charge days: {chargeDays}{n}"
+            + "Pre-discount charge: ${preDiscountCharge}{n}"
+            + "Discount percent: {discountPercent}%{n}"
+            + "Discount amount: ${discountAmount}{n}"
+            + "Final charge: ${finalCharge}{n}");
+
+    public static final AgreementTemplate CONSOLIDATED_SUMMARY = compile(
+            "\n"
+            + "\n============== Summary ==============\n"
+            + "Total pre-discount charge: ${totalPreDiscountCharge}{n}"
+            + "Total discount amount: ${totalDiscountAmount}{n}"
+            + "Total final charge: ${totalFinalCharge}{n}"
+            + "**************************************\n");
+
+    // Literal text segments hold a String and field segments hold null, with the Field at the same index
+    private final String[] literals;
+    private final Field[] fields;
+
+    private AgreementTemplate(String[] literals, Field[] fields) {
+        this.literals = literals;
+        this.fields = fields;
+    }
+
+    public static AgreementTemplate compile(String layout) {
+        List<String> literals = new ArrayList<>();
+        List<Field> fields = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int position = 0;
+        while (position < layout.length()) {
+            int open = layout.indexOf('{', position);
+            if (open < 0) {
+                literal.append(layout, position, layout.length());
+                break;
+            }
+            int close = layout.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed template field at index " + open);
+            }
+            literal.append(layout, position, open);
+
+            String placeholder = layout.substring(open + 1, close);
+            if ("n".equals(placeholder)) {
+                literal.append(LINE_SEPARATOR);
+            } else {
+                Field field = Field.forPlaceholder(placeholder);
+                if (literal.length() > 0) {
+                    literals.add(literal.toString());
+                    fields.add(null);
+                    literal.setLength(0);
+                }
+                literals.add(null);
+                fields.add(field);
+            }
+            position = close + 1;
+        }
+        if (literal.length() > 0) {
+            literals.add(literal.toString());
+            fields.add(null);
+        }
+
+        return new AgreementTemplate(literals.toArray(new String[0]), fields.toArray(new Field[0]));
+    }
+
+    // Renders into this thread's reusable buffer and returns the text
+    public String render(RentalAgreement agreement, int number) {
+        StringBuilder out = buffer();
+        render(out, agreement, number, null);
+        return out.toString();
+    }
+
+    // Appends to out; agreement may be null when the layout only places totals, and totals when it places none
+    public void render(StringBuilder out, RentalAgreement agreement, int number, Totals totals) {
+        NumberSymbols symbols = currentNumberSymbols();
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            if (field == null) {
+                out.append(literals[i]);
+                continue;
+            }
+
+            switch (field) {
+                case NUMBER:
+                    appendInteger(out, number, symbols);
+                    break;
+                case TOOL_CODE:
+                    out.append(agreement.getToolCode());
+                    break;
+                case TOOL_TYPE:
+                    out.append(agreement.getToolType());
+                    break;
+                case TOOL_BRAND:
+                    out.append(agreement.getToolBrand());
+                    break;
+                case RENTAL_DAYS:
+                    appendInteger(out, agreement.getRentalDays(), symbols);
+                    break;
+                case CHECK_OUT_DATE:
+                    appendDate(out, agreement.getCheckOutDate());
+                    break;
+                case DUE_DATE:
+                    appendDate(out, agreement.getDueDate().plusDays(1));
+                    break;
+                case DAILY_RENTAL_CHARGE:
+                    appendMoney(out, agreement.getDailyRentalCharge(), symbols);
+                    break;
+                case RATE_PERIOD_CHARGES:
+                    appendRatePeriodCharges(out, agreement, symbols);
+                    break;
+                case QUANTITY:
+                    appendInteger(out, agreement.getQuantity(), symbols);
+                    break;
+                case CHARGE_DAYS:
+                    appendInteger(out, agreement.getChargeDays(), symbols);
+                    break;
+                case PRE_DISCOUNT_CHARGE:
+                    appendMoney(out, agreement.getPreDiscountCharge(), symbols);
+                    break;
+                case DISCOUNT_PERCENT:
+                    appendInteger(out, agreement.getDiscountPercent(), symbols);
+                    break;
+                case DISCOUNT_AMOUNT:
+                    appendMoney(out, agreement.getDiscountAmount(), symbols);
+                    break;
+                case FINAL_CHARGE:
+                    appendMoney(out, agreement.getFinalCharge(), symbols);
+                    break;
+                case TOTAL_PRE_DISCOUNT_CHARGE:
+                    appendMoney(out, totals.getPreDiscountCharge(), symbols);
+                    break;
+                case TOTAL_DISCOUNT_AMOUNT:
+                    appendMoney(out, totals.getDiscountAmount(), symbols);
+                    break;
+                case TOTAL_FINAL_CHARGE:
+                    appendMoney(out, totals.getFinalCharge(), symbols);
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled template field: " + field);
+            }
+        }
+    }
+
+    // Each line reads "Rate from 07/03/24: $2.49 x 2 charge days"
+    private static void appendRatePeriodCharges(StringBuilder out, RentalAgreement agreement, NumberSymbols symbols) {
+        for (RentalAgreement.RatePeriodCharge ratePeriodCharge : agreement.getRatePeriodCharges()) {
+            out.append("Rate from ");
+            appendDate(out, ratePeriodCharge.getStartDate());
+            out.append(": $");
+            appendMoney(out, ratePeriodCharge.getDailyRentalCharge(), symbols);
+            out.append(" x ");
+            appendInteger(out, ratePeriodCharge.getChargeDays(), symbols);
+            out.append(" charge days").append(LINE_SEPARATOR);
+        }
+    }
+
+    // This thread's reusable buffer, emptied
+    static StringBuilder buffer() {
+        StringBuilder buffer = buffers.get();
+        if (buffer.capacity() > MAX_REUSED_CAPACITY) {
+            buffer = new StringBuilder(1024);
+            buffers.set(buffer);
+        }
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    // String.format reads the default FORMAT locale on every call, so a change is picked up here too
+    private static NumberSymbols currentNumberSymbols() {
+        NumberSymbols symbols = numberSymbols;
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        if (!symbols.locale.equals(locale)) {
+            symbols = new NumberSymbols(locale);
+            numberSymbols = symbols;
+        }
+        return symbols;
+    }
+
+    // As %d: a minus sign and the magnitude in the locale's digits, without grouping
+    static void appendInteger(StringBuilder out, long value, NumberSymbols symbols) {
+        if (value < 0) {
+            out.append('-');
+        }
+        if (value == Long.MIN_VALUE) {
+            appendLocalized(out, Long.toString(value).substring(1), symbols);
+            return;
+        }
+        appendDigits(out, Math.abs(value), 1, symbols.zeroDigit);
+    }
+
+    // As %.2f: rounded half up to two decimals, negative when the unrounded amount is, so -0.001 is "-0.00"
+    static void appendMoney(StringBuilder out, BigDecimal value, NumberSymbols symbols) {
+        if (value.signum() < 0) {
+            out.append('-');
+        }
+        BigDecimal rounded = value.abs().setScale(2, RoundingMode.HALF_UP);
+        BigInteger unscaled = rounded.unscaledValue();
+        if (unscaled.bitLength() >= Long.SIZE - 1) {
+            appendLocalized(out, rounded.toPlainString(), symbols);
+            return;
+        }
+
+        long cents = unscaled.longValue();
+        appendDigits(out, cents / 100, 1, symbols.zeroDigit);
+        out.append(symbols.decimalSeparator);
+        appendDigits(out, cents % 100, 2, symbols.zeroDigit);
+    }
+
+    // As the MM/dd/yy pattern, which prints ASCII digits and the last two digits of the year of era
+    static void appendDate(StringBuilder out, LocalDate date) {
+        int year = date.getYear();
+        int yearOfEra = year >= 1 ? year : 1 - year;
+        appendDigits(out, date.getMonthValue(), 2, '0');
+        out.append('/');
+        appendDigits(out, date.getDayOfMonth(), 2, '0');
+        out.append('/');
+        appendDigits(out, yearOfEra % 100, 2, '0');
+    }
+
+    private static void appendDigits(StringBuilder out, long magnitude, int minDigits, char zeroDigit) {
+        int start = out.length();
+        do {
+            out.append((char) (zeroDigit + (int) (magnitude % 10)));
+            magnitude /= 10;
+        } while (magnitude > 0 || out.length() - start < minDigits);
+
+        // Digits were appended least significant first
+        for (int i = start, j = out.length() - 1; i < j; i++, j--) {
+            char digit = out.charAt(i);
+            out.setCharAt(i, out.charAt(j));
+            out.setCharAt(j, digit);
+        }
+    }
+
+    private static void appendLocalized(StringBuilder out, String plain, NumberSymbols symbols) {
+        for (int i = 0; i < plain.length(); i++) {
+            char c = plain.charAt(i);
+            if (c == '.') {
+                out.append(symbols.decimalSeparator);
+            } else {
+                out.append((char) (c - '0' + symbols.zeroDigit));
+            }
+        }
+    }
+
+    static final class NumberSymbols {
+
+        final Locale locale;
+        final char zeroDigit;
+        final char decimalSeparator;
+
+        NumberSymbols(Locale locale) {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            this.locale = locale;
+            this.zeroDigit = symbols.getZeroDigit();
+            this.decimalSeparator = symbols.getDecimalSeparator();
+        }
+    }
+
+    public static final class Totals {
+
+        private BigDecimal preDiscountCharge = BigDecimal.ZERO;
+        private BigDecimal discountAmount = BigDecimal.ZERO;
+        private BigDecimal finalCharge = BigDecimal.ZERO;
+
+        public void add(RentalAgreement agreement) {
+            preDiscountCharge = preDiscountCharge.add(agreement.getPreDiscountCharge());
+            discountAmount = discountAmount.add(agreement.getDiscountAmount());
+            finalCharge = finalCharge.add(agreement.getFinalCharge());
+        }
+
+        // Adds the totals of another set of agreements, such as the next range of a list priced in parallel
+        public void add(Totals totals) {
+            preDiscountCharge = preDiscountCharge.add(totals.preDiscountCharge);
+            discountAmount = discountAmount.add(totals.discountAmount);
+            finalCharge = finalCharge.add(totals.finalCharge);
+        }
+
+        public BigDecimal getPreDiscountCharge() {
+            return preDiscountCharge;
+        }
+
+        public BigDecimal getDiscountAmount() {
+            return discountAmount;
+        }
+
+        public BigDecimal getFinalCharge() {
+            return finalCharge;
+        }
+    }
+}
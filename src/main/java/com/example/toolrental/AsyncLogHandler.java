@@ -0,0 +1,315 @@
+/**
+ * AsyncLogHandler class for the Tool Rental System application.
+ *
+ * This class is a java.util.logging Handler that takes file I/O off the
+ * logging thread. publish() only places the record in a bounded, lock-free
+ * ring buffer; a single writer thread drains the buffer, formats the records
+ * and writes them in large batches, flushing once the buffer is empty. A
+ * checkout that logs its agreement therefore never waits on the disk unless
+ * the buffer is full and the overflow policy says to wait.
+ *
+ * Key functionalities:
+ * - Accepting records from any number of threads without taking a lock.
+ * - Writing records in the order they were accepted, batched into one write
+ *   per drain of up to batchSize records.
+ * - Handling a full buffer with the configured OverflowPolicy: BLOCK waits for
+ *   space, DROP discards the record, and SAMPLE keeps one in every sampleRate
+ *   overflowing records and discards the rest. Records at WARNING or above
+ *   always wait for space, so errors are never dropped.
+ * - Writing out everything accepted so far on flush(), and on close(), which
+ *   LoggerConfig also runs from a shutdown hook.
+ *
+ * Components:
+ * - slots / sequences: The ring buffer. Each slot carries a sequence number
+ *   that tells producers when it is free and the writer when it is filled, so
+ *   producers only contend on one compare-and-set of the tail position.
+ * - writerThread: The only reader of the buffer and writer of the output.
+ * - droppedCount: Records discarded by DROP or SAMPLE.
+ *
+ * Example usage:
+ * - LoggerConfig.setup(OverflowPolicy.DROP) writes rental_agreements.log and
+ *   exceptions.log through AsyncLogHandlers that never block a checkout.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+public class AsyncLogHandler extends Handler {
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP,
+        SAMPLE
+    }
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_BATCH_SIZE = 512;
+    public static final int DEFAULT_SAMPLE_RATE = 100;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    // The writer parks for at most this long, so a missed wake-up only delays a batch
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AtomicReferenceArray<LogRecord> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final int sampleRate;
+    private final AtomicLong overflowCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final OutputStream output;
+    private final Thread writerThread;
+
+    // Only the writer thread reads the buffer, so the head needs no synchronization
+    private long head;
+    private volatile long writtenThrough;
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+    private volatile Writer writer;
+
+    public AsyncLogHandler(String fileName, boolean append) throws IOException {
+        this(new FileOutputStream(fileName, append), DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, OverflowPolicy.BLOCK, DEFAULT_SAMPLE_RATE);
+    }
+
+    public AsyncLogHandler(String fileName, boolean append, OverflowPolicy overflowPolicy) throws IOException {
+        this(new FileOutputStream(fileName, append), DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, overflowPolicy, DEFAULT_SAMPLE_RATE);
+    }
+
+    public AsyncLogHandler(OutputStream output, int capacity, int batchSize, OverflowPolicy overflowPolicy, int sampleRate) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two of at least 2");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be 1 or greater");
+        }
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("Sample rate must be 1 or greater");
+        }
+
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.sampleRate = sampleRate;
+        this.output = output;
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, Charset.defaultCharset()), WRITE_BUFFER_SIZE);
+        setFormatter(new SimpleFormatter());
+
+        this.writerThread = new Thread(this::writeLoop, "async-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public synchronized void setEncoding(String encoding) throws UnsupportedEncodingException {
+        super.setEncoding(encoding);
+        if (encoding != null) {
+            // Only takes effect before the first record, like StreamHandler
+            writer = new BufferedWriter(new OutputStreamWriter(output, encoding), WRITE_BUFFER_SIZE);
+        }
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+
+        // The caller is inferred from the stack, which must happen on the logging thread
+        record.getSourceClassName();
+
+        if (offer(record)) {
+            wakeWriter();
+            return;
+        }
+
+        if (mustWait(record)) {
+            while (!offer(record)) {
+                if (closed) {
+                    return;
+                }
+                wakeWriter();
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+            }
+            wakeWriter();
+        } else {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    private boolean mustWait(LogRecord record) {
+        if (overflowPolicy == OverflowPolicy.BLOCK || record.getLevel().intValue() >= Level.WARNING.intValue()) {
+            return true;
+        }
+        return overflowPolicy == OverflowPolicy.SAMPLE && overflowCount.incrementAndGet() % sampleRate == 0;
+    }
+
+    // Returns false when the buffer is full
+    private boolean offer(LogRecord record) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, record);
+
+                    // Publishes the record to the writer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private LogRecord poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        LogRecord record = slots.get(index);
+        slots.lazySet(index, null);
+
+        // Frees the slot for the producer one lap ahead
+        sequences.set(index, head + mask + 1);
+        head++;
+        return record;
+    }
+
+    private void wakeWriter() {
+        if (writerParked) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    private void writeLoop() {
+        StringBuilder batch = new StringBuilder(WRITE_BUFFER_SIZE);
+        while (true) {
+            Formatter formatter = getFormatter();
+            int count = 0;
+            LogRecord record;
+            while (count < batchSize && (record = poll()) != null) {
+                batch.append(format(formatter, record));
+                count++;
+            }
+
+            if (count > 0) {
+                write(batch, head);
+                batch.setLength(0);
+                continue;
+            }
+
+            if (closed && tail.get() == head) {
+                return;
+            }
+            writerParked = true;
+            if (tail.get() == head && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+    }
+
+    private String format(Formatter formatter, LogRecord record) {
+        try {
+            return formatter.format(record);
+        } catch (RuntimeException e) {
+            reportError(null, e, ErrorManager.FORMAT_FAILURE);
+            return "";
+        }
+    }
+
+    private void write(StringBuilder batch, long position) {
+        try {
+            Writer current = writer;
+            current.append(batch);
+
+            // Flush once the buffer is drained, so a burst costs one flush instead of one per record
+            if (tail.get() == position) {
+                current.flush();
+            }
+        } catch (IOException e) {
+            reportError(null, e, ErrorManager.WRITE_FAILURE);
+        }
+        writtenThrough = position;
+    }
+
+    // Waits until every record accepted before the call has been written and flushed
+    @Override
+    public void flush() {
+        long target = tail.get();
+        while (writtenThrough < target && writerThread.isAlive()) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            reportError(null, e, ErrorManager.FLUSH_FAILURE);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            reportError(null, e, ErrorManager.CLOSE_FAILURE);
+        }
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+}
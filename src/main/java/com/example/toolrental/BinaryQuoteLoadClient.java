@@ -0,0 +1,164 @@
+/**
+ * BinaryQuoteLoadClient class for the Tool Rental System application.
+ *
+ * This class generates quote load against a BinaryQuoteServer from the same
+ * machine so that tail latency can be measured without a separate load
+ * testing tool. Each connection runs on its own thread in a closed loop:
+ * it sends one request frame, waits for the response, records the round
+ * trip time and sends the next request.
+ *
+ * Key functionalities:
+ * - Opening a number of blocking connections and driving them concurrently.
+ * - Recording the round trip time of every request with System.nanoTime.
+ * - Reporting throughput and the 50th, 99th and 99.9th percentile and
+ *   maximum latency.
+ *
+ * Components:
+ * - address: The server to connect to.
+ * - connections: Number of concurrent connections, one thread each.
+ * - requestsPerConnection: Requests sent on each connection.
+ *
+ * Example usage:
+ * - Run Main with "load-binary localhost 9090 8 100000" while a server is
+ *   running with "serve-binary 9090".
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BinaryQuoteLoadClient {
+
+    private final InetSocketAddress address;
+    private final int connections;
+    private final int requestsPerConnection;
+
+    public BinaryQuoteLoadClient(InetSocketAddress address, int connections, int requestsPerConnection) {
+        if (connections < 1 || requestsPerConnection < 1) {
+            throw new IllegalArgumentException("Connections and requests must be 1 or greater");
+        }
+        this.address = address;
+        this.connections = connections;
+        this.requestsPerConnection = requestsPerConnection;
+    }
+
+    // Sends every request in toolCodes round-robin, checking out on checkOutDate
+    public Report run(List<String> toolCodes, LocalDate checkOutDate) throws IOException, InterruptedException {
+        long[] toolCodeKeys = new long[toolCodes.size()];
+        for (int i = 0; i < toolCodeKeys.length; i++) {
+            toolCodeKeys[i] = ToolCodeKey.pack(toolCodes.get(i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(connections);
+        try {
+            long start = System.nanoTime();
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int i = 0; i < connections; i++) {
+                int offset = i;
+                results.add(executor.submit(() -> runConnection(toolCodeKeys, offset, checkOutDate)));
+            }
+
+            long[] latencies = new long[connections * requestsPerConnection];
+            for (int i = 0; i < results.size(); i++) {
+                long[] connectionLatencies = results.get(i).get();
+                System.arraycopy(connectionLatencies, 0, latencies, i * requestsPerConnection, requestsPerConnection);
+            }
+            return new Report(latencies, System.nanoTime() - start);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Load client connection failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long[] runConnection(long[] toolCodeKeys, int offset, LocalDate checkOutDate) throws IOException {
+        long[] latencies = new long[requestsPerConnection];
+        ByteBuffer request = ByteBuffer.allocateDirect(BinaryQuoteProtocol.REQUEST_SIZE);
+        ByteBuffer response = ByteBuffer.allocateDirect(BinaryQuoteProtocol.RESPONSE_SIZE);
+
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            channel.socket().setTcpNoDelay(true);
+            for (int i = 0; i < requestsPerConnection; i++) {
+                request.clear();
+                BinaryQuoteProtocol.writeRequest(request, i, toolCodeKeys[(offset + i) % toolCodeKeys.length], checkOutDate, 1 + i % 7, i % 20, 1);
+                request.flip();
+
+                long sent = System.nanoTime();
+                while (request.hasRemaining()) {
+                    channel.write(request);
+                }
+                response.clear();
+                while (response.hasRemaining()) {
+                    if (channel.read(response) < 0) {
+                        throw new EOFException("Server closed the connection");
+                    }
+                }
+                latencies[i] = System.nanoTime() - sent;
+
+                response.flip();
+                BinaryQuoteProtocol.Response quote = BinaryQuoteProtocol.readResponse(response);
+                if (quote.getRequestId() != i) {
+                    throw new IOException("Expected response " + i + " but got " + quote.getRequestId());
+                }
+            }
+        }
+        return latencies;
+    }
+
+    public static class Report {
+
+        private final long[] latencies;
+        private final long elapsedNanos;
+
+        private Report(long[] latencies, long elapsedNanos) {
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            Arrays.sort(this.latencies);
+        }
+
+        public int getRequestCount() {
+            return latencies.length;
+        }
+
+        public double getRequestsPerSecond() {
+            return latencies.length * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        // Nearest-rank percentile of the recorded round trip times
+        public long getPercentileNanos(double percentile) {
+            int rank = (int) Math.ceil(percentile / 100.0 * latencies.length);
+            return latencies[Math.max(0, Math.min(latencies.length - 1, rank - 1))];
+        }
+
+        public long getMaxNanos() {
+            return latencies[latencies.length - 1];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, %.0f requests/s, p50 %d us, p99 %d us, p99.9 %d us, max %d us",
+                    getRequestCount(),
+                    getRequestsPerSecond(),
+                    getPercentileNanos(50) / 1000,
+                    getPercentileNanos(99) / 1000,
+                    getPercentileNanos(99.9) / 1000,
+                    getMaxNanos() / 1000);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * BinaryQuoteProtocol class for the Tool Rental System application.
+ *
+ * This class defines the compact binary quote protocol used by point-of-sale
+ * terminals. Requests and responses are fixed-size, big-endian frames, so a
+ * connection can carry many requests back to back without any framing
+ * overhead, and responses come back in request order.
+ *
+ * Request frame (26 bytes):
+ * - int requestId: Chosen by the client and echoed in the response.
+ * - long toolCode: The tool code packed by ToolCodeKey.
+ * - int checkOutEpochDay: LocalDate.toEpochDay of the checkout date.
+ * - int rentalDays: At most MAX_RENTAL_DAYS.
+ * - short discountPercent
+ * - int quantity
+ *
+ * Response frame (45 bytes):
+ * - int requestId
+ * - byte status: STATUS_OK or one of the error statuses below; on an error
+ *   every following field is zero.
+ * - int dueEpochDay
+ * - int chargeDays
+ * - long dailyRentalChargeCents: FixedPointPricing.NOT_REPRESENTABLE when the
+ *   daily rate has sub-cent digits.
+ * - long preDiscountChargeCents, discountAmountCents, finalChargeCents
+ *
+ * Example usage:
+ * - BinaryQuoteServer decodes requests and encodes responses with this class,
+ *   and BinaryQuoteLoadClient does the reverse.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+public final class BinaryQuoteProtocol {
+
+    public static final int REQUEST_SIZE = 26;
+    public static final int RESPONSE_SIZE = 45;
+
+    // Longer rentals are rejected so one frame cannot hold the selector thread for long
+    public static final int MAX_RENTAL_DAYS = 36525;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_UNKNOWN_TOOL = 1;
+    public static final byte STATUS_INVALID_REQUEST = 2;
+    public static final byte STATUS_NOT_REPRESENTABLE = 3;
+
+    private BinaryQuoteProtocol() {
+    }
+
+    public static void writeRequest(ByteBuffer buffer, int requestId, long toolCodeKey, LocalDate checkOutDate, int rentalDays, int discountPercent, int quantity) {
+        buffer.putInt(requestId);
+        buffer.putLong(toolCodeKey);
+        buffer.putInt(Math.toIntExact(checkOutDate.toEpochDay()));
+        buffer.putInt(rentalDays);
+        buffer.putShort((short) discountPercent);
+        buffer.putInt(quantity);
+    }
+
+    // Reads one request frame and prices it, writing one response frame
+    static void handleRequest(ByteBuffer request, ByteBuffer response, ChargeProcessor chargeProcessor) {
+        int requestId = request.getInt();
+        long toolCodeKey = request.getLong();
+        int checkOutEpochDay = request.getInt();
+        int rentalDays = request.getInt();
+        int discountPercent = request.getShort();
+        int quantity = request.getInt();
+
+        ChargeRule chargeRule = chargeProcessor.findRule(toolCodeKey);
+        if (chargeRule == null) {
+            writeError(response, requestId, STATUS_UNKNOWN_TOOL);
+            return;
+        }
+
+        if (rentalDays > MAX_RENTAL_DAYS) {
+            writeError(response, requestId, STATUS_INVALID_REQUEST);
+            return;
+        }
+
+        RentalAgreement agreement;
+        int dueEpochDay;
+        try {
+            agreement = new RentalAgreement(
+                    chargeRule.getToolCode(),
+                    chargeRule.getToolType(),
+                    chargeRule.getToolBrand(),
+                    rentalDays,
+                    LocalDate.ofEpochDay(checkOutEpochDay),
+                    discountPercent,
+                    quantity,
+                    chargeProcessor,
+                    chargeRule
+            );
+            // The due date must fit the response frame, which is checked before any of it is written
+            dueEpochDay = Math.toIntExact(agreement.getDueDate().toEpochDay());
+        } catch (IllegalArgumentException | ArithmeticException | DateTimeException e) {
+            // Bad input from the wire, such as a date out of range, must not take down the connection
+            writeError(response, requestId, STATUS_INVALID_REQUEST);
+            return;
+        }
+
+        long preDiscountChargeCents = FixedPointPricing.toCents(agreement.getPreDiscountCharge());
+        long discountAmountCents = FixedPointPricing.toCents(agreement.getDiscountAmount());
+        long finalChargeCents = FixedPointPricing.toCents(agreement.getFinalCharge());
+        if (preDiscountChargeCents == FixedPointPricing.NOT_REPRESENTABLE
+                || discountAmountCents == FixedPointPricing.NOT_REPRESENTABLE
+                || finalChargeCents == FixedPointPricing.NOT_REPRESENTABLE) {
+            writeError(response, requestId, STATUS_NOT_REPRESENTABLE);
+            return;
+        }
+
+        response.putInt(requestId);
+        response.put(STATUS_OK);
+        response.putInt(dueEpochDay);
+        response.putInt(agreement.getChargeDays());
+        response.putLong(FixedPointPricing.toCents(agreement.getDailyRentalCharge()));
+        response.putLong(preDiscountChargeCents);
+        response.putLong(discountAmountCents);
+        response.putLong(finalChargeCents);
+    }
+
+    private static void writeError(ByteBuffer response, int requestId, byte status) {
+        response.putInt(requestId);
+        response.put(status);
+        response.putInt(0);
+        response.putInt(0);
+        response.putLong(0);
+        response.putLong(0);
+        response.putLong(0);
+        response.putLong(0);
+    }
+
+    public static Response readResponse(ByteBuffer buffer) {
+        return new Response(
+                buffer.getInt(),
+                buffer.get(),
+                buffer.getInt(),
+                buffer.getInt(),
+                buffer.getLong(),
+                buffer.getLong(),
+                buffer.getLong(),
+                buffer.getLong()
+        );
+    }
+
+    public static class Response {
+
+        private final int requestId;
+        private final byte status;
+        private final int dueEpochDay;
+        private final int chargeDays;
+        private final long dailyRentalChargeCents;
+        private final long preDiscountChargeCents;
+        private final long discountAmountCents;
+        private final long finalChargeCents;
+
+        private Response(int requestId, byte status, int dueEpochDay, int chargeDays, long dailyRentalChargeCents, long preDiscountChargeCents, long discountAmountCents, long finalChargeCents) {
+            this.requestId = requestId;
+            this.status = status;
+            this.dueEpochDay = dueEpochDay;
+            this.chargeDays = chargeDays;
+            this.dailyRentalChargeCents = dailyRentalChargeCents;
+            this.preDiscountChargeCents = preDiscountChargeCents;
+            this.discountAmountCents = discountAmountCents;
+            this.finalChargeCents = finalChargeCents;
+        }
+
+        public int getRequestId() {
+            return requestId;
+        }
+
+        public byte getStatus() {
+            return status;
+        }
+
+        public LocalDate getDueDate() {
+            return LocalDate.ofEpochDay(dueEpochDay);
+        }
+
+        public int getChargeDays() {
+            return chargeDays;
+        }
+
+        public long getDailyRentalChargeCents() {
+            return dailyRentalChargeCents;
+        }
+
+        public long getPreDiscountChargeCents() {
+            return preDiscountChargeCents;
+        }
+
+        public long getDiscountAmountCents() {
+            return discountAmountCents;
+        }
+
+        public long getFinalChargeCents() {
+            return finalChargeCents;
+        }
+    }
+}
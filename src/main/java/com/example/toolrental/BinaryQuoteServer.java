@@ -0,0 +1,255 @@
+/**
+ * BinaryQuoteServer class for the Tool Rental System application.
+ *
+ * This class serves the BinaryQuoteProtocol from a single selector thread
+ * using non-blocking NIO. Each connection borrows a direct read buffer and a
+ * direct write buffer from a pool when it is accepted and returns them when
+ * it closes, so steady-state serving allocates no buffers.
+ *
+ * Key functionalities:
+ * - Accepting connections and reading request frames without blocking.
+ * - Pricing every complete frame through a read-only ChargeProcessor snapshot
+ *   and writing the response frames in request order.
+ * - Applying back-pressure: requests are only decoded while the write buffer
+ *   has room for their responses, and reading pauses until it drains.
+ *
+ * Components:
+ * - selector: The single Selector for the server socket and all connections.
+ * - bufferPool: Direct ByteBuffers returned by closed connections.
+ * - chargeProcessor: Read-only snapshot taken when the server is created.
+ *
+ * Example usage:
+ * - Run Main with "serve-binary 9090" and point terminals, or
+ *   BinaryQuoteLoadClient, at that port.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class BinaryQuoteServer {
+
+    private static final Logger logger = LoggerConfig.getLogger();
+
+    // Room for 256 frames in each direction per connection
+    public static final int DEFAULT_READ_BUFFER_SIZE = BinaryQuoteProtocol.REQUEST_SIZE * 256;
+    public static final int DEFAULT_WRITE_BUFFER_SIZE = BinaryQuoteProtocol.RESPONSE_SIZE * 256;
+
+    private final ChargeProcessor chargeProcessor;
+    private final InetSocketAddress address;
+    private final int readBufferSize;
+    private final int writeBufferSize;
+    private final ArrayDeque<ByteBuffer> readBufferPool = new ArrayDeque<>();
+    private final ArrayDeque<ByteBuffer> writeBufferPool = new ArrayDeque<>();
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    public BinaryQuoteServer(ChargeProcessor chargeProcessor, InetSocketAddress address) {
+        this(chargeProcessor, address, DEFAULT_READ_BUFFER_SIZE, DEFAULT_WRITE_BUFFER_SIZE);
+    }
+
+    public BinaryQuoteServer(ChargeProcessor chargeProcessor, InetSocketAddress address, int readBufferSize, int writeBufferSize) {
+        if (readBufferSize < BinaryQuoteProtocol.REQUEST_SIZE || writeBufferSize < BinaryQuoteProtocol.RESPONSE_SIZE) {
+            throw new IllegalArgumentException("Buffers must hold at least one request and one response frame");
+        }
+        this.chargeProcessor = chargeProcessor.snapshot();
+        this.address = address;
+        this.readBufferSize = readBufferSize;
+        this.writeBufferSize = writeBufferSize;
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            throw new IllegalStateException("Server already started");
+        }
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        running = true;
+        selectorThread = new Thread(this::run, "binary-quote-selector");
+        selectorThread.start();
+        logger.log(Level.INFO, "Binary quote server listening on port {0}", String.valueOf(getPort()));
+    }
+
+    public synchronized void stop() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isWritable()) {
+                                connection.write();
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                connection.read();
+                            }
+                        }
+                    } catch (IOException e) {
+                        // One broken connection must not stop the others
+                        logger.log(Level.FINE, "Closing binary quote connection", e);
+                        if (key.attachment() instanceof Connection) {
+                            ((Connection) key.attachment()).close();
+                        }
+                    } catch (RuntimeException e) {
+                        // Nor may a frame that fails unexpectedly, which only closes its own connection
+                        logger.log(Level.WARNING, "Closing binary quote connection after an unexpected error", e);
+                        if (key.attachment() instanceof Connection) {
+                            ((Connection) key.attachment()).close();
+                        }
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            logger.log(Level.WARNING, "Binary quote server stopped", e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                ((Connection) key.attachment()).close();
+            }
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error closing binary quote server", e);
+        }
+    }
+
+    private ByteBuffer borrow(ArrayDeque<ByteBuffer> pool, int size) {
+        ByteBuffer buffer = pool.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(size);
+    }
+
+    // Only touched by the selector thread
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final ByteBuffer readBuffer;
+        private final ByteBuffer writeBuffer;
+        private SelectionKey key;
+        private boolean closed;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.readBuffer = borrow(readBufferPool, readBufferSize);
+            this.writeBuffer = borrow(writeBufferPool, writeBufferSize);
+        }
+
+        private void read() throws IOException {
+            int read = channel.read(readBuffer);
+            if (read < 0) {
+                close();
+                return;
+            }
+            process();
+        }
+
+        // Prices every complete request frame that the write buffer has room to answer
+        private void process() throws IOException {
+            readBuffer.flip();
+            while (readBuffer.remaining() >= BinaryQuoteProtocol.REQUEST_SIZE
+                    && writeBuffer.remaining() >= BinaryQuoteProtocol.RESPONSE_SIZE) {
+                BinaryQuoteProtocol.handleRequest(readBuffer, writeBuffer, chargeProcessor);
+            }
+            readBuffer.compact();
+            write();
+        }
+
+        private void write() throws IOException {
+            writeBuffer.flip();
+            channel.write(writeBuffer);
+            writeBuffer.compact();
+
+            boolean pendingWrites = writeBuffer.position() > 0;
+            boolean readBufferFull = !readBuffer.hasRemaining();
+            if (!pendingWrites && readBuffer.position() >= BinaryQuoteProtocol.REQUEST_SIZE) {
+                // Frames held back by a full write buffer can be answered now
+                process();
+                return;
+            }
+
+            int interest = (pendingWrites ? SelectionKey.OP_WRITE : 0) | (readBufferFull ? 0 : SelectionKey.OP_READ);
+            if (key.interestOps() != interest) {
+                key.interestOps(interest);
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.log(Level.FINE, "Error closing binary quote connection", e);
+            }
+
+            readBuffer.clear();
+            writeBuffer.clear();
+            readBufferPool.push(readBuffer);
+            writeBufferPool.push(writeBuffer);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * BulkPricingEngine class for the Tool Rental System application.
+ *
+ * This class prices large sets of rental requests in parallel. The requests
+ * are split into contiguous ranges on a ForkJoinPool, each range is priced
+ * with ChargeProcessor.priceAll, and the results are joined left before
+ * right, so the agreements and BigDecimal totals are exactly those of
+ * sequential pricing whatever the parallelism.
+ *
+ * Key functionalities:
+ * - Pricing against a read-only snapshot of the ChargeProcessor and its
+ *   HolidayProcessor, taken when the engine is created.
+ * - Splitting requests recursively until a range is no larger than the batch size.
+ * - Placing each agreement at its input position and summing pre-discount
+ *   charge, discount amount and final charge range by range in input order,
+ *   in the same AgreementTemplate.Totals that consolidated agreements use.
+ *
+ * Components:
+ * - chargeProcessor: The read-only snapshot used by every worker thread.
+ * - pool: ForkJoinPool with the configured parallelism.
+ * - batchSize: Largest range priced by a single task.
+ * - Result: The agreements in input order and their totals.
+ *
+ * Example usage:
+ * - Create an engine for a month-end reprice job, call price with all open
+ *   rental requests, and close the engine when the job is done.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class BulkPricingEngine implements AutoCloseable {
+
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final ChargeProcessor chargeProcessor;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+
+    public BulkPricingEngine(ChargeProcessor chargeProcessor, int parallelism) {
+        this(chargeProcessor, parallelism, DEFAULT_BATCH_SIZE);
+    }
+
+    public BulkPricingEngine(ChargeProcessor chargeProcessor, int parallelism, int batchSize) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be 1 or greater");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be 1 or greater");
+        }
+        this.chargeProcessor = chargeProcessor.snapshot();
+        this.pool = new ForkJoinPool(parallelism);
+        this.batchSize = batchSize;
+    }
+
+    public ChargeProcessor getChargeProcessor() {
+        return chargeProcessor;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public Result price(List<RentalRequest> requests) {
+        // Copied so that the caller changing its list cannot affect the workers
+        List<RentalRequest> snapshot = new ArrayList<>(requests);
+        RentalAgreement[] agreements = new RentalAgreement[snapshot.size()];
+
+        AgreementTemplate.Totals totals = pool.invoke(new PricingTask(snapshot, agreements, 0, snapshot.size()));
+        return new Result(Collections.unmodifiableList(Arrays.asList(agreements)), totals);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private class PricingTask extends RecursiveTask<AgreementTemplate.Totals> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<RentalRequest> requests;
+        private final RentalAgreement[] agreements;
+        private final int from;
+        private final int to;
+
+        private PricingTask(List<RentalRequest> requests, RentalAgreement[] agreements, int from, int to) {
+            this.requests = requests;
+            this.agreements = agreements;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected AgreementTemplate.Totals compute() {
+            if (to - from <= batchSize) {
+                // Each task writes only its own range of the shared array; join publishes the writes
+                List<RentalAgreement> priced = chargeProcessor.priceAll(requests.subList(from, to));
+                AgreementTemplate.Totals totals = new AgreementTemplate.Totals();
+                for (int i = 0; i < priced.size(); i++) {
+                    agreements[from + i] = priced.get(i);
+                    totals.add(priced.get(i));
+                }
+                return totals;
+            }
+
+            int middle = (from + to) >>> 1;
+            PricingTask left = new PricingTask(requests, agreements, from, middle);
+            PricingTask right = new PricingTask(requests, agreements, middle, to);
+            left.fork();
+            AgreementTemplate.Totals rightTotals = right.compute();
+
+            // BigDecimal addition is exact, so adding the ranges in order gives the sequential totals
+            AgreementTemplate.Totals totals = left.join();
+            totals.add(rightTotals);
+            return totals;
+        }
+    }
+
+    public static class Result {
+
+        private final List<RentalAgreement> agreements;
+        private final BigDecimal totalPreDiscountCharge;
+        private final BigDecimal totalDiscountAmount;
+        private final BigDecimal totalFinalCharge;
+
+        private Result(List<RentalAgreement> agreements, AgreementTemplate.Totals totals) {
+            this.agreements = agreements;
+            this.totalPreDiscountCharge = totals.getPreDiscountCharge();
+            this.totalDiscountAmount = totals.getDiscountAmount();
+            this.totalFinalCharge = totals.getFinalCharge();
+        }
+
+        public List<RentalAgreement> getAgreements() {
+            return agreements;
+        }
+
+        public BigDecimal getTotalPreDiscountCharge() {
+            return totalPreDiscountCharge;
+        }
+
+        public BigDecimal getTotalDiscountAmount() {
+            return totalDiscountAmount;
+        }
+
+        public BigDecimal getTotalFinalCharge() {
+            return totalFinalCharge;
+        }
+    }
+}
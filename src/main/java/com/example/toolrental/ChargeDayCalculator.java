@@ -0,0 +1,95 @@
+/**
+ * ChargeDayCalculator class for the Tool Rental System application.
+ *
+ * This class counts the chargeable days of a rental period in constant time
+ * with respect to the rental length. Instead of visiting every day, it counts
+ * whole weeks, resolves the partial-week remainder, and then corrects the
+ * weekday and weekend totals for the holidays that fall inside the period.
+ *
+ * Key functionalities:
+ * - Counting weekend days between two dates from whole weeks and a remainder.
+ * - Splitting holidays into weekday holidays and weekend holidays.
+ * - Applying the same chargeability rules as the original day-by-day scan:
+ *   a holiday is charged when the holiday charge is positive, a weekend day
+ *   (holiday or not) when the weekend charge is positive, and a plain weekday
+ *   when the weekday charge is positive.
+ *
+ * Example usage:
+ * - Used by ChargeDayTable to count the charge days of one chargeable
+ *   day-type mask outside its prebuilt years; PricingPlan splits a rental at
+ *   its rate period boundaries and counts each part through those tables.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+public final class ChargeDayCalculator {
+
+    private ChargeDayCalculator() {
+    }
+
+    public static int countChargeDays(LocalDate startDate, LocalDate endDate, int chargeableMask, HolidayProcessor holidayProcessor) {
+        if (startDate.isAfter(endDate)) {
+            return 0;
+        }
+
+        long totalDays = endDate.toEpochDay() - startDate.toEpochDay() + 1;
+        long weekendDays = countWeekendDays(startDate.getDayOfWeek(), totalDays);
+        long weekdays = totalDays - weekendDays;
+
+        long weekdayHolidays = 0;
+        long weekendHolidays = 0;
+        for (LocalDate holiday : holidayProcessor.getHolidays(startDate, endDate)) {
+            if (isWeekend(holiday.getDayOfWeek())) {
+                weekendHolidays++;
+            } else {
+                weekdayHolidays++;
+            }
+        }
+
+        boolean weekdayChargeable = (chargeableMask & ChargeRule.CHARGEABLE_WEEKDAY) != 0;
+        boolean weekendChargeable = (chargeableMask & ChargeRule.CHARGEABLE_WEEKEND) != 0;
+        boolean holidayChargeable = (chargeableMask & ChargeRule.CHARGEABLE_HOLIDAY) != 0;
+
+        long chargeDays = 0;
+        if (weekdayChargeable) {
+            chargeDays += weekdays - weekdayHolidays;
+        }
+        if (weekendChargeable) {
+            chargeDays += weekendDays - weekendHolidays;
+        }
+        if (holidayChargeable) {
+            chargeDays += weekdayHolidays;
+        }
+        if (holidayChargeable || weekendChargeable) {
+            chargeDays += weekendHolidays;
+        }
+
+        return Math.toIntExact(chargeDays);
+    }
+
+    static long countWeekendDays(DayOfWeek startDay, long totalDays) {
+        long weekendDays = (totalDays / 7) * 2;
+
+        // The remainder covers fewer than seven consecutive days starting at startDay
+        int remainder = (int) (totalDays % 7);
+        int first = startDay.getValue() - 1;
+        int last = first + remainder - 1;
+        if (remainder > 0) {
+            weekendDays += overlap(first, last, 5, 6) + overlap(first, last, 12, 13);
+        }
+
+        return weekendDays;
+    }
+
+    private static int overlap(int first, int last, int weekendStart, int weekendEnd) {
+        return Math.max(0, Math.min(last, weekendEnd) - Math.max(first, weekendStart) + 1);
+    }
+
+    private static boolean isWeekend(DayOfWeek dayOfWeek) {
+        return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+    }
+}
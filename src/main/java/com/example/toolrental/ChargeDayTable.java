@@ -0,0 +1,154 @@
+/**
+ * ChargeDayTable class for the Tool Rental System application.
+ *
+ * This class keeps a cumulative count of chargeable days per day of year for
+ * one chargeable day-type mask, so the number of charge days in any window is
+ * the difference of two cumulative counts. Years are built lazily on first use
+ * and published through an immutable, volatile snapshot, which makes a table
+ * safe to share between threads without locking on the read path.
+ *
+ * Key functionalities:
+ * - Counting charge days between two dates with two array reads once the
+ *   years involved are built.
+ * - Growing the built range with a copy-on-write step when a window falls
+ *   outside it.
+ * - Falling back to ChargeDayCalculator for windows too far from the built range.
+ *
+ * Components:
+ * - chargeableMask: The ChargeRule day-type mask the table counts for.
+ * - holidayProcessor: Source of the holidays for each year.
+ * - years: Per-year cumulative counts plus the running total before each year.
+ *
+ * Example usage:
+ * - Obtained through HolidayProcessor.getChargeDayTable(mask), which shares one
+ *   table between all ChargeRules with the same mask, and used by
+ *   PricingPlan.countChargeDays for pricing sweeps.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.time.LocalDate;
+import java.time.Year;
+
+public class ChargeDayTable {
+
+    // Windows further than this from the built range are counted in closed form without being cached
+    private static final int MAX_GROWTH_YEARS = 400;
+
+    private final int chargeableMask;
+    private final HolidayProcessor holidayProcessor;
+    private volatile Years years;
+
+    public ChargeDayTable(int chargeableMask, HolidayProcessor holidayProcessor) {
+        this.chargeableMask = chargeableMask;
+        this.holidayProcessor = holidayProcessor;
+    }
+
+    public int getChargeableMask() {
+        return chargeableMask;
+    }
+
+    public int countChargeDays(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return 0;
+        }
+
+        Years snapshot = years;
+        if (snapshot == null || startDate.getYear() < snapshot.firstYear || endDate.getYear() > snapshot.lastYear) {
+            snapshot = grow(startDate.getYear(), endDate.getYear());
+            if (snapshot == null) {
+                return ChargeDayCalculator.countChargeDays(startDate, endDate, chargeableMask, holidayProcessor);
+            }
+        }
+
+        return snapshot.chargeDaysThrough(endDate) - snapshot.chargeDaysBefore(startDate);
+    }
+
+    private synchronized Years grow(int fromYear, int toYear) {
+        Years current = years;
+        if (current != null && fromYear >= current.firstYear && toYear <= current.lastYear) {
+            return current;
+        }
+
+        int firstYear = current == null ? fromYear : Math.min(fromYear, current.firstYear);
+        int lastYear = current == null ? toYear : Math.max(toYear, current.lastYear);
+        if (lastYear - firstYear > MAX_GROWTH_YEARS) {
+            return null;
+        }
+
+        int[][] cumulative = new int[lastYear - firstYear + 1][];
+        for (int year = firstYear; year <= lastYear; year++) {
+            if (current != null && year >= current.firstYear && year <= current.lastYear) {
+                // Built years never change, so the new snapshot can share them
+                cumulative[year - firstYear] = current.cumulative[year - current.firstYear];
+            } else {
+                cumulative[year - firstYear] = buildYear(year);
+            }
+        }
+
+        Years grown = new Years(firstYear, cumulative);
+        years = grown;
+        return grown;
+    }
+
+    private int[] buildYear(int year) {
+        int length = Year.isLeap(year) ? 366 : 365;
+
+        boolean[] holidays = new boolean[length];
+        for (LocalDate holiday : holidayProcessor.getHolidays(LocalDate.ofYearDay(year, 1), LocalDate.ofYearDay(year, length))) {
+            holidays[holiday.getDayOfYear() - 1] = true;
+        }
+
+        boolean weekdayChargeable = (chargeableMask & ChargeRule.CHARGEABLE_WEEKDAY) != 0;
+        boolean weekendChargeable = (chargeableMask & ChargeRule.CHARGEABLE_WEEKEND) != 0;
+        boolean holidayChargeable = (chargeableMask & ChargeRule.CHARGEABLE_HOLIDAY) != 0;
+
+        int[] cumulative = new int[length + 1];
+        int dayOfWeek = LocalDate.ofYearDay(year, 1).getDayOfWeek().ordinal();
+        for (int day = 0; day < length; day++) {
+            boolean weekend = dayOfWeek >= 5;
+
+            // Same rules as ChargeDayCalculator: a weekend holiday is charged at either rate
+            boolean chargeable;
+            if (holidays[day]) {
+                chargeable = holidayChargeable || (weekend && weekendChargeable);
+            } else {
+                chargeable = weekend ? weekendChargeable : weekdayChargeable;
+            }
+
+            cumulative[day + 1] = cumulative[day] + (chargeable ? 1 : 0);
+            dayOfWeek = dayOfWeek == 6 ? 0 : dayOfWeek + 1;
+        }
+        return cumulative;
+    }
+
+    private static final class Years {
+
+        private final int firstYear;
+        private final int lastYear;
+        private final int[][] cumulative;
+        private final int[] chargeDaysBeforeYear;
+
+        private Years(int firstYear, int[][] cumulative) {
+            this.firstYear = firstYear;
+            this.lastYear = firstYear + cumulative.length - 1;
+            this.cumulative = cumulative;
+            this.chargeDaysBeforeYear = new int[cumulative.length];
+            for (int i = 1; i < cumulative.length; i++) {
+                int[] previous = cumulative[i - 1];
+                chargeDaysBeforeYear[i] = chargeDaysBeforeYear[i - 1] + previous[previous.length - 1];
+            }
+        }
+
+        private int chargeDaysBefore(LocalDate date) {
+            int index = date.getYear() - firstYear;
+            return chargeDaysBeforeYear[index] + cumulative[index][date.getDayOfYear() - 1];
+        }
+
+        private int chargeDaysThrough(LocalDate date) {
+            int index = date.getYear() - firstYear;
+            return chargeDaysBeforeYear[index] + cumulative[index][date.getDayOfYear()];
+        }
+    }
+}
@@ -9,14 +9,29 @@
  * Key functionalities:
  * - Initialization with a list of ChargeRule objects and a HolidayProcessor.
  * - Logging the charge rules during initialization for transparency.
+ * - Indexing the charge rules by tool code for constant-time lookup.
  * - Calculating the total rental charge for a given rental period and
  *   charge rule.
+ * - Pricing a batch of rental requests together: requests are sorted by tool
+ *   code and checkout date, each ChargeRule and its PricingPlan are resolved
+ *   once per tool code, requests with the same tool and checkout date share
+ *   their first chargeable day, and charge days come from the plan's
+ *   cumulative ChargeDayTables, shared by every rule with the same chargeable
+ *   day types.
+ * - Taking a read-only snapshot of the rules and holidays for pricing from
+ *   several threads at once.
+ * - Interning the Tool of every agreement it prices, so agreements share
+ *   one Tool per tool code, type and brand.
  *
  * Components:
  * - List of ChargeRule: Defines the rental charges based on the type
  *   of tool and the day (weekday, weekend, holiday).
+ * - Rule index: Immutable ToolCodeRuleMap from tool code to the first
+ *   ChargeRule configured for that code, keyed by packed ToolCodeKey.
  * - HolidayProcessor: Checks if a specific date is a holiday to determine
  *   if a charge should be applied.
+ * - ToolRegistry: Seeded with the Tool of every ChargeRule and shared with
+ *   snapshots.
  *
  * Example usage:
  * - Calculate the total charge for a rental period by excluding holidays
@@ -29,7 +44,12 @@ package com.example.toolrental;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,11 +57,22 @@ public class ChargeProcessor {
 
     private static final Logger logger = LoggerConfig.getLogger();
     private final List<ChargeRule> chargeRules;
+    private final ToolCodeRuleMap rulesByToolCode;
     private final HolidayProcessor holidayProcessor;
+    private final ToolRegistry toolRegistry;
 
     public ChargeProcessor(List<ChargeRule> chargeRules, HolidayProcessor holidayProcessor) {
+        this(chargeRules, holidayProcessor, new ToolRegistry());
+    }
+
+    private ChargeProcessor(List<ChargeRule> chargeRules, HolidayProcessor holidayProcessor, ToolRegistry toolRegistry) {
         this.chargeRules = chargeRules;
+        this.rulesByToolCode = new ToolCodeRuleMap(chargeRules);
         this.holidayProcessor = holidayProcessor;
+        this.toolRegistry = toolRegistry;
+        for (ChargeRule rule : chargeRules) {
+            toolRegistry.register(rule.getTool());
+        }
         logChargeRules();
     }
 
@@ -59,16 +90,88 @@ public class ChargeProcessor {
         return chargeRules;
     }
 
+    public ToolRegistry getToolRegistry() {
+        return toolRegistry;
+    }
+
+    public ChargeProcessor snapshot() {
+        HolidayProcessor holidaySnapshot = holidayProcessor.snapshot();
+
+        // Rebind every rule so that holiday lookups never reach the mutable processor; the rebound
+        // rules keep their Tools, so the snapshot shares this processor's ToolRegistry
+        List<ChargeRule> rules = new ArrayList<>(chargeRules.size());
+        for (ChargeRule rule : chargeRules) {
+            rules.add(rule.withHolidayProcessor(holidaySnapshot));
+        }
+        return new ChargeProcessor(Collections.unmodifiableList(rules), holidaySnapshot, toolRegistry);
+    }
+
+    public ChargeRule findRule(String toolCode) {
+        return rulesByToolCode.get(toolCode);
+    }
+
+    public ChargeRule findRule(long toolCodeKey) {
+        return rulesByToolCode.get(toolCodeKey);
+    }
+
+    public List<RentalAgreement> priceAll(List<RentalRequest> requests) {
+        int size = requests.size();
+        RentalRequest[] sorted = requests.toArray(new RentalRequest[size]);
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> sorted[i].getToolCode(), Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                .thenComparing(i -> sorted[i].getCheckOutDate()));
+
+        RentalAgreement[] agreements = new RentalAgreement[size];
+        RentalRequest previous = null;
+        ChargeRule chargeRule = null;
+        PricingPlan pricingPlan = null;
+        LocalDate firstChargeableDay = null;
+
+        for (Integer index : order) {
+            RentalRequest request = sorted[index];
+
+            boolean sameTool = previous != null && Objects.equals(request.getToolCode(), previous.getToolCode());
+            if (!sameTool) {
+                chargeRule = request.getToolCodeKey() != ToolCodeKey.NONE ? findRule(request.getToolCodeKey()) : findRule(request.getToolCode());
+                if (chargeRule == null) {
+                    throw new IllegalArgumentException("Charge rule not found for tool code: " + request.getToolCode());
+                }
+                pricingPlan = chargeRule.getPricingPlan(holidayProcessor);
+            }
+            if (!sameTool || !request.getCheckOutDate().equals(previous.getCheckOutDate())) {
+                firstChargeableDay = pricingPlan.findFirstChargeableDay(request.getCheckOutDate());
+            }
+
+            agreements[index] = new RentalAgreement(
+                    toolRegistry.intern(request.getTool()),
+                    request.getRentalDays(),
+                    request.getCheckOutDate(),
+                    request.getDiscountPercent(),
+                    request.getQuantity(),
+                    holidayProcessor,
+                    chargeRule,
+                    firstChargeableDay,
+                    pricingPlan.countChargeDays(request.getCheckOutDate(), request.getDueDate())
+            );
+            previous = request;
+        }
+
+        return new ArrayList<>(Arrays.asList(agreements));
+    }
+
     public BigDecimal calculateTotalCharge(LocalDate startDate, LocalDate endDate, ChargeRule chargeRule) {
         BigDecimal totalCharge = BigDecimal.ZERO;
         for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
             if (!holidayProcessor.isHoliday(date)) {
                 BigDecimal charge = chargeRule.getCharge(date);
-                logger.log(Level.INFO, "Date: {0} - Charge: {1}", new Object[]{date, charge});
+                PricingTrace.dailyCharge(chargeRule.getTool(), date, charge);
                 totalCharge = totalCharge.add(charge);
             }
         }
-        logger.log(Level.INFO, "Total Charge: {0}", totalCharge);
+        PricingTrace.totalCharge(chargeRule.getTool(), totalCharge);
         return totalCharge.setScale(2, RoundingMode.HALF_UP);
     }
     
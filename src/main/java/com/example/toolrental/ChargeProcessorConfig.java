@@ -8,15 +8,18 @@
  *
  * Key functionalities:
  * - Reading and parsing configuration files (JSON and YAML) to retrieve tool charge details.
- * - Constructing ChargeRule objects from the parsed tool charge data.
+ * - Constructing ChargeRule objects from the parsed tool charge data, including any
+ *   effective-dated rate periods.
  * - Providing a method to get the list of ChargeRule objects for use in charge calculations.
  *
  * Components:
  * - CONFIG_PATH: Directory path where the configuration files are located.
- * - getChargeRules: Main method to read and parse the configuration file and create ChargeRule objects.
- * - getConfigFilePath: Helper method to build the file path based on the configuration type (JSON or YAML).
+ * - getChargeRules: Main method to read and parse the configuration file and create ChargeRule objects,
+ *   either by file name under CONFIG_PATH or from an explicit path.
+ * - getConfigFile: Helper method to build the file path based on the configuration type (JSON or YAML).
  * - readJsonConfig: Helper method to read and parse JSON configuration files.
  * - readYamlConfig: Helper method to read and parse YAML configuration files.
+ * - buildChargeRules: Helper method to turn parsed tool charges into ChargeRule objects.
  *
  * Example usage:
  * - Load tool charge rules from a JSON or YAML configuration file to initialize the ChargeProcessor.
@@ -29,6 +32,10 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -42,8 +49,12 @@ public class ChargeProcessorConfig {
     private static final String CONFIG_PATH = "src/main/resources/config/";
 
     public static List<ChargeRule> getChargeRules(ConfigFileType configType, String configFileName, HolidayProcessor holidayProcessor) throws IOException {
+        return getChargeRules(configType, getConfigFile(configType, configFileName), holidayProcessor);
+    }
+
+    public static List<ChargeRule> getChargeRules(ConfigFileType configType, Path configFile, HolidayProcessor holidayProcessor) throws IOException {
         ToolChargeConfig config;
-        String configFilePath = getConfigFilePath(configType, configFileName);
+        String configFilePath = configFile.toString();
 
         switch (configType) {
             case JSON:
@@ -56,18 +67,21 @@ public class ChargeProcessorConfig {
                 throw new IllegalArgumentException("Unsupported config type: " + configType);
         }
 
+        return buildChargeRules(config, holidayProcessor);
+    }
+
+    static List<ChargeRule> buildChargeRules(ToolChargeConfig config, HolidayProcessor holidayProcessor) {
         List<ChargeRule> chargeRules = new ArrayList<>();
         List<ToolChargeConfig.ToolCharge> toolCharges = config.getTools();
 
         for (ToolChargeConfig.ToolCharge toolCharge : toolCharges) {
 
             ChargeRule rule = new ChargeRule(
-                    toolCharge.getToolCode(),
-                    toolCharge.getToolType(),
-                    toolCharge.getToolBrand(),
+                    new Tool(toolCharge.getToolCode(), toolCharge.getToolType(), toolCharge.getToolBrand()),
                     toolCharge.getWeekdayCharge(),
                     toolCharge.getWeekendCharge(),
                     toolCharge.getHolidayCharge(),
+                    buildRatePeriods(toolCharge),
                     holidayProcessor
             );
             chargeRules.add(rule);
@@ -77,12 +91,35 @@ public class ChargeProcessorConfig {
         return chargeRules;
     }
 
-    private static String getConfigFilePath(ConfigFileType configType, String configFileName) {
+    private static List<ChargeRule.RatePeriod> buildRatePeriods(ToolChargeConfig.ToolCharge toolCharge) {
+        List<ChargeRule.RatePeriod> ratePeriods = new ArrayList<>();
+        if (toolCharge.getRatePeriods() == null) {
+            return ratePeriods;
+        }
+
+        for (ToolChargeConfig.RatePeriod ratePeriod : toolCharge.getRatePeriods()) {
+            if (ratePeriod.getEffectiveDate() == null || ratePeriod.getWeekdayCharge() == null
+                    || ratePeriod.getWeekendCharge() == null || ratePeriod.getHolidayCharge() == null) {
+                throw new IllegalArgumentException("Rate period for tool code " + toolCharge.getToolCode() + " must have effectiveDate, weekdayCharge, weekendCharge and holidayCharge");
+            }
+
+            LocalDate effectiveDate;
+            try {
+                effectiveDate = LocalDate.parse(ratePeriod.getEffectiveDate());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid effective date for tool code " + toolCharge.getToolCode() + ": " + ratePeriod.getEffectiveDate());
+            }
+            ratePeriods.add(new ChargeRule.RatePeriod(effectiveDate, ratePeriod.getWeekdayCharge(), ratePeriod.getWeekendCharge(), ratePeriod.getHolidayCharge()));
+        }
+        return ratePeriods;
+    }
+
+    public static Path getConfigFile(ConfigFileType configType, String configFileName) {
         switch (configType) {
             case JSON:
-                return CONFIG_PATH + configFileName + ".json";
+                return Paths.get(CONFIG_PATH + configFileName + ".json");
             case YAML:
-                return CONFIG_PATH + configFileName + ".yaml";
+                return Paths.get(CONFIG_PATH + configFileName + ".yaml");
             default:
                 throw new IllegalArgumentException("Unsupported config type: " + configType);
         }
@@ -7,17 +7,32 @@
  *
  * Key functionalities:
  * - Stores charge rates for weekdays, weekends, and holidays.
- * - Determines if a charge applies to a given date based on the charge rules and holiday status.
- * - Retrieves the applicable charge for a given date.
+ * - Keeps a history of effective-dated rate periods, so a price change only
+ *   needs a new period with the date it takes effect.
+ * - Finds the rate period of a date by binary search over the effective dates,
+ *   so lookups stay logarithmic in the number of historical periods.
+ * - Retrieves the applicable charge for a given date, reporting it to PricingTrace.
+ * - Keeps the charge rates as whole cents for the fixed-point pricing path.
+ * - Precomputes which day types are chargeable as a bitmask and a day-of-week lookup.
+ * - Copies itself onto another HolidayProcessor for read-only pricing snapshots.
+ * - Compiles itself into a PricingPlan for a HolidayProcessor and caches the
+ *   plan until that processor gains a holiday rule; the plan finds the first
+ *   chargeable day and counts charge days, one rate period at a time.
  *
  * Components:
- * - toolCode: Unique identifier for the tool.
- * - toolType: Type of the tool.
- * - toolBrand: Brand of the tool.
- * - weekdayCharge: Charge rate for weekdays.
- * - weekendCharge: Charge rate for weekends.
- * - holidayCharge: Charge rate for holidays.
+ * - tool: The Tool this rule charges for (code, type and brand), shared with the
+ *   ToolRegistry of the ChargeProcessor and with every copy of this rule.
+ * - ratePeriods: RatePeriods sorted by effective date. The first holds the
+ *   charges given to the constructor and is effective from LocalDate.MIN; each
+ *   period applies until the next one takes effect.
+ * - ratePeriodStarts: The effective dates as epoch days, for the binary search.
+ * - RatePeriod: weekdayCharge, weekendCharge and holidayCharge, the same rates in
+ *   cents (or FixedPointPricing.NOT_REPRESENTABLE when a rate has sub-cent
+ *   digits), the CHARGEABLE_WEEKDAY, CHARGEABLE_WEEKEND and CHARGEABLE_HOLIDAY
+ *   bits for the charges that are greater than zero, and whether a non-holiday
+ *   date is chargeable, indexed by day of week.
  * - holidayProcessor: Processor to determine if a given date is a holiday.
+ * - pricingPlan: The most recently compiled PricingPlan.
  *
  * Example usage:
  * - Used by the ChargeProcessor to calculate the total rental charge for a tool over a rental period.
@@ -29,83 +44,266 @@ package com.example.toolrental;
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 
 public class ChargeRule {
 
-    private static final Logger logger = LoggerConfig.getLogger();
+    public static final int CHARGEABLE_WEEKDAY = 1;
+    public static final int CHARGEABLE_WEEKEND = 2;
+    public static final int CHARGEABLE_HOLIDAY = 4;
 
-    private final String toolCode;
-    private final String toolType;
-    private final String toolBrand;
-    private final BigDecimal weekdayCharge;
-    private final BigDecimal weekendCharge;
-    private final BigDecimal holidayCharge;
+    private final Tool tool;
+    private final RatePeriod[] ratePeriods;
+    private final long[] ratePeriodStarts;
+    private final List<RatePeriod> ratePeriodList;
     private final HolidayProcessor holidayProcessor;
+    private volatile PricingPlan pricingPlan;
 
     public ChargeRule(String toolCode, String toolType, String toolBrand, BigDecimal weekdayCharge, BigDecimal weekendCharge, BigDecimal holidayCharge, HolidayProcessor holidayProcessor) {
-        this.toolCode = toolCode;
-        this.toolType = toolType;
-        this.toolBrand = toolBrand;
-        this.weekdayCharge = weekdayCharge;
-        this.weekendCharge = weekendCharge;
-        this.holidayCharge = holidayCharge;
+        this(new Tool(toolCode, toolType, toolBrand), weekdayCharge, weekendCharge, holidayCharge, holidayProcessor);
+    }
+
+    public ChargeRule(Tool tool, BigDecimal weekdayCharge, BigDecimal weekendCharge, BigDecimal holidayCharge, HolidayProcessor holidayProcessor) {
+        this(tool, weekdayCharge, weekendCharge, holidayCharge, Collections.<RatePeriod>emptyList(), holidayProcessor);
+    }
+
+    // The given charges apply before the earliest rate period, and each rate period applies from its
+    // effective date until the next one
+    public ChargeRule(Tool tool, BigDecimal weekdayCharge, BigDecimal weekendCharge, BigDecimal holidayCharge, List<RatePeriod> ratePeriods, HolidayProcessor holidayProcessor) {
+        this(tool, buildRatePeriods(new RatePeriod(LocalDate.MIN, weekdayCharge, weekendCharge, holidayCharge), ratePeriods), holidayProcessor);
+    }
+
+    private ChargeRule(Tool tool, RatePeriod[] ratePeriods, HolidayProcessor holidayProcessor) {
+        this.tool = tool;
+        this.ratePeriods = ratePeriods;
+        this.ratePeriodList = Collections.unmodifiableList(Arrays.asList(ratePeriods));
+        this.ratePeriodStarts = new long[ratePeriods.length];
+        for (int i = 0; i < ratePeriods.length; i++) {
+            ratePeriodStarts[i] = ratePeriods[i].getEffectiveDate().toEpochDay();
+        }
         this.holidayProcessor = holidayProcessor;
     }
 
+    private static RatePeriod[] buildRatePeriods(RatePeriod initial, List<RatePeriod> ratePeriods) {
+        RatePeriod[] sorted = new RatePeriod[ratePeriods.size() + 1];
+        sorted[0] = initial;
+        for (int i = 0; i < ratePeriods.size(); i++) {
+            sorted[i + 1] = ratePeriods.get(i);
+        }
+        Arrays.sort(sorted, 1, sorted.length, Comparator.comparing(RatePeriod::getEffectiveDate));
+
+        for (int i = 1; i < sorted.length; i++) {
+            if (!sorted[i].getEffectiveDate().isAfter(sorted[i - 1].getEffectiveDate())) {
+                throw new IllegalArgumentException("Duplicate rate period effective date: " + sorted[i].getEffectiveDate());
+            }
+        }
+        return sorted;
+    }
+
+    public Tool getTool() {
+        return tool;
+    }
+
     public String getToolCode() {
-        return toolCode;
+        return tool.getToolCode();
     }
 
     public String getToolType() {
-        return toolType;
+        return tool.getToolType();
     }
 
     public String getToolBrand() {
-        return toolBrand;
+        return tool.getToolBrand();
     }
 
+    // The charges, chargeable mask and day-of-week lookup below all belong to the first rate period, the
+    // one in effect before any later period takes effect; they are not the rates on any other date, so a
+    // rule with later periods must be priced through getRatePeriod(date), getCharge(date) or its PricingPlan
     public BigDecimal getWeekdayCharge() {
-        return weekdayCharge;
+        return ratePeriods[0].getWeekdayCharge();
     }
 
     public BigDecimal getWeekendCharge() {
-        return weekendCharge;
+        return ratePeriods[0].getWeekendCharge();
     }
 
     public BigDecimal getHolidayCharge() {
-        return holidayCharge;
+        return ratePeriods[0].getHolidayCharge();
     }
 
-    public boolean applies(LocalDate date) {
-        if (holidayProcessor.isHoliday(date)) {
+    public long getWeekdayChargeCents() {
+        return ratePeriods[0].getWeekdayChargeCents();
+    }
+
+    public long getWeekendChargeCents() {
+        return ratePeriods[0].getWeekendChargeCents();
+    }
+
+    public long getHolidayChargeCents() {
+        return ratePeriods[0].getHolidayChargeCents();
+    }
+
+    public int getChargeableMask() {
+        return ratePeriods[0].getChargeableMask();
+    }
+
+    // Whether a date that is not a holiday is chargeable on the given day of week, in the first rate period
+    public boolean isChargeable(DayOfWeek dayOfWeek) {
+        return ratePeriods[0].isChargeable(dayOfWeek);
+    }
+
+    public boolean hasRatePeriods() {
+        return ratePeriods.length > 1;
+    }
+
+    // Every rate period in effective date order, starting with the initial charges effective from LocalDate.MIN
+    public List<RatePeriod> getRatePeriods() {
+        return ratePeriodList;
+    }
+
+    public RatePeriod getRatePeriod(LocalDate date) {
+        return ratePeriods[findRatePeriodIndex(date)];
+    }
+
+    // Binary search over the effective dates, so lookups stay logarithmic in the length of the price history
+    private int findRatePeriodIndex(LocalDate date) {
+        if (ratePeriods.length == 1) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(ratePeriodStarts, date.toEpochDay());
+        return index >= 0 ? index : -index - 2;
+    }
+
+    // The same rates bound to another HolidayProcessor, such as a read-only snapshot
+    public ChargeRule withHolidayProcessor(HolidayProcessor holidayProcessor) {
+        return new ChargeRule(tool, ratePeriods, holidayProcessor);
+    }
+
+    public PricingPlan getPricingPlan() {
+        return getPricingPlan(holidayProcessor);
+    }
+
+    // Compiling twice under a race is harmless, since both plans are identical
+    public PricingPlan getPricingPlan(HolidayProcessor holidayProcessor) {
+        PricingPlan plan = pricingPlan;
+        if (plan == null || !plan.isCompiledFor(holidayProcessor)) {
+            plan = PricingPlan.compile(this, holidayProcessor);
+            pricingPlan = plan;
+        }
+        return plan;
+    }
+
+    public BigDecimal getCharge(LocalDate date) {
+        BigDecimal charge = getRatePeriod(date).getCharge(holidayProcessor.isHoliday(date), date.getDayOfWeek());
+        PricingTrace.charge(tool, date, charge);
+        return charge;
+    }
+
+    public static class RatePeriod {
+
+        private final LocalDate effectiveDate;
+        private final BigDecimal weekdayCharge;
+        private final BigDecimal weekendCharge;
+        private final BigDecimal holidayCharge;
+        private final long weekdayChargeCents;
+        private final long weekendChargeCents;
+        private final long holidayChargeCents;
+        private final int chargeableMask;
+        private final boolean[] chargeableByDayOfWeek;
+
+        public RatePeriod(LocalDate effectiveDate, BigDecimal weekdayCharge, BigDecimal weekendCharge, BigDecimal holidayCharge) {
+            if (effectiveDate == null) {
+                throw new IllegalArgumentException("Rate period effective date must not be null");
+            }
+            this.effectiveDate = effectiveDate;
+            this.weekdayCharge = weekdayCharge;
+            this.weekendCharge = weekendCharge;
+            this.holidayCharge = holidayCharge;
+            this.weekdayChargeCents = FixedPointPricing.toCents(weekdayCharge);
+            this.weekendChargeCents = FixedPointPricing.toCents(weekendCharge);
+            this.holidayChargeCents = FixedPointPricing.toCents(holidayCharge);
+            this.chargeableMask = buildChargeableMask(weekdayCharge, weekendCharge, holidayCharge);
+            this.chargeableByDayOfWeek = buildChargeableByDayOfWeek(chargeableMask);
+        }
+
+        private static int buildChargeableMask(BigDecimal weekdayCharge, BigDecimal weekendCharge, BigDecimal holidayCharge) {
+            int mask = 0;
+            if (weekdayCharge.compareTo(BigDecimal.ZERO) > 0) {
+                mask |= CHARGEABLE_WEEKDAY;
+            }
+            if (weekendCharge.compareTo(BigDecimal.ZERO) > 0) {
+                mask |= CHARGEABLE_WEEKEND;
+            }
             if (holidayCharge.compareTo(BigDecimal.ZERO) > 0) {
-                return true;
-            } else {
-                return false;
+                mask |= CHARGEABLE_HOLIDAY;
             }
+            return mask;
         }
 
-        if ((date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) && weekendCharge.compareTo(BigDecimal.ZERO) > 0) {
-            return true;
+        private static boolean[] buildChargeableByDayOfWeek(int chargeableMask) {
+            boolean[] chargeable = new boolean[7];
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                int dayType = isWeekend(dayOfWeek) ? CHARGEABLE_WEEKEND : CHARGEABLE_WEEKDAY;
+                chargeable[dayOfWeek.ordinal()] = (chargeableMask & dayType) != 0;
+            }
+            return chargeable;
         }
 
-        return !((date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY)) && weekdayCharge.compareTo(BigDecimal.ZERO) > 0;
-    }
+        private static boolean isWeekend(DayOfWeek dayOfWeek) {
+            return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+        }
 
-    public BigDecimal getCharge(LocalDate date) {
-        BigDecimal charge;
+        public LocalDate getEffectiveDate() {
+            return effectiveDate;
+        }
 
-        if (holidayProcessor.isHoliday(date)) {
-            charge = holidayCharge;
-        } else if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
-            charge = weekendCharge;
-        } else {
-            charge = weekdayCharge;
+        public BigDecimal getWeekdayCharge() {
+            return weekdayCharge;
         }
 
-        logger.log(Level.INFO, "Date: {0}, Charge: {1}, Tool Code: {2}, Tool Type: {3}, Tool Brand: {4}", new Object[]{date, charge, toolCode, toolType, toolBrand});
-        return charge;
+        public BigDecimal getWeekendCharge() {
+            return weekendCharge;
+        }
+
+        public BigDecimal getHolidayCharge() {
+            return holidayCharge;
+        }
+
+        public long getWeekdayChargeCents() {
+            return weekdayChargeCents;
+        }
+
+        public long getWeekendChargeCents() {
+            return weekendChargeCents;
+        }
+
+        public long getHolidayChargeCents() {
+            return holidayChargeCents;
+        }
+
+        public int getChargeableMask() {
+            return chargeableMask;
+        }
+
+        public boolean isChargeable(DayOfWeek dayOfWeek) {
+            return chargeableByDayOfWeek[dayOfWeek.ordinal()];
+        }
+
+        public BigDecimal getCharge(boolean holiday, DayOfWeek dayOfWeek) {
+            if (holiday) {
+                return holidayCharge;
+            }
+            return isWeekend(dayOfWeek) ? weekendCharge : weekdayCharge;
+        }
+
+        public long getChargeCents(boolean holiday, DayOfWeek dayOfWeek) {
+            if (holiday) {
+                return holidayChargeCents;
+            }
+            return isWeekend(dayOfWeek) ? weekendChargeCents : weekdayChargeCents;
+        }
     }
 }
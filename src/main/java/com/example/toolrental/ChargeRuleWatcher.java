@@ -0,0 +1,239 @@
+/**
+ * ChargeRuleWatcher class for the Tool Rental System application.
+ *
+ * This class keeps the charge rules in step with their JSON or YAML
+ * configuration file while the application is running. A background thread
+ * watches the file's directory with a WatchService; when the file changes it
+ * parses and validates the new rules off the request path and publishes a new
+ * read-only ChargeProcessor with a single atomic reference swap.
+ *
+ * Readers never take a lock: getChargeProcessor is one volatile read. A
+ * checkout that has already read the processor finishes on that snapshot,
+ * and every later read sees the new one. A configuration that fails to parse
+ * or validate is logged and the current rules stay in place.
+ *
+ * Key functionalities:
+ * - Loading and validating the initial rules when the watcher is created.
+ * - Watching the configuration file for edits, including editors that save
+ *   by replacing the file, and coalescing bursts of events into one reload.
+ * - Rejecting configurations with no rules, a missing or duplicate tool code,
+ *   or a negative charge.
+ * - Notifying listeners, such as QuoteCache.reload, after every swap.
+ *
+ * Components:
+ * - current: AtomicReference holding the published ChargeProcessor snapshot.
+ * - listeners: Callbacks run on the watcher thread after each swap.
+ * - debounceMillis: Quiet period to wait for after the last file event
+ *   before reloading.
+ *
+ * Example usage:
+ * - Run Main with "serve 8080 --watch", then edit
+ *   src/main/resources/config/tools.json while the server is running.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ChargeRuleWatcher implements Closeable {
+
+    private static final Logger logger = LoggerConfig.getLogger();
+
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 200;
+
+    private final ConfigFileType configType;
+    private final Path configFile;
+    private final HolidayProcessor holidayProcessor;
+    private final long debounceMillis;
+    private final AtomicReference<ChargeProcessor> current;
+    private final List<Consumer<ChargeProcessor>> listeners = new CopyOnWriteArrayList<>();
+    private final Object reloadLock = new Object();
+    private final AtomicLong reloadCount = new AtomicLong();
+    private final AtomicLong failedReloadCount = new AtomicLong();
+    private WatchService watchService;
+    private Thread thread;
+
+    public ChargeRuleWatcher(ConfigFileType configType, Path configFile, HolidayProcessor holidayProcessor) throws IOException {
+        this(configType, configFile, holidayProcessor, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    public ChargeRuleWatcher(ConfigFileType configType, Path configFile, HolidayProcessor holidayProcessor, long debounceMillis) throws IOException {
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("Debounce must be 0 milliseconds or greater");
+        }
+        this.configType = configType;
+        this.configFile = configFile.toAbsolutePath().normalize();
+        this.holidayProcessor = holidayProcessor;
+        this.debounceMillis = debounceMillis;
+
+        // An invalid configuration at startup is the caller's problem, not something to keep running on
+        this.current = new AtomicReference<>(load());
+    }
+
+    public ChargeProcessor getChargeProcessor() {
+        return current.get();
+    }
+
+    public void addListener(Consumer<ChargeProcessor> listener) {
+        listeners.add(listener);
+    }
+
+    public synchronized void start() throws IOException {
+        if (thread != null) {
+            throw new IllegalStateException("Charge rule watcher already started");
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        configFile.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        thread = new Thread(this::watch, "charge-rule-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.log(Level.INFO, "Watching charge rules in {0}", configFile);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Returns false, keeping the current rules, when the file does not parse or validate
+    public boolean reload() {
+        ChargeProcessor reloaded;
+        synchronized (reloadLock) {
+            try {
+                reloaded = load();
+            } catch (IOException | RuntimeException e) {
+                failedReloadCount.incrementAndGet();
+                logger.log(Level.WARNING, "Keeping current charge rules; reload of " + configFile + " failed: " + e.getMessage(), e);
+                return false;
+            }
+            current.set(reloaded);
+            reloadCount.incrementAndGet();
+            logger.log(Level.INFO, "Reloaded {0} charge rules from {1}", new Object[]{String.valueOf(reloaded.getChargeRules().size()), configFile});
+
+            // Still under the reload lock so listeners never see two reloads out of order
+            for (Consumer<ChargeProcessor> listener : listeners) {
+                try {
+                    listener.accept(reloaded);
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Charge rule reload listener failed", e);
+                }
+            }
+        }
+        return true;
+    }
+
+    public long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    public long getFailedReloadCount() {
+        return failedReloadCount.get();
+    }
+
+    public Path getConfigFile() {
+        return configFile;
+    }
+
+    private ChargeProcessor load() throws IOException {
+        // Build straight against a holiday snapshot so the published processor is read-only from the start
+        HolidayProcessor holidaySnapshot = holidayProcessor.snapshot();
+        List<ChargeRule> chargeRules = ChargeProcessorConfig.getChargeRules(configType, configFile, holidaySnapshot);
+        validate(chargeRules);
+        return new ChargeProcessor(Collections.unmodifiableList(new ArrayList<>(chargeRules)), holidaySnapshot);
+    }
+
+    static void validate(List<ChargeRule> chargeRules) {
+        if (chargeRules.isEmpty()) {
+            throw new IllegalArgumentException("Charge rule configuration has no tools");
+        }
+
+        Set<String> toolCodes = new HashSet<>();
+        for (ChargeRule rule : chargeRules) {
+            String toolCode = rule.getToolCode();
+            if (toolCode == null || toolCode.isEmpty()) {
+                throw new IllegalArgumentException("Charge rule is missing a tool code");
+            }
+            if (!toolCodes.add(toolCode)) {
+                throw new IllegalArgumentException("Duplicate charge rule for tool code: " + toolCode);
+            }
+            for (ChargeRule.RatePeriod ratePeriod : rule.getRatePeriods()) {
+                if (isNegative(ratePeriod.getWeekdayCharge()) || isNegative(ratePeriod.getWeekendCharge()) || isNegative(ratePeriod.getHolidayCharge())) {
+                    throw new IllegalArgumentException("Negative charge for tool code: " + toolCode);
+                }
+            }
+        }
+    }
+
+    private static boolean isNegative(BigDecimal charge) {
+        return charge.signum() < 0;
+    }
+
+    private void watch() {
+        Path fileName = configFile.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = drain(key, fileName);
+
+                // Editors often write a file in several steps, so wait for the events to stop before reloading
+                while (changed && debounceMillis > 0) {
+                    WatchKey next = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    drain(next, fileName);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close() was called
+        }
+    }
+
+    private static boolean drain(WatchKey key, Path fileName) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * FixedPointPricing class for the Tool Rental System application.
+ *
+ * This class prices rental agreements in whole cents held in a long, as an
+ * allocation-free alternative to the BigDecimal arithmetic in RentalAgreement.
+ * Every operation rounds HALF_UP to the cent exactly like the BigDecimal path,
+ * and every operation that could overflow throws an ArithmeticException so
+ * the caller can fall back to BigDecimal.
+ *
+ * Key functionalities:
+ * - Converting a BigDecimal amount to cents when it has no sub-cent digits.
+ * - Computing the pre-discount charge, discount amount and final charge in cents.
+ * - Converting cents back to a BigDecimal with a scale of 2.
+ *
+ * Example usage:
+ * - ChargeRule converts its rates to cents once at construction, and
+ *   RentalAgreement prices with those cents before falling back to BigDecimal.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class FixedPointPricing {
+
+    // Marks an amount that cannot be held as whole cents in a long
+    public static final long NOT_REPRESENTABLE = Long.MIN_VALUE;
+
+    private FixedPointPricing() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        try {
+            long cents = amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+            return cents == NOT_REPRESENTABLE ? NOT_REPRESENTABLE : cents;
+        } catch (ArithmeticException e) {
+            return NOT_REPRESENTABLE;
+        }
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public static long preDiscountCents(long dailyRentalChargeCents, int chargeDays, int quantity) {
+        return Math.multiplyExact(Math.multiplyExact(dailyRentalChargeCents, (long) chargeDays), (long) quantity);
+    }
+
+    public static long discountCents(long preDiscountCents, int discountPercent) {
+        return divideHalfUp(Math.multiplyExact(preDiscountCents, (long) discountPercent), 100);
+    }
+
+    public static long finalCents(long preDiscountCents, long discountCents) {
+        return Math.subtractExact(preDiscountCents, discountCents);
+    }
+
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+
+        // HALF_UP rounds ties away from zero, matching BigDecimal
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+}
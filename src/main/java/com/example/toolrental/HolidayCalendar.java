@@ -0,0 +1,166 @@
+/**
+ * HolidayCalendar class for the Tool Rental System application.
+ *
+ * This class precomputes holidays into a per-year bitmap so that a holiday
+ * check is a single array lookup instead of a walk over every HolidayRule.
+ * Each year occupies 366 bits (six longs), indexed by day of year.
+ *
+ * Key functionalities:
+ * - Warming a contiguous range of years up front from a set of holiday rules.
+ * - Answering isHoliday(LocalDate) without allocating for any warmed year,
+ *   and isHoliday(long) for callers that walk epoch days without creating a
+ *   LocalDate per day.
+ * - Growing lazily, one copy-on-write step at a time, when a date outside the
+ *   warmed range is queried.
+ *
+ * Components:
+ * - holidayRules: Snapshot of the rules the calendar was built from.
+ * - years: Immutable, volatile snapshot of the warmed range, its bitmap and
+ *   the epoch day each warmed year starts on.
+ *
+ * Example usage:
+ * - Enabled through HolidayProcessor.enableCalendar(firstYear, lastYear) for
+ *   long rentals that check millions of dates, and created by the
+ *   HolidayProcessor on first use for the PricingPlans compiled against it.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class HolidayCalendar {
+
+    private static final int WORDS_PER_YEAR = 6;
+
+    // Years further than this from the warmed range are answered from the rules without being cached
+    private static final int MAX_GROWTH_YEARS = 400;
+
+    private final List<HolidayRule> holidayRules;
+    private volatile Years years;
+
+    public HolidayCalendar(List<HolidayRule> holidayRules, int firstYear, int lastYear) {
+        if (lastYear < firstYear) {
+            throw new IllegalArgumentException("Last year must not be before first year");
+        }
+        this.holidayRules = new ArrayList<>(holidayRules);
+        this.years = new Years(firstYear, buildWords(firstYear, lastYear));
+    }
+
+    public int getFirstYear() {
+        return years.firstYear;
+    }
+
+    public int getLastYear() {
+        return years.lastYear;
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        int year = date.getYear();
+        Years snapshot = years;
+
+        if (year < snapshot.firstYear || year > snapshot.lastYear) {
+            snapshot = grow(year);
+            if (snapshot == null) {
+                return isHolidayByRules(date);
+            }
+        }
+
+        int bit = date.getDayOfYear() - 1;
+        return (snapshot.words[(year - snapshot.firstYear) * WORDS_PER_YEAR + (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    public boolean isHoliday(long epochDay) {
+        Years snapshot = years;
+        if (epochDay < snapshot.yearStarts[0] || epochDay >= snapshot.yearStarts[snapshot.yearStarts.length - 1]) {
+            return isHoliday(LocalDate.ofEpochDay(epochDay));
+        }
+
+        // Estimate the year from the mean Gregorian year of 146097 / 400 days, then correct by at most a year
+        int index = (int) ((epochDay - snapshot.yearStarts[0]) * 400 / 146097);
+        while (index > 0 && epochDay < snapshot.yearStarts[index]) {
+            index--;
+        }
+        while (epochDay >= snapshot.yearStarts[index + 1]) {
+            index++;
+        }
+
+        int bit = (int) (epochDay - snapshot.yearStarts[index]);
+        return (snapshot.words[index * WORDS_PER_YEAR + (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    private synchronized Years grow(int year) {
+        Years current = years;
+        if (year >= current.firstYear && year <= current.lastYear) {
+            return current;
+        }
+        if (year < current.firstYear - MAX_GROWTH_YEARS || year > current.lastYear + MAX_GROWTH_YEARS) {
+            return null;
+        }
+
+        int firstYear = Math.min(year, current.firstYear);
+        int lastYear = Math.max(year, current.lastYear);
+        long[] words = new long[(lastYear - firstYear + 1) * WORDS_PER_YEAR];
+
+        System.arraycopy(current.words, 0, words, (current.firstYear - firstYear) * WORDS_PER_YEAR, current.words.length);
+        if (firstYear < current.firstYear) {
+            fillWords(words, firstYear, firstYear, current.firstYear - 1);
+        }
+        if (lastYear > current.lastYear) {
+            fillWords(words, firstYear, current.lastYear + 1, lastYear);
+        }
+
+        Years grown = new Years(firstYear, words);
+        years = grown;
+        return grown;
+    }
+
+    private long[] buildWords(int firstYear, int lastYear) {
+        long[] words = new long[(lastYear - firstYear + 1) * WORDS_PER_YEAR];
+        fillWords(words, firstYear, firstYear, lastYear);
+        return words;
+    }
+
+    private void fillWords(long[] words, int baseYear, int fromYear, int toYear) {
+        LocalDate startDate = LocalDate.of(fromYear, 1, 1);
+        LocalDate endDate = LocalDate.of(toYear, 12, 31);
+
+        for (HolidayRule rule : holidayRules) {
+            for (LocalDate holiday : rule.getHolidays(startDate, endDate)) {
+                int bit = holiday.getDayOfYear() - 1;
+                words[(holiday.getYear() - baseYear) * WORDS_PER_YEAR + (bit >>> 6)] |= 1L << bit;
+            }
+        }
+    }
+
+    private boolean isHolidayByRules(LocalDate date) {
+        for (HolidayRule rule : holidayRules) {
+            if (rule.isHoliday(date)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Years {
+
+        private final int firstYear;
+        private final int lastYear;
+        private final long[] words;
+
+        // The epoch day of January 1 of each year, plus that of the year after the last
+        private final long[] yearStarts;
+
+        private Years(int firstYear, long[] words) {
+            this.firstYear = firstYear;
+            this.lastYear = firstYear + words.length / WORDS_PER_YEAR - 1;
+            this.words = words;
+            this.yearStarts = new long[lastYear - firstYear + 2];
+            for (int i = 0; i < yearStarts.length; i++) {
+                yearStarts[i] = LocalDate.of(firstYear + i, 1, 1).toEpochDay();
+            }
+        }
+    }
+}
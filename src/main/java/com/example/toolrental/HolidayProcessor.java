@@ -7,6 +7,12 @@
  * Methods:
  * - addHolidayRule(HolidayRule rule): Adds a holiday rule to the processor.
  * - isHoliday(LocalDate date): Checks if a given date is a holiday based on the configured holiday rules.
+ * - getHolidays(LocalDate startDate, LocalDate endDate): Lists the distinct holidays between two dates (inclusive).
+ * - enableCalendar(int firstYear, int lastYear): Switches isHoliday to a precomputed per-year holiday bitmap,
+ *   which is otherwise created the first time a PricingPlan is compiled against this processor.
+ * - getChargeDayTable(int chargeableMask): Returns the shared cumulative charge-day table for a ChargeRule mask.
+ * - getHolidayCalendar(): Returns the calendar that PricingPlans read holidays from, creating it on first use.
+ * - snapshot(): Returns a read-only copy of the current rules that is safe to share between threads.
  *
  * Example usage:
  * - Used in the ChargeProcessor and RentalAgreement classes to determine if a date is a holiday, affecting charge calculations.
@@ -18,16 +24,106 @@ package com.example.toolrental;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeSet;
 
 public class HolidayProcessor {
 
-    private final List<HolidayRule> holidayRules = new ArrayList<>();
+    private final List<HolidayRule> holidayRules;
+    private final boolean readOnly;
+    private volatile HolidayCalendar calendar;
+    private volatile ChargeDayTable[] chargeDayTables = new ChargeDayTable[8];
 
-    public void addHolidayRule(HolidayRule rule) {
+    public HolidayProcessor() {
+        this.holidayRules = new ArrayList<>();
+        this.readOnly = false;
+    }
+
+    private HolidayProcessor(HolidayProcessor source) {
+        this.holidayRules = new ArrayList<>(source.holidayRules);
+        this.readOnly = true;
+
+        HolidayCalendar sourceCalendar = source.calendar;
+        if (sourceCalendar != null) {
+            this.calendar = new HolidayCalendar(holidayRules, sourceCalendar.getFirstYear(), sourceCalendar.getLastYear());
+        }
+    }
+
+    // The rules of a snapshot never change, so its calendar and charge-day tables can be shared by any number of threads
+    public HolidayProcessor snapshot() {
+        return new HolidayProcessor(this);
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    // Synchronized with the table builders below, so a table built from the previous rules can never be
+    // published after this invalidates them
+    public synchronized void addHolidayRule(HolidayRule rule) {
+        if (readOnly) {
+            throw new IllegalStateException("Holiday rules cannot be added to a read-only snapshot");
+        }
         holidayRules.add(rule);
+
+        // Tables built from the previous rules are stale
+        chargeDayTables = new ChargeDayTable[8];
+
+        // Rebuild the calendar so it reflects the new rule; PricingPlans holding the old one recompile
+        HolidayCalendar current = calendar;
+        if (current != null) {
+            calendar = new HolidayCalendar(holidayRules, current.getFirstYear(), current.getLastYear());
+        }
+    }
+
+    public synchronized void enableCalendar(int firstYear, int lastYear) {
+        if (readOnly) {
+            throw new IllegalStateException("The calendar of a read-only snapshot cannot be changed");
+        }
+        calendar = new HolidayCalendar(holidayRules, firstYear, lastYear);
+    }
+
+    public boolean isCalendarEnabled() {
+        return calendar != null;
+    }
+
+    public ChargeDayTable getChargeDayTable(int chargeableMask) {
+        ChargeDayTable table = chargeDayTables[chargeableMask];
+        return table != null ? table : createChargeDayTable(chargeableMask);
+    }
+
+    private synchronized ChargeDayTable createChargeDayTable(int chargeableMask) {
+        ChargeDayTable[] tables = chargeDayTables;
+        if (tables[chargeableMask] == null) {
+            // Publish through a fresh array so readers never see a partially built table
+            ChargeDayTable[] updated = tables.clone();
+            updated[chargeableMask] = new ChargeDayTable(chargeableMask, this);
+            chargeDayTables = updated;
+            return updated[chargeableMask];
+        }
+        return tables[chargeableMask];
+    }
+
+    // The calendar is replaced whenever the rules change, so a PricingPlan holding an older one knows it is stale
+    HolidayCalendar getHolidayCalendar() {
+        HolidayCalendar current = calendar;
+        return current != null ? current : createHolidayCalendar();
+    }
+
+    // Starts from the current year and grows lazily to whatever years are priced
+    private synchronized HolidayCalendar createHolidayCalendar() {
+        if (calendar == null) {
+            int year = LocalDate.now().getYear();
+            calendar = new HolidayCalendar(holidayRules, year, year);
+        }
+        return calendar;
     }
 
     public boolean isHoliday(LocalDate date) {
+        HolidayCalendar current = calendar;
+        if (current != null) {
+            return current.isHoliday(date);
+        }
+
         for (HolidayRule rule : holidayRules) {
             if (rule.isHoliday(date)) {
                 return true;
@@ -35,4 +131,17 @@ public class HolidayProcessor {
         }
         return false;
     }
+
+    public List<LocalDate> getHolidays(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return new ArrayList<>();
+        }
+
+        // Rules may overlap, so merge them into a sorted set of distinct dates
+        TreeSet<LocalDate> holidays = new TreeSet<>();
+        for (HolidayRule rule : holidayRules) {
+            holidays.addAll(rule.getHolidays(startDate, endDate));
+        }
+        return new ArrayList<>(holidays);
+    }
 }
@@ -6,6 +6,8 @@
  *
  * Method:
  * - boolean isHoliday(LocalDate date): Determines if the provided date is a holiday.
+ * - List<LocalDate> getHolidays(LocalDate startDate, LocalDate endDate): Lists the holidays
+ *   between two dates (inclusive), in ascending order.
  *
  * Example usage:
  * - Implemented by specific holiday rule classes such as IndependenceDayRule and LaborDayRule.
@@ -16,8 +18,21 @@
 package com.example.toolrental;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 public interface HolidayRule {
 
     boolean isHoliday(LocalDate date);
+
+    // Rules that can compute their dates per year should override this day-by-day scan
+    default List<LocalDate> getHolidays(LocalDate startDate, LocalDate endDate) {
+        List<LocalDate> holidays = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            if (isHoliday(date)) {
+                holidays.add(date);
+            }
+        }
+        return holidays;
+    }
 }
@@ -8,6 +8,8 @@
  * Methods:
  * - boolean isHoliday(LocalDate date): Determines if the provided date is Independence Day
  *   or the observed Independence Day.
+ * - List<LocalDate> getHolidays(LocalDate startDate, LocalDate endDate): Computes Independence
+ *   Day and its observed date directly for each year in the range.
  *
  * Example usage:
  * - Used in the HolidayProcessor class to check if a date is Independence Day.
@@ -19,27 +21,55 @@ package com.example.toolrental;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
 
 public class IndependenceDayRule implements HolidayRule {
 
     @Override
     public boolean isHoliday(LocalDate date) {
-        LocalDate july4 = LocalDate.of(date.getYear(), Month.JULY, 4);
-        DayOfWeek dayOfWeek = july4.getDayOfWeek();
-
-        if (date.equals(july4)) {
-            return true;
+        if (date.getMonth() != Month.JULY) {
+            return false;
         }
 
-        if (dayOfWeek == DayOfWeek.SATURDAY && date.equals(july4.minusDays(1))) {
-            return true;
+        switch (date.getDayOfMonth()) {
+            case 4:
+                return true;
+            case 3:
+                // Observed on Friday when July 4th falls on a Saturday
+                return date.getDayOfWeek() == DayOfWeek.FRIDAY;
+            case 5:
+                // Observed on Monday when July 4th falls on a Sunday
+                return date.getDayOfWeek() == DayOfWeek.MONDAY;
+            default:
+                return false;
         }
+    }
+
+    @Override
+    public List<LocalDate> getHolidays(LocalDate startDate, LocalDate endDate) {
+        List<LocalDate> holidays = new ArrayList<>();
 
-        if (dayOfWeek == DayOfWeek.SUNDAY && date.equals(july4.plusDays(1))) {
-            return true;
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            LocalDate july4 = LocalDate.of(year, Month.JULY, 4);
+            DayOfWeek dayOfWeek = july4.getDayOfWeek();
+
+            if (dayOfWeek == DayOfWeek.SATURDAY) {
+                addIfInRange(holidays, july4.minusDays(1), startDate, endDate);
+            }
+            addIfInRange(holidays, july4, startDate, endDate);
+            if (dayOfWeek == DayOfWeek.SUNDAY) {
+                addIfInRange(holidays, july4.plusDays(1), startDate, endDate);
+            }
         }
 
-        return false;
+        return holidays;
+    }
+
+    private static void addIfInRange(List<LocalDate> holidays, LocalDate date, LocalDate startDate, LocalDate endDate) {
+        if (!date.isBefore(startDate) && !date.isAfter(endDate)) {
+            holidays.add(date);
+        }
     }
 
 }
@@ -0,0 +1,308 @@
+/**
+ * JsonlQuotePipeline class for the Tool Rental System application.
+ *
+ * This class streams rental requests from a JSON Lines source, prices them
+ * through the ChargeProcessor, and writes one agreement JSON object per line
+ * to the output. Input and output are handled with Jackson's token-level
+ * JsonParser and JsonGenerator, so memory use depends on the buffer sizes
+ * and not on the size of the files.
+ *
+ * Key functionalities:
+ * - Reading requests on a reader thread into a bounded read-ahead queue.
+ * - Pricing requests in chunks with ChargeProcessor.priceAll, falling back to
+ *   one request at a time when a chunk contains an invalid request.
+ * - Writing agreements on a writer thread from a bounded write-behind queue.
+ * - Writing an error line in place of an agreement for an invalid request,
+ *   so that output line n always answers input request n.
+ *
+ * Input format (one RentalJson request object per line):
+ * - {"toolCode":"LADW","toolType":"Ladder","toolBrand":"Werner","rentalDays":3,
+ *   "checkOutDate":"2024-07-02","discountPercent":10,"quantity":1}
+ *
+ * Output format (the request number followed by the RentalJson agreement fields):
+ * - {"request":1,"toolCode":"LADW",...,"chargeDays":2,...,"finalCharge":3.58}
+ * - {"request":2,"error":"Charge rule not found for tool code: NONE"}
+ *
+ * Example usage:
+ * - Run Main with "quote-jsonl input.jsonl output.jsonl", using "-" for
+ *   standard input or standard output.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+public class JsonlQuotePipeline {
+
+    public static final int DEFAULT_BUFFER_SIZE = 4096;
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    // Marks the end of a queue; compared by identity
+    private static final Line END_OF_INPUT = new Line(0, null, null);
+    private static final Quote END_OF_OUTPUT = new Quote(0, null, null);
+
+    private final ChargeProcessor chargeProcessor;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final int bufferSize;
+    private final int chunkSize;
+
+    public JsonlQuotePipeline(ChargeProcessor chargeProcessor) {
+        this(chargeProcessor, DEFAULT_BUFFER_SIZE, DEFAULT_CHUNK_SIZE);
+    }
+
+    public JsonlQuotePipeline(ChargeProcessor chargeProcessor, int bufferSize, int chunkSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be 1 or greater");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be 1 or greater");
+        }
+        this.chargeProcessor = chargeProcessor;
+        this.bufferSize = bufferSize;
+        this.chunkSize = chunkSize;
+    }
+
+    // Returns the number of requests read; the streams are not closed
+    public long run(InputStream input, OutputStream output) throws IOException {
+        BlockingQueue<Line> readAhead = new ArrayBlockingQueue<>(bufferSize);
+        BlockingQueue<Quote> writeBehind = new ArrayBlockingQueue<>(bufferSize);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long[] requestCount = new long[1];
+
+        Thread reader = new Thread(() -> read(input, readAhead, failure, requestCount), "jsonl-quote-reader");
+        Thread writer = new Thread(() -> write(output, writeBehind, failure), "jsonl-quote-writer");
+        reader.setDaemon(true);
+        writer.setDaemon(true);
+        reader.start();
+        writer.start();
+
+        try {
+            price(readAhead, writeBehind);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            // The reader only needs stopping when pricing ended early
+            reader.interrupt();
+            putUninterruptibly(writeBehind, END_OF_OUTPUT);
+            joinUninterruptibly(writer);
+        }
+
+        Throwable cause = failure.get();
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        }
+        if (cause != null) {
+            throw new IOException("JSONL quote pipeline failed: " + cause.getMessage(), cause);
+        }
+        joinUninterruptibly(reader);
+        return requestCount[0];
+    }
+
+    private void read(InputStream input, BlockingQueue<Line> readAhead, AtomicReference<Throwable> failure, long[] requestCount) {
+        long number = 0;
+        try (JsonParser parser = jsonFactory.createParser(input)) {
+            // Root-level values may follow each other separated only by whitespace, which covers JSON Lines
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                number++;
+                readAhead.put(parseLine(parser, token, number));
+            }
+        } catch (InterruptedException e) {
+            return;
+        } catch (IOException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            requestCount[0] = number;
+        }
+
+        try {
+            readAhead.put(END_OF_INPUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Line parseLine(JsonParser parser, JsonToken token, long number) throws IOException {
+        try {
+            return new Line(number, RentalJson.readRequest(parser, token), null);
+        } catch (IllegalArgumentException e) {
+            return new Line(number, null, e.getMessage());
+        }
+    }
+
+    private void price(BlockingQueue<Line> readAhead, BlockingQueue<Quote> writeBehind) throws InterruptedException {
+        List<Line> chunk = new ArrayList<>(chunkSize);
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            chunk.clear();
+            chunk.add(readAhead.take());
+            readAhead.drainTo(chunk, chunkSize - 1);
+
+            List<RentalRequest> requests = new ArrayList<>(chunk.size());
+            for (Line line : chunk) {
+                if (line == END_OF_INPUT) {
+                    endOfInput = true;
+                } else if (line.request != null) {
+                    requests.add(line.request);
+                }
+            }
+
+            List<RentalAgreement> agreements = null;
+            try {
+                agreements = chargeProcessor.priceAll(requests);
+            } catch (IllegalArgumentException | ArithmeticException | DateTimeException e) {
+                // Price the chunk one request at a time below so one bad request does not fail the others
+            }
+
+            int priced = 0;
+            for (Line line : chunk) {
+                if (line == END_OF_INPUT) {
+                    break;
+                }
+                if (line.request == null) {
+                    writeBehind.put(new Quote(line.number, null, line.error));
+                } else if (agreements != null) {
+                    writeBehind.put(new Quote(line.number, agreements.get(priced++), null));
+                } else {
+                    writeBehind.put(priceOne(line));
+                }
+            }
+        }
+    }
+
+    private Quote priceOne(Line line) {
+        RentalRequest request = line.request;
+        try {
+            return new Quote(line.number, new RentalAgreement(
+                    request.getToolCode(),
+                    request.getToolType(),
+                    request.getToolBrand(),
+                    request.getRentalDays(),
+                    request.getCheckOutDate(),
+                    request.getDiscountPercent(),
+                    request.getQuantity(),
+                    chargeProcessor
+            ), null);
+        } catch (IllegalArgumentException | ArithmeticException | DateTimeException e) {
+            // Such as a due date past LocalDate.MAX: bad input on one line, not a failure of the run
+            return new Quote(line.number, null, e.getMessage());
+        }
+    }
+
+    private void write(OutputStream output, BlockingQueue<Quote> writeBehind, AtomicReference<Throwable> failure) {
+        try (JsonGenerator generator = jsonFactory.createGenerator(output, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Each line ends with its own newline, so no separator goes between root values
+            generator.setRootValueSeparator(null);
+            Quote quote;
+            while ((quote = writeBehind.take()) != END_OF_OUTPUT) {
+                writeQuote(generator, quote);
+            }
+            generator.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (IOException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+            // Keep draining so pricing never blocks on a full queue
+            drainUntilEnd(writeBehind);
+        }
+    }
+
+    private void writeQuote(JsonGenerator generator, Quote quote) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("request", quote.number);
+        if (quote.agreement == null) {
+            generator.writeStringField("error", quote.error);
+        } else {
+            RentalJson.writeAgreementFields(generator, quote.agreement);
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void drainUntilEnd(BlockingQueue<Quote> writeBehind) {
+        try {
+            while (writeBehind.take() != END_OF_OUTPUT) {
+                // Discarded
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <T> void putUninterruptibly(BlockingQueue<T> queue, T item) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Line {
+
+        private final long number;
+        private final RentalRequest request;
+        private final String error;
+
+        private Line(long number, RentalRequest request, String error) {
+            this.number = number;
+            this.request = request;
+            this.error = error;
+        }
+    }
+
+    private static final class Quote {
+
+        private final long number;
+        private final RentalAgreement agreement;
+        private final String error;
+
+        private Quote(long number, RentalAgreement agreement, String error) {
+            this.number = number;
+            this.agreement = agreement;
+            this.error = error;
+        }
+    }
+}
@@ -7,6 +7,8 @@
  *
  * Methods:
  * - boolean isHoliday(LocalDate date): Determines if the provided date is Labor Day.
+ * - List<LocalDate> getHolidays(LocalDate startDate, LocalDate endDate): Computes Labor Day
+ *   directly for each year in the range.
  *
  * Example usage:
  * - Used in the HolidayProcessor class to check if a date is Labor Day.
@@ -19,13 +21,31 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
 import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
 
 public class LaborDayRule implements HolidayRule {
 
     @Override
     public boolean isHoliday(LocalDate date) {
-        LocalDate firstMondayOfSeptember = LocalDate.of(date.getYear(), Month.SEPTEMBER, 1)
-                .with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
-        return date.equals(firstMondayOfSeptember);
+        // The first Monday of September always falls within the first seven days
+        return date.getMonth() == Month.SEPTEMBER
+                && date.getDayOfMonth() <= 7
+                && date.getDayOfWeek() == DayOfWeek.MONDAY;
+    }
+
+    @Override
+    public List<LocalDate> getHolidays(LocalDate startDate, LocalDate endDate) {
+        List<LocalDate> holidays = new ArrayList<>();
+
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            LocalDate firstMondayOfSeptember = LocalDate.of(year, Month.SEPTEMBER, 1)
+                    .with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+            if (!firstMondayOfSeptember.isBefore(startDate) && !firstMondayOfSeptember.isAfter(endDate)) {
+                holidays.add(firstMondayOfSeptember);
+            }
+        }
+
+        return holidays;
     }
 }
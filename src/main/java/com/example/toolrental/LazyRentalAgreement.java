@@ -0,0 +1,208 @@
+/**
+ * LazyRentalAgreement class for the Tool Rental System application.
+ *
+ * This class is a lazily evaluated variant of RentalAgreement for screens
+ * that only show part of an agreement, such as the due date or the final
+ * charge on an availability list. The input is validated up front, but the
+ * first chargeable day, the daily rental charge, the charge days and the
+ * money amounts are each computed once, on first access, so a caller only
+ * pays for what it reads. The due date is a single date addition and is
+ * computed up front.
+ *
+ * Key functionalities:
+ * - Computing each derived field at most once, safely from any thread.
+ * - Pricing exactly like RentalAgreement, so getFinalCharge() and the other
+ *   getters return identical values.
+ * - Converting to a RentalAgreement for printing, reusing whatever has
+ *   already been computed.
+ *
+ * Components:
+ * - tool: The Tool interned by the ChargeProcessor's ToolRegistry.
+ * - chargeRule: The ChargeRule resolved for the tool code at creation.
+ * - holidayProcessor: The holidays the ChargeRule's PricingPlan is compiled
+ *   against to find the first chargeable day and count charge days.
+ *
+ * Example usage:
+ * - new LazyRentalAgreement("LADW", "Ladder", "Werner", 3, checkOutDate, 10, 1, chargeProcessor).getFinalCharge()
+ *   counts charge days and prices the agreement without tracing the daily
+ *   charge until it is needed.
+ *
+ * Note: A tool that is never chargeable is only rejected when a charge is
+ * first read, since that requires searching for the first chargeable day.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class LazyRentalAgreement {
+
+    private final Tool tool;
+    private final int rentalDays;
+    private final LocalDate checkOutDate;
+    private final LocalDate dueDate;
+    private final int discountPercent;
+    private final int quantity;
+    private final HolidayProcessor holidayProcessor;
+    private final ChargeRule chargeRule;
+
+    // Each field is written once under the lock and read without it once set
+    private volatile LocalDate firstChargeableDay;
+    private volatile BigDecimal dailyRentalCharge;
+    private volatile Integer chargeDays;
+    private volatile RentalAgreement.Charges charges;
+
+    public LazyRentalAgreement(String toolCode, String toolType, String toolBrand, int rentalDays, LocalDate checkOutDate, int discountPercent, int quantity, ChargeProcessor chargeProcessor) {
+        this(chargeProcessor.getToolRegistry().intern(toolCode, toolType, toolBrand), rentalDays, checkOutDate, discountPercent, quantity, chargeProcessor.getHolidayProcessor(), chargeProcessor.findRule(toolCode));
+    }
+
+    // Used by callers that have already resolved the ChargeRule for this tool, or null if none was found
+    LazyRentalAgreement(Tool tool, int rentalDays, LocalDate checkOutDate, int discountPercent, int quantity, HolidayProcessor holidayProcessor, ChargeRule chargeRule) {
+        // Same validation, in the same order, as RentalAgreement
+        if (rentalDays < 1) {
+            throw new IllegalArgumentException("Invalid rental days");
+        }
+        if (discountPercent < 0 || discountPercent > 100) {
+            throw new IllegalArgumentException("Invalid discount percentage");
+        }
+        if (chargeRule == null) {
+            throw new IllegalArgumentException("Charge rule not found for tool code: " + tool.getToolCode());
+        }
+
+        this.tool = tool;
+        this.rentalDays = rentalDays;
+        this.checkOutDate = checkOutDate;
+        this.dueDate = checkOutDate.plusDays(rentalDays - 1);
+        this.discountPercent = discountPercent;
+        this.quantity = quantity;
+        this.holidayProcessor = holidayProcessor;
+        this.chargeRule = chargeRule;
+    }
+
+    // Cached on the ChargeRule, so only the first agreement for a rule pays for compiling it
+    private PricingPlan getPricingPlan() {
+        return chargeRule.getPricingPlan(holidayProcessor);
+    }
+
+    private LocalDate getFirstChargeableDay() {
+        LocalDate result = firstChargeableDay;
+        if (result == null) {
+            synchronized (this) {
+                result = firstChargeableDay;
+                if (result == null) {
+                    result = getPricingPlan().findFirstChargeableDay(checkOutDate);
+                    firstChargeableDay = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public BigDecimal getDailyRentalCharge() {
+        BigDecimal result = dailyRentalCharge;
+        if (result == null) {
+            synchronized (this) {
+                result = dailyRentalCharge;
+                if (result == null) {
+                    LocalDate day = getFirstChargeableDay();
+                    result = getPricingPlan().getCharge(day);
+                    PricingTrace.charge(chargeRule.getTool(), day, result);
+                    PricingTrace.dailyRentalCharge(tool, result);
+                    dailyRentalCharge = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public int getChargeDays() {
+        Integer result = chargeDays;
+        if (result == null) {
+            synchronized (this) {
+                result = chargeDays;
+                if (result == null) {
+                    result = getPricingPlan().countChargeDays(checkOutDate, dueDate);
+                    chargeDays = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private RentalAgreement.Charges getCharges() {
+        RentalAgreement.Charges result = charges;
+        if (result == null) {
+            synchronized (this) {
+                result = charges;
+                if (result == null) {
+                    PricingPlan pricingPlan = getPricingPlan();
+                    result = pricingPlan.spansRatePeriods(checkOutDate, dueDate)
+                            ? RentalAgreement.Charges.calculate(pricingPlan, checkOutDate, dueDate, quantity, discountPercent)
+                            : RentalAgreement.Charges.calculate(pricingPlan.getChargeCents(getFirstChargeableDay()), getDailyRentalCharge(), getChargeDays(), quantity, discountPercent);
+                    charges = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public BigDecimal getPreDiscountCharge() {
+        return getCharges().preDiscountCharge;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return getCharges().discountAmount;
+    }
+
+    public BigDecimal getFinalCharge() {
+        return getCharges().finalCharge;
+    }
+
+    public List<RentalAgreement.RatePeriodCharge> getRatePeriodCharges() {
+        return getCharges().ratePeriodCharges;
+    }
+
+    // Builds the equivalent RentalAgreement, for printing or anything else that needs every field
+    public RentalAgreement toRentalAgreement() {
+        return new RentalAgreement(tool, rentalDays, checkOutDate, discountPercent, quantity, holidayProcessor, chargeRule, getFirstChargeableDay(), getChargeDays());
+    }
+
+    public Tool getTool() {
+        return tool;
+    }
+
+    public String getToolCode() {
+        return tool.getToolCode();
+    }
+
+    public String getToolType() {
+        return tool.getToolType();
+    }
+
+    public String getToolBrand() {
+        return tool.getToolBrand();
+    }
+
+    public int getRentalDays() {
+        return rentalDays;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public int getDiscountPercent() {
+        return discountPercent;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+}
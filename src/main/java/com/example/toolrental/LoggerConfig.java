@@ -4,10 +4,15 @@
  * This class provides configuration for the logging system used in the application.
  * It sets up console and file handlers for logging messages at different levels,
  * and formats the log messages in a simple format. It also provides a method to get
- * the configured logger.
+ * the configured logger. The file handlers are AsyncLogHandlers, so logging an
+ * agreement does not wait on the disk, and a shutdown hook writes out whatever
+ * is still buffered when the application exits.
  *
  * Methods:
- * - void setup(): Configures the logging handlers and their levels.
+ * - void setup(): Configures the logging handlers and their levels, waiting for
+ *   buffer space when the file handlers fall behind.
+ * - void setup(OverflowPolicy overflowPolicy): The same, with the given policy for
+ *   records that arrive while a file handler's buffer is full.
  * - Logger getLogger(): Returns the configured logger.
  *
  * Example usage:
@@ -19,7 +24,6 @@ package com.example.toolrental;
 
 import java.io.IOException;
 import java.util.logging.ConsoleHandler;
-import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -30,6 +34,10 @@ public class LoggerConfig {
     private static final Logger logger = Logger.getLogger(LoggerConfig.class.getName());
 
     public static void setup() throws IOException {
+        setup(AsyncLogHandler.OverflowPolicy.BLOCK);
+    }
+
+    public static void setup(AsyncLogHandler.OverflowPolicy overflowPolicy) throws IOException {
         // Remove the default console handler
         Logger rootLogger = Logger.getLogger("");
         Handler[] handlers = rootLogger.getHandlers();
@@ -44,19 +52,25 @@ public class LoggerConfig {
         rootLogger.addHandler(consoleHandler);
 
         // Create a file handler for exceptions
-        FileHandler fileHandler = new FileHandler("exceptions.log", true);
+        AsyncLogHandler fileHandler = new AsyncLogHandler("exceptions.log", true, overflowPolicy);
         fileHandler.setLevel(Level.WARNING);
         fileHandler.setFormatter(new SimpleFormatter());
         rootLogger.addHandler(fileHandler);
 
         // Create a file handler for rental agreements
-        FileHandler rentalAgreementHandler = new FileHandler("rental_agreements.log", true);
+        AsyncLogHandler rentalAgreementHandler = new AsyncLogHandler("rental_agreements.log", true, overflowPolicy);
         rentalAgreementHandler.setLevel(Level.INFO);
         rentalAgreementHandler.setFormatter(new SimpleFormatter());
         logger.addHandler(rentalAgreementHandler);
 
         // Set the logger level to ALL
         rootLogger.setLevel(Level.ALL);
+
+        // Write out buffered records before the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            rentalAgreementHandler.close();
+            fileHandler.close();
+        }, "async-log-shutdown"));
     }
 
     public static Logger getLogger() {
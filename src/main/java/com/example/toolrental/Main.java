@@ -22,19 +22,62 @@
  * - Checking out and generating rental agreements.
  * - Printing individual and consolidated rental agreements.
  *
+ * Modes:
+ * - No arguments: Runs the shopping cart demonstration described above.
+ * - quote-jsonl <input> <output>: Streams JSON Lines rental requests through
+ *   JsonlQuotePipeline and writes one agreement per line; "-" selects
+ *   standard input or standard output.
+ * - serve [port] [--watch] [--trace]: Starts QuoteHttpServer with /quote and
+ *   /checkout endpoints (port 8080 by default) and runs until the process is
+ *   stopped.
+ *   With --watch, ChargeRuleWatcher reloads the charge rules whenever the
+ *   configuration file is edited. With --trace, clients can also switch
+ *   pricing traces on through /trace and the X-Pricing-Trace header.
+ * - serve-binary [port]: Starts BinaryQuoteServer for the binary quote
+ *   protocol (port 9090 by default) and runs until the process is stopped.
+ * - load-binary [host] [port] [connections] [requests]: Drives a binary quote
+ *   server with BinaryQuoteLoadClient and prints throughput and latency
+ *   percentiles.
+ * - analyze-log <log files...>: Scans rental_agreements.log files in
+ *   parallel with RentalLogAnalyzer and prints agreements, quantity, charge
+ *   days and final charges per tool code per check out date as CSV. It runs
+ *   before the logger and charge rules are set up, so it needs no tools.json
+ *   and appends nothing to the logs it reads.
+ *
  * Note: The configuration for charge rules is loaded from a JSON file.
  *
  * @version 1.0
  */
 package com.example.toolrental;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
 
     public static void main(String[] args) {
+        // Log analysis is offline: it needs no charge rules and must not log into the file it reads
+        if (args.length > 0 && args[0].equals("analyze-log")) {
+            runLogAnalysis(args);
+            return;
+        }
+
         try {
             // Set up the logger configuration
             LoggerConfig.setup();
@@ -53,6 +96,23 @@ public class Main {
             List<ChargeRule> chargeRules = ChargeProcessorConfig.getChargeRules(ConfigFileType.JSON, "tools", holidayProcessor);
             ChargeProcessor chargeProcessor = new ChargeProcessor(chargeRules, holidayProcessor);
 
+            if (args.length > 0 && args[0].equals("quote-jsonl")) {
+                runQuoteJsonl(args, chargeProcessor);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("serve")) {
+                runServer(args, holidayProcessor, chargeProcessor);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("serve-binary")) {
+                runBinaryServer(args, chargeProcessor);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("load-binary")) {
+                runBinaryLoad(args, chargeRules);
+                return;
+            }
+
             // Create a ShoppingCart instance
             ShoppingCart cart = new ShoppingCart(chargeProcessor);
 
@@ -71,11 +131,150 @@ public class Main {
                 agreement.printAgreement(i + 1); // Print each agreement with its number
             }
 
-            // Print consolidated agreement for all tools in the cart
-            cart.printConsolidatedAgreement();
+            // Print consolidated agreement for all tools in the cart, reusing the agreements above
+            cart.printConsolidatedAgreement(agreements);
 
         } catch (IOException e) {
             System.err.println("Error processing charge rules: " + e.getMessage());
         }
     }
+
+    private static void runQuoteJsonl(String[] args, ChargeProcessor chargeProcessor) {
+        if (args.length != 3) {
+            System.err.println("Usage: quote-jsonl <input.jsonl|-> <output.jsonl|->");
+            return;
+        }
+
+        try (InputStream input = args[1].equals("-") ? System.in : new BufferedInputStream(new FileInputStream(args[1]));
+             OutputStream output = args[2].equals("-") ? System.out : new BufferedOutputStream(new FileOutputStream(args[2]))) {
+            long requests = new JsonlQuotePipeline(chargeProcessor).run(input, output);
+            output.flush();
+            System.err.println("Priced " + requests + " requests");
+        } catch (IOException e) {
+            System.err.println("Error streaming quotes: " + e.getMessage());
+        }
+    }
+
+    private static void runLogAnalysis(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: analyze-log <rental_agreements.log> [more log files...]");
+            return;
+        }
+
+        List<Path> logFiles = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            logFiles.add(Paths.get(args[i]));
+        }
+
+        long started = System.nanoTime();
+        try (RentalLogAnalyzer analyzer = new RentalLogAnalyzer(Runtime.getRuntime().availableProcessors())) {
+            RentalLogAnalyzer.Result result = analyzer.analyze(logFiles);
+            Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            result.writeCsv(output);
+            output.flush();
+
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            System.err.println("Scanned " + result.getBytes() + " bytes in " + millis + " ms: "
+                    + result.getAgreements() + " agreements, " + result.getSkipped() + " incomplete agreements skipped");
+        } catch (IOException e) {
+            System.err.println("Error analyzing rental agreement log: " + e.getMessage());
+        }
+    }
+
+    private static void runServer(String[] args, HolidayProcessor holidayProcessor, ChargeProcessor chargeProcessor) throws IOException {
+        int port = 8080;
+        boolean watch = false;
+        boolean trace = false;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--watch")) {
+                watch = true;
+                continue;
+            }
+            if (args[i].equals("--trace")) {
+                trace = true;
+                continue;
+            }
+            try {
+                port = Integer.parseInt(args[i]);
+            } catch (NumberFormatException e) {
+                System.err.println("Usage: serve [port] [--watch] [--trace]");
+                return;
+            }
+        }
+
+        if (!watch) {
+            QuoteHttpServer server = new QuoteHttpServer(chargeProcessor, port, trace);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+            server.start();
+            System.err.println("Quote server listening on port " + server.getPort());
+            return;
+        }
+
+        ChargeRuleWatcher watcher = new ChargeRuleWatcher(ConfigFileType.JSON, ChargeProcessorConfig.getConfigFile(ConfigFileType.JSON, "tools"), holidayProcessor);
+        QuoteHttpServer server = new QuoteHttpServer(watcher.getChargeProcessor(), port, trace);
+        watcher.addListener(server.getQuoteCache()::reload);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                System.err.println("Error stopping charge rule watcher: " + e.getMessage());
+            }
+        }));
+        watcher.start();
+        server.start();
+        System.err.println("Quote server listening on port " + server.getPort() + ", watching " + watcher.getConfigFile());
+    }
+
+    private static void runBinaryServer(String[] args, ChargeProcessor chargeProcessor) throws IOException {
+        int port = 9090;
+        if (args.length > 1) {
+            try {
+                port = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                System.err.println("Usage: serve-binary [port]");
+                return;
+            }
+        }
+
+        BinaryQuoteServer server = new BinaryQuoteServer(chargeProcessor, new InetSocketAddress(port));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.stop();
+            } catch (IOException e) {
+                System.err.println("Error stopping binary quote server: " + e.getMessage());
+            }
+        }));
+        server.start();
+        System.err.println("Binary quote server listening on port " + server.getPort());
+    }
+
+    private static void runBinaryLoad(String[] args, List<ChargeRule> chargeRules) {
+        String host = args.length > 1 ? args[1] : "localhost";
+        int port;
+        int connections;
+        int requests;
+        try {
+            port = args.length > 2 ? Integer.parseInt(args[2]) : 9090;
+            connections = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+            requests = args.length > 4 ? Integer.parseInt(args[4]) : 100000;
+        } catch (NumberFormatException e) {
+            System.err.println("Usage: load-binary [host] [port] [connections] [requests per connection]");
+            return;
+        }
+
+        List<String> toolCodes = new ArrayList<>();
+        for (ChargeRule chargeRule : chargeRules) {
+            toolCodes.add(chargeRule.getToolCode());
+        }
+
+        try {
+            BinaryQuoteLoadClient client = new BinaryQuoteLoadClient(new InetSocketAddress(host, port), connections, requests);
+            System.out.println(client.run(toolCodes, LocalDate.of(2024, 7, 2)));
+        } catch (IOException e) {
+            System.err.println("Error generating binary quote load: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,249 @@
+/**
+ * PricingPlan class for the Tool Rental System application.
+ *
+ * This class is a ChargeRule compiled against one HolidayProcessor into flat,
+ * immutable lookup tables, so pricing an agreement is a handful of array reads
+ * instead of the general ChargeRule path with its BigDecimal comparisons,
+ * day-of-week checks and holiday rule walks. It is the only place that
+ * finds the first chargeable day and counts charge days for a ChargeRule, and
+ * the only place that splits a rental at the rule's rate period boundaries.
+ *
+ * Key functionalities:
+ * - Looking up the rate of a date by rate period and day type (weekday,
+ *   weekend or holiday) from a precomputed table, in BigDecimal or in cents.
+ * - Finding the first non-holiday chargeable day by walking epoch days against
+ *   a per-period day-of-week table and the HolidayProcessor's HolidayCalendar,
+ *   without creating a LocalDate per day.
+ * - Counting charge days through the shared ChargeDayTable of each rate period.
+ * - Splitting a window at the rate period boundaries for forEachSegment, which
+ *   both the charge-day count and RentalAgreement's per-period pricing use.
+ * - Detecting when its HolidayProcessor has gained rules since it was
+ *   compiled, so ChargeRule can compile a fresh plan.
+ *
+ * Components:
+ * - periodStarts: The effective date of each rate period as an epoch day.
+ * - rates / rateCents: Three rates per rate period, indexed by period * 3 plus
+ *   WEEKDAY, WEEKEND or HOLIDAY.
+ * - chargeableDays: Whether a non-holiday date is chargeable, indexed by
+ *   period * 7 plus the day of week.
+ * - chargeDayTables: The HolidayProcessor's ChargeDayTable for each period's mask.
+ * - holidayCalendar: The HolidayProcessor's HolidayCalendar, the same holiday
+ *   bitmap its isHoliday reads, replaced by the processor when its rules
+ *   change.
+ *
+ * Example usage:
+ * - RentalAgreement calls chargeRule.getPricingPlan(holidayProcessor) and
+ *   prices through the plan; the plan is compiled once and cached on the rule.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+public final class PricingPlan {
+
+    static final int WEEKDAY = 0;
+    static final int WEEKEND = 1;
+    static final int HOLIDAY = 2;
+
+    // Returned by the package-private day searches when no day qualifies
+    static final long NO_DAY = Long.MIN_VALUE;
+
+    private static final int DAY_TYPES = 3;
+    private static final long LAST_DAY = LocalDate.MAX.toEpochDay();
+
+    private final Tool tool;
+    private final long[] periodStarts;
+    private final BigDecimal[] rates;
+    private final long[] rateCents;
+    private final int[] chargeableMasks;
+    private final boolean[] chargeableDays;
+    private final ChargeDayTable[] chargeDayTables;
+    private final HolidayProcessor holidayProcessor;
+    private final HolidayCalendar holidayCalendar;
+
+    private PricingPlan(ChargeRule chargeRule, HolidayProcessor holidayProcessor) {
+        List<ChargeRule.RatePeriod> ratePeriods = chargeRule.getRatePeriods();
+        int periods = ratePeriods.size();
+
+        this.tool = chargeRule.getTool();
+        this.periodStarts = new long[periods];
+        this.rates = new BigDecimal[periods * DAY_TYPES];
+        this.rateCents = new long[periods * DAY_TYPES];
+        this.chargeableMasks = new int[periods];
+        this.chargeableDays = new boolean[periods * 7];
+        this.chargeDayTables = new ChargeDayTable[periods];
+        this.holidayProcessor = holidayProcessor;
+        this.holidayCalendar = holidayProcessor.getHolidayCalendar();
+
+        for (int index = 0; index < periods; index++) {
+            ChargeRule.RatePeriod ratePeriod = ratePeriods.get(index);
+            periodStarts[index] = ratePeriod.getEffectiveDate().toEpochDay();
+
+            rates[index * DAY_TYPES + WEEKDAY] = ratePeriod.getWeekdayCharge();
+            rates[index * DAY_TYPES + WEEKEND] = ratePeriod.getWeekendCharge();
+            rates[index * DAY_TYPES + HOLIDAY] = ratePeriod.getHolidayCharge();
+            rateCents[index * DAY_TYPES + WEEKDAY] = ratePeriod.getWeekdayChargeCents();
+            rateCents[index * DAY_TYPES + WEEKEND] = ratePeriod.getWeekendChargeCents();
+            rateCents[index * DAY_TYPES + HOLIDAY] = ratePeriod.getHolidayChargeCents();
+
+            chargeableMasks[index] = ratePeriod.getChargeableMask();
+            for (int dayOfWeek = 0; dayOfWeek < 7; dayOfWeek++) {
+                int dayType = dayOfWeek >= 5 ? ChargeRule.CHARGEABLE_WEEKEND : ChargeRule.CHARGEABLE_WEEKDAY;
+                chargeableDays[index * 7 + dayOfWeek] = (chargeableMasks[index] & dayType) != 0;
+            }
+            chargeDayTables[index] = holidayProcessor.getChargeDayTable(chargeableMasks[index]);
+        }
+    }
+
+    public static PricingPlan compile(ChargeRule chargeRule, HolidayProcessor holidayProcessor) {
+        return new PricingPlan(chargeRule, holidayProcessor);
+    }
+
+    // False once the HolidayProcessor has replaced its calendar, since the holidays and charge-day tables are then stale
+    public boolean isCompiledFor(HolidayProcessor holidayProcessor) {
+        return this.holidayProcessor == holidayProcessor && holidayCalendar == holidayProcessor.getHolidayCalendar();
+    }
+
+    public Tool getTool() {
+        return tool;
+    }
+
+    public LocalDate findFirstChargeableDay(LocalDate startDate) {
+        long day = startDate.toEpochDay();
+        int index = findRatePeriodIndex(day);
+        while (true) {
+            long found = findFirstChargeableDay(index, day, getRatePeriodEndDay(index));
+            if (found != NO_DAY) {
+                return LocalDate.ofEpochDay(found);
+            }
+            if (index + 1 == periodStarts.length) {
+                // Only holidays are charged from here on, so no later day can qualify
+                throw new IllegalArgumentException("No chargeable day for tool code: " + tool.getToolCode());
+            }
+            index++;
+            day = periodStarts[index];
+        }
+    }
+
+    public BigDecimal getCharge(LocalDate date) {
+        long day = date.toEpochDay();
+        return rates[findRatePeriodIndex(day) * DAY_TYPES + dayType(day)];
+    }
+
+    public long getChargeCents(LocalDate date) {
+        long day = date.toEpochDay();
+        return rateCents[findRatePeriodIndex(day) * DAY_TYPES + dayType(day)];
+    }
+
+    public int countChargeDays(LocalDate startDate, LocalDate endDate) {
+        if (periodStarts.length == 1) {
+            return chargeDayTables[0].countChargeDays(startDate, endDate);
+        }
+
+        int[] chargeDays = new int[1];
+        forEachSegment(startDate, endDate, (index, segmentStart, segmentEnd) ->
+                chargeDays[0] = Math.addExact(chargeDays[0], chargeDayTables[index].countChargeDays(segmentStart, segmentEnd)));
+        return chargeDays[0];
+    }
+
+    public boolean spansRatePeriods(LocalDate startDate, LocalDate endDate) {
+        return periodStarts.length > 1 && findRatePeriodIndex(startDate.toEpochDay()) != findRatePeriodIndex(endDate.toEpochDay());
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        return isHoliday(date.toEpochDay());
+    }
+
+    int getRatePeriodCount() {
+        return periodStarts.length;
+    }
+
+    int findRatePeriodIndex(long day) {
+        if (periodStarts.length == 1) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(periodStarts, day);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private LocalDate getRatePeriodEnd(int index) {
+        return LocalDate.ofEpochDay(getRatePeriodEndDay(index));
+    }
+
+    private long getRatePeriodEndDay(int index) {
+        return index + 1 < periodStarts.length ? periodStarts[index + 1] - 1 : LAST_DAY;
+    }
+
+    // Splits startDate to endDate at the rate period boundaries and visits each part in date order, visiting
+    // only the periods that overlap the window; this is the one place a window is walked period by period
+    void forEachSegment(LocalDate startDate, LocalDate endDate, SegmentVisitor visitor) {
+        if (startDate.isAfter(endDate)) {
+            return;
+        }
+
+        int index = findRatePeriodIndex(startDate.toEpochDay());
+        LocalDate segmentStart = startDate;
+        while (true) {
+            LocalDate periodEnd = getRatePeriodEnd(index);
+            LocalDate segmentEnd = periodEnd.isBefore(endDate) ? periodEnd : endDate;
+            visitor.visit(index, segmentStart, segmentEnd);
+            if (!segmentEnd.isBefore(endDate)) {
+                return;
+            }
+            segmentStart = segmentEnd.plusDays(1);
+            index++;
+        }
+    }
+
+    int countChargeDays(int index, LocalDate startDate, LocalDate endDate) {
+        return chargeDayTables[index].countChargeDays(startDate, endDate);
+    }
+
+    BigDecimal getRate(int index, int dayType) {
+        return rates[index * DAY_TYPES + dayType];
+    }
+
+    // The first non-holiday day from startDay to endDay that the rate period charges for, or NO_DAY
+    long findFirstChargeableDay(int index, long startDay, long endDay) {
+        if ((chargeableMasks[index] & (ChargeRule.CHARGEABLE_WEEKDAY | ChargeRule.CHARGEABLE_WEEKEND)) == 0) {
+            return NO_DAY;
+        }
+
+        int base = index * 7;
+        int dayOfWeek = dayOfWeek(startDay);
+        for (long day = startDay; ; day++) {
+            if (chargeableDays[base + dayOfWeek] && !isHoliday(day)) {
+                return day;
+            }
+            if (day >= endDay) {
+                return NO_DAY;
+            }
+            dayOfWeek = dayOfWeek == 6 ? 0 : dayOfWeek + 1;
+        }
+    }
+
+    int dayType(long day) {
+        if (isHoliday(day)) {
+            return HOLIDAY;
+        }
+        return dayOfWeek(day) >= 5 ? WEEKEND : WEEKDAY;
+    }
+
+    // DayOfWeek ordinal of an epoch day: 1970-01-01 was a Thursday
+    static int dayOfWeek(long day) {
+        return (int) Math.floorMod(day + 3, 7L);
+    }
+
+    private boolean isHoliday(long day) {
+        return holidayCalendar.isHoliday(day);
+    }
+
+    interface SegmentVisitor {
+        void visit(int index, LocalDate segmentStart, LocalDate segmentEnd);
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * PricingTrace class for the Tool Rental System application.
+ *
+ * This class is the diagnostics switchboard for the pricing path. Pricing
+ * code reports what it looked up through typed trace methods, and nothing is
+ * logged, formatted or allocated unless tracing has been switched on: with
+ * every switch off, a trace call is one volatile read. The switches can be
+ * flipped at runtime from any thread.
+ *
+ * Key functionalities:
+ * - Guarding every event on one volatile flag and then on the logger level.
+ * - Sampling each Category independently: a rate of 0 turns it off, 1 traces
+ *   every event and N traces one event in N.
+ * - Tracing every event for selected tool codes, whatever the sampling rates.
+ *   Only codes that ToolCodeKey can pack are accepted, and at most
+ *   MAX_TOOL_CODES at once, so a remote switch cannot grow the set unbounded.
+ * - Tracing every event on the current thread while a RequestScope opened by
+ *   traceRequest() is open, for following one request end to end.
+ * - Capturing parameters only after an event has been selected, so the log
+ *   parameter array is never built for an event that is not logged.
+ *
+ * Components:
+ * - Category: CHARGE for each daily charge lookup, DAILY_TOTAL for the
+ *   day-by-day total in ChargeProcessor, and AGREEMENT for the daily rental
+ *   charge chosen for each agreement.
+ * - sampleRates / sampleCounters: Per-category rate and event counter.
+ * - toolCodes: Tool codes traced in full.
+ * - requestDepth: Per-thread count of open RequestScopes.
+ * - level: The level events are logged at, INFO unless changed.
+ *
+ * Example usage:
+ * - PricingTrace.enableToolCode("LADW") logs every charge looked up for
+ *   ladders to rental_agreements.log until disableToolCode("LADW"); a
+ *   running QuoteHttpServer does the same through POST /trace.
+ * - try (PricingTrace.RequestScope scope = PricingTrace.traceRequest()) { ... }
+ *   traces everything priced on this thread inside the block.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class PricingTrace {
+
+    public enum Category {
+        CHARGE,
+        DAILY_TOTAL,
+        AGREEMENT
+    }
+
+    public static final int MAX_TOOL_CODES = 64;
+
+    private static final Logger logger = LoggerConfig.getLogger();
+
+    private static final AtomicIntegerArray sampleRates = new AtomicIntegerArray(Category.values().length);
+    private static final AtomicLongArray sampleCounters = new AtomicLongArray(Category.values().length);
+    private static final Set<String> toolCodes = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger openRequestScopes = new AtomicInteger();
+    private static final ThreadLocal<int[]> requestDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    // True while any switch is on; the only thing a trace call reads when tracing is off
+    private static volatile boolean active;
+    private static volatile Level level = Level.INFO;
+
+    private PricingTrace() {
+    }
+
+    public static synchronized void setSampleRate(Category category, int sampleRate) {
+        if (sampleRate < 0) {
+            throw new IllegalArgumentException("Sample rate must be 0 or greater");
+        }
+        sampleRates.set(category.ordinal(), sampleRate);
+        sampleCounters.set(category.ordinal(), 0);
+        updateActive();
+    }
+
+    public static int getSampleRate(Category category) {
+        return sampleRates.get(category.ordinal());
+    }
+
+    public static synchronized void enableToolCode(String toolCode) {
+        checkToolCode(toolCode);
+        if (!toolCodes.contains(toolCode) && toolCodes.size() >= MAX_TOOL_CODES) {
+            throw new IllegalArgumentException("At most " + MAX_TOOL_CODES + " tool codes can be traced at once");
+        }
+        toolCodes.add(toolCode);
+        updateActive();
+    }
+
+    public static synchronized void disableToolCode(String toolCode) {
+        checkToolCode(toolCode);
+        toolCodes.remove(toolCode);
+        updateActive();
+    }
+
+    // Configured tool codes are short ASCII codes such as LADW, so anything longer is refused rather than stored
+    private static void checkToolCode(String toolCode) {
+        if (ToolCodeKey.pack(toolCode) == ToolCodeKey.NONE) {
+            throw new IllegalArgumentException("Tool code cannot be traced: " + toolCode);
+        }
+    }
+
+    // The tool codes traced in full, sorted
+    public static List<String> getToolCodes() {
+        List<String> enabled = new ArrayList<>(toolCodes);
+        Collections.sort(enabled);
+        return enabled;
+    }
+
+    public static void setLevel(Level level) {
+        PricingTrace.level = level;
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    // Turns every switch off; RequestScopes that are still open stay in effect until closed
+    public static synchronized void reset() {
+        for (Category category : Category.values()) {
+            sampleRates.set(category.ordinal(), 0);
+            sampleCounters.set(category.ordinal(), 0);
+        }
+        toolCodes.clear();
+        level = Level.INFO;
+        updateActive();
+    }
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    public static RequestScope traceRequest() {
+        requestDepth.get()[0]++;
+        synchronized (PricingTrace.class) {
+            openRequestScopes.incrementAndGet();
+            updateActive();
+        }
+        return new RequestScope();
+    }
+
+    private static void updateActive() {
+        boolean sampling = false;
+        for (Category category : Category.values()) {
+            sampling |= sampleRates.get(category.ordinal()) > 0;
+        }
+        active = sampling || !toolCodes.isEmpty() || openRequestScopes.get() > 0;
+    }
+
+    // The daily charge looked up for a date
+    public static void charge(Tool tool, LocalDate date, BigDecimal charge) {
+        if (active && isSelected(Category.CHARGE, tool)) {
+            logger.log(level, "Date: {0}, Charge: {1}, Tool Code: {2}, Tool Type: {3}, Tool Brand: {4}", new Object[]{date, charge, tool.getToolCode(), tool.getToolType(), tool.getToolBrand()});
+        }
+    }
+
+    // One day of ChargeProcessor.calculateTotalCharge
+    public static void dailyCharge(Tool tool, LocalDate date, BigDecimal charge) {
+        if (active && isSelected(Category.DAILY_TOTAL, tool)) {
+            logger.log(level, "Date: {0} - Charge: {1}", new Object[]{date, charge});
+        }
+    }
+
+    public static void totalCharge(Tool tool, BigDecimal totalCharge) {
+        if (active && isSelected(Category.DAILY_TOTAL, tool)) {
+            logger.log(level, "Total Charge: {0}", totalCharge);
+        }
+    }
+
+    // The daily rental charge chosen for an agreement
+    public static void dailyRentalCharge(Tool tool, BigDecimal dailyRentalCharge) {
+        if (active && isSelected(Category.AGREEMENT, tool)) {
+            logger.log(level, "Daily Rental Charge: {0}", dailyRentalCharge);
+        }
+    }
+
+    private static boolean isSelected(Category category, Tool tool) {
+        if (!logger.isLoggable(level)) {
+            return false;
+        }
+        if (openRequestScopes.get() > 0 && requestDepth.get()[0] > 0) {
+            return true;
+        }
+        if (!toolCodes.isEmpty() && tool.getToolCode() != null && toolCodes.contains(tool.getToolCode())) {
+            return true;
+        }
+
+        int sampleRate = sampleRates.get(category.ordinal());
+        if (sampleRate == 0) {
+            return false;
+        }
+        return sampleRate == 1 || sampleCounters.incrementAndGet(category.ordinal()) % sampleRate == 0;
+    }
+
+    // Traces everything priced on the opening thread until closed, on that same thread
+    public static final class RequestScope implements AutoCloseable {
+
+        private boolean closed;
+
+        private RequestScope() {
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            requestDepth.get()[0]--;
+            synchronized (PricingTrace.class) {
+                openRequestScopes.decrementAndGet();
+                updateActive();
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * QuoteCache class for the Tool Rental System application.
+ *
+ * This class keeps recently priced rental agreements so that repeated quotes
+ * for identical inputs are answered without recomputing charges. Entries are
+ * evicted in least-recently-used order once the configured size is reached,
+ * and the whole cache is invalidated when the charge rules are reloaded.
+ *
+ * Key functionalities:
+ * - Returning a cached RentalAgreement for the same tool, checkout date,
+ *   rental days, discount and quantity.
+ * - Bounding the number of entries with LRU eviction.
+ * - Counting hits, misses and evictions.
+ * - Swapping in a reloaded ChargeProcessor and discarding every cached quote.
+ * - Pricing callers bound to a ChargeProcessor that has since been replaced,
+ *   such as an open ShoppingCart, on that processor without using the cache.
+ *
+ * Components:
+ * - quotes: Access-ordered LinkedHashMap from QuoteKey to RentalAgreement.
+ * - chargeProcessor: The ChargeProcessor used to price cache misses; volatile
+ *   so it can be read without the cache lock.
+ * - generation: Incremented on every invalidation so that a quote priced
+ *   against old charge rules is never stored after a reload.
+ *
+ * Example usage:
+ * - Wrap the ChargeProcessor in a QuoteCache and pass it to a ShoppingCart,
+ *   or call quote directly for storefront price lookups.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public class QuoteCache {
+
+    private final int maxEntries;
+    private final LinkedHashMap<QuoteKey, RentalAgreement> quotes;
+    private volatile ChargeProcessor chargeProcessor;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public QuoteCache(ChargeProcessor chargeProcessor, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Maximum cache entries must be 1 or greater");
+        }
+        this.chargeProcessor = chargeProcessor;
+        this.maxEntries = maxEntries;
+        this.quotes = new LinkedHashMap<QuoteKey, RentalAgreement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<QuoteKey, RentalAgreement> eldest) {
+                if (size() > QuoteCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public RentalAgreement quote(String toolCode, String toolType, String toolBrand, int rentalDays, LocalDate checkOutDate, int discountPercent, int quantity) {
+        return quote(chargeProcessor, toolCode, toolType, toolBrand, rentalDays, checkOutDate, discountPercent, quantity);
+    }
+
+    // Prices on the given snapshot, such as the one a ShoppingCart was created with; the cache is used only
+    // while that snapshot is still the current one, so a caller bound to rules since reloaded is priced on
+    // those rules without reading or filling the cache
+    public RentalAgreement quote(ChargeProcessor processor, String toolCode, String toolType, String toolBrand, int rentalDays, LocalDate checkOutDate, int discountPercent, int quantity) {
+        QuoteKey key = new QuoteKey(toolCode, toolType, toolBrand, rentalDays, checkOutDate, discountPercent, quantity);
+
+        boolean cacheable;
+        long pricedGeneration;
+        synchronized (this) {
+            cacheable = processor == chargeProcessor;
+            if (cacheable) {
+                RentalAgreement cached = quotes.get(key);
+                if (cached != null) {
+                    hits++;
+                    return cached;
+                }
+                misses++;
+            }
+            pricedGeneration = generation;
+        }
+
+        // Priced outside the lock so a slow miss does not hold up hits; invalid input throws and is not cached
+        RentalAgreement agreement = new RentalAgreement(toolCode, toolType, toolBrand, rentalDays, checkOutDate, discountPercent, quantity, processor);
+
+        if (cacheable) {
+            synchronized (this) {
+                if (pricedGeneration == generation) {
+                    quotes.put(key, agreement);
+                }
+            }
+        }
+        return agreement;
+    }
+
+    // Lock-free so that a checkout can pick up the current rules without waiting on cache traffic
+    public ChargeProcessor getChargeProcessor() {
+        return chargeProcessor;
+    }
+
+    public synchronized void reload(ChargeProcessor chargeProcessor) {
+        this.chargeProcessor = chargeProcessor;
+        invalidateAll();
+    }
+
+    public synchronized void invalidateAll() {
+        quotes.clear();
+        generation++;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public synchronized int size() {
+        return quotes.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private static final class QuoteKey {
+
+        private final String toolCode;
+        private final String toolType;
+        private final String toolBrand;
+        private final int rentalDays;
+        private final LocalDate checkOutDate;
+        private final int discountPercent;
+        private final int quantity;
+        private final int hash;
+
+        private QuoteKey(String toolCode, String toolType, String toolBrand, int rentalDays, LocalDate checkOutDate, int discountPercent, int quantity) {
+            this.toolCode = toolCode;
+            this.toolType = toolType;
+            this.toolBrand = toolBrand;
+            this.rentalDays = rentalDays;
+            this.checkOutDate = checkOutDate;
+            this.discountPercent = discountPercent;
+            this.quantity = quantity;
+            this.hash = Objects.hash(toolCode, toolType, toolBrand, rentalDays, checkOutDate, discountPercent, quantity);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QuoteKey)) {
+                return false;
+            }
+            QuoteKey other = (QuoteKey) o;
+            return rentalDays == other.rentalDays
+                    && discountPercent == other.discountPercent
+                    && quantity == other.quantity
+                    && Objects.equals(toolCode, other.toolCode)
+                    && Objects.equals(checkOutDate, other.checkOutDate)
+                    && Objects.equals(toolType, other.toolType)
+                    && Objects.equals(toolBrand, other.toolBrand);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/**
+ * QuoteHttpServer class for the Tool Rental System application.
+ *
+ * This class exposes quote and checkout endpoints over the JDK's built-in
+ * com.sun.net.httpserver. Every exchange runs on its own virtual thread when
+ * the running JDK provides them, and on a cached pool of daemon threads
+ * otherwise. All exchanges share one QuoteCache and price against its
+ * read-only ChargeProcessor snapshot; each checkout gets its own ShoppingCart
+ * bound to the snapshot current when the checkout started, so reloading the
+ * cache with new charge rules never changes a checkout in flight.
+ *
+ * Endpoints:
+ * - POST /quote: Body is one RentalJson request object; responds with the
+ *   agreement fields.
+ * - POST /checkout: Body is an array of request objects; responds with
+ *   {"agreements":[...],"totalPreDiscountCharge":...,"totalDiscountAmount":...,"totalFinalCharge":...}.
+ * - Invalid requests get 400 with {"error":"..."}, other paths 404 and other
+ *   methods 405.
+ * - POST /trace: Body is {"toolCode":"LADW","enabled":true}; switches
+ *   PricingTrace on or off for that tool code while the server runs, and
+ *   responds with {"toolCodes":[...]}, the tool codes now traced.
+ * - A request with the header "X-Pricing-Trace: true" is priced inside a
+ *   PricingTrace.RequestScope, so its charge lookups are logged whatever the
+ *   trace settings. A traced /quote is always priced, never answered from or
+ *   stored in the QuoteCache, so there is something to trace.
+ * - /trace and the X-Pricing-Trace header exist only on a server created
+ *   with tracing on, since they let any client write to the log; otherwise
+ *   /trace is 404 and the header is ignored.
+ *
+ * Components:
+ * - quoteCache: Serves repeated /quote calls without pricing them again and
+ *   holds the current ChargeProcessor snapshot.
+ * - executor: Virtual-thread-per-task executor, or the fallback pool.
+ * - tracing: Whether /trace and the X-Pricing-Trace header are served.
+ *
+ * Example usage:
+ * - Run Main with "serve 8080", then POST requests to http://localhost:8080/quote;
+ *   add --trace to serve /trace and the X-Pricing-Trace header as well.
+ * - Pass getQuoteCache()::reload to ChargeRuleWatcher.addListener to serve
+ *   edited charge rules without a restart.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.time.DateTimeException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class QuoteHttpServer {
+
+    private static final Logger logger = LoggerConfig.getLogger();
+
+    public static final int DEFAULT_QUOTE_CACHE_SIZE = 10000;
+    public static final String TRACE_HEADER = "X-Pricing-Trace";
+
+    private final QuoteCache quoteCache;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final boolean tracing;
+    private final HttpServer server;
+
+    public QuoteHttpServer(ChargeProcessor chargeProcessor, int port) throws IOException {
+        this(chargeProcessor, port, false);
+    }
+
+    public QuoteHttpServer(ChargeProcessor chargeProcessor, int port, boolean tracing) throws IOException {
+        this(chargeProcessor, new InetSocketAddress(port), DEFAULT_QUOTE_CACHE_SIZE, tracing);
+    }
+
+    public QuoteHttpServer(ChargeProcessor chargeProcessor, InetSocketAddress address, int quoteCacheSize) throws IOException {
+        this(chargeProcessor, address, quoteCacheSize, false);
+    }
+
+    // With tracing off, clients cannot switch PricingTrace on: /trace is not served and X-Pricing-Trace is ignored
+    public QuoteHttpServer(ChargeProcessor chargeProcessor, InetSocketAddress address, int quoteCacheSize, boolean tracing) throws IOException {
+        this.quoteCache = new QuoteCache(chargeProcessor.snapshot(), quoteCacheSize);
+        this.tracing = tracing;
+
+        ExecutorService virtualThreadExecutor = newVirtualThreadExecutor();
+        this.virtualThreads = virtualThreadExecutor != null;
+        this.executor = virtualThreads ? virtualThreadExecutor : Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "quote-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.server = HttpServer.create(address, 0);
+        this.server.createContext("/quote", exchange -> handle(exchange, "/quote"));
+        this.server.createContext("/checkout", exchange -> handle(exchange, "/checkout"));
+        this.server.createContext("/trace", exchange -> handle(exchange, "/trace"));
+        this.server.setExecutor(executor);
+    }
+
+    // Virtual threads arrived after the Java version this project compiles for, so they are looked up reflectively
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    public void start() {
+        server.start();
+        logger.log(Level.INFO, "Quote server listening on port {0} ({1})", new Object[]{String.valueOf(getPort()), virtualThreads ? "virtual threads" : "thread pool"});
+    }
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public boolean isTracing() {
+        return tracing;
+    }
+
+    public QuoteCache getQuoteCache() {
+        return quoteCache;
+    }
+
+    private void handle(HttpExchange exchange, String endpoint) throws IOException {
+        boolean trace = tracing && "true".equalsIgnoreCase(exchange.getRequestHeaders().getFirst(TRACE_HEADER));
+        PricingTrace.RequestScope scope = trace ? PricingTrace.traceRequest() : null;
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (!path.equals(endpoint) || (endpoint.equals("/trace") && !tracing)) {
+                sendError(exchange, 404, "Not found: " + path);
+            } else if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendError(exchange, 405, "Method not allowed: " + exchange.getRequestMethod());
+            } else if (endpoint.equals("/quote")) {
+                handleQuote(exchange, trace);
+            } else if (endpoint.equals("/checkout")) {
+                handleCheckout(exchange);
+            } else {
+                handleTrace(exchange);
+            }
+        } catch (IllegalArgumentException | JsonProcessingException | ArithmeticException | DateTimeException e) {
+            // A date the request parses but cannot price, such as a due date past LocalDate.MAX, is still bad input
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Quote server request failed", e);
+            sendError(exchange, 500, "Internal server error");
+        } finally {
+            if (scope != null) {
+                scope.close();
+            }
+            exchange.close();
+        }
+    }
+
+    private void handleQuote(HttpExchange exchange, boolean trace) throws IOException {
+        RentalRequest request;
+        try (InputStream body = exchange.getRequestBody(); JsonParser parser = jsonFactory.createParser(body)) {
+            request = RentalJson.readRequest(parser, parser.nextToken());
+        }
+
+        // A cache hit prices nothing, so a traced quote is priced afresh and not cached
+        RentalAgreement agreement = trace
+                ? new RentalAgreement(request.getToolCode(), request.getToolType(), request.getToolBrand(), request.getRentalDays(), request.getCheckOutDate(), request.getDiscountPercent(), request.getQuantity(), quoteCache.getChargeProcessor())
+                : quoteCache.quote(
+                        request.getToolCode(),
+                        request.getToolType(),
+                        request.getToolBrand(),
+                        request.getRentalDays(),
+                        request.getCheckOutDate(),
+                        request.getDiscountPercent(),
+                        request.getQuantity()
+                );
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        try (JsonGenerator generator = jsonFactory.createGenerator(response, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            RentalJson.writeAgreementFields(generator, agreement);
+            generator.writeEndObject();
+        }
+        send(exchange, 200, response.toByteArray());
+    }
+
+    private void handleCheckout(HttpExchange exchange) throws IOException {
+        ShoppingCart cart = new ShoppingCart(quoteCache.getChargeProcessor());
+        try (InputStream body = exchange.getRequestBody(); JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Checkout body must be a JSON array of requests");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                RentalRequest request = RentalJson.readRequest(parser, token);
+                cart.addTool(request.getToolCode(), request.getToolType(), request.getToolBrand(), request.getRentalDays(), request.getDiscountPercent(), request.getQuantity(), request.getCheckOutDate());
+            }
+        }
+
+        List<RentalAgreement> agreements = cart.checkout();
+        AgreementTemplate.Totals totals = new AgreementTemplate.Totals();
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        try (JsonGenerator generator = jsonFactory.createGenerator(response, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("agreements");
+            for (RentalAgreement agreement : agreements) {
+                generator.writeStartObject();
+                RentalJson.writeAgreementFields(generator, agreement);
+                generator.writeEndObject();
+
+                totals.add(agreement);
+            }
+            generator.writeEndArray();
+            RentalJson.writeDecimalField(generator, "totalPreDiscountCharge", totals.getPreDiscountCharge());
+            RentalJson.writeDecimalField(generator, "totalDiscountAmount", totals.getDiscountAmount());
+            RentalJson.writeDecimalField(generator, "totalFinalCharge", totals.getFinalCharge());
+            generator.writeEndObject();
+        }
+        send(exchange, 200, response.toByteArray());
+    }
+
+    private void handleTrace(HttpExchange exchange) throws IOException {
+        String toolCode = null;
+        Boolean enabled = null;
+        try (InputStream body = exchange.getRequestBody(); JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Trace body must be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals("toolCode") && value == JsonToken.VALUE_STRING) {
+                    toolCode = parser.getText();
+                } else if (field.equals("enabled") && value.isBoolean()) {
+                    enabled = parser.getBooleanValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (toolCode == null || enabled == null) {
+            throw new IllegalArgumentException("Trace body must have a string toolCode and a boolean enabled");
+        }
+
+        if (enabled) {
+            PricingTrace.enableToolCode(toolCode);
+        } else {
+            PricingTrace.disableToolCode(toolCode);
+        }
+        logger.log(Level.INFO, "Pricing trace for tool code {0} {1}", new Object[]{toolCode, enabled ? "enabled" : "disabled"});
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        try (JsonGenerator generator = jsonFactory.createGenerator(response, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("toolCodes");
+            for (String tracedToolCode : PricingTrace.getToolCodes()) {
+                generator.writeString(tracedToolCode);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        send(exchange, 200, response.toByteArray());
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        try (JsonGenerator generator = jsonFactory.createGenerator(response, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("error", message);
+            generator.writeEndObject();
+        }
+        send(exchange, status, response.toByteArray());
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+}
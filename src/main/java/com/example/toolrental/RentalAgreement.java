@@ -7,6 +7,21 @@
  * discount amounts, and final charges. The agreement details can be printed to
  * the console and logged for record-keeping.
  *
+ * A rental that crosses a rate period boundary of its ChargeRule is priced
+ * period by period, each part at that period's daily rate. The daily rental
+ * charge is then the rate of the first part, and the parts are kept as
+ * RatePeriodCharges so the printed agreement can show how the pre-discount
+ * charge adds up.
+ *
+ * Pricing goes through the ChargeRule's compiled PricingPlan, which answers
+ * rate, chargeable-day and holiday lookups from flat tables.
+ *
+ * The tool is held as a Tool interned by the ChargeProcessor's ToolRegistry,
+ * so agreements for the same tool share one descriptor.
+ *
+ * The printed agreement is rendered by the precompiled
+ * AgreementTemplate.AGREEMENT layout.
+ *
  * Example usage:
  * - Used in the ShoppingCart class to create rental agreements for tools added to the cart.
  *
@@ -16,19 +31,17 @@ package com.example.toolrental;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.logging.Level;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.logging.Logger;
 
 public class RentalAgreement {
 
     private static final Logger logger = LoggerConfig.getLogger();
 
-    private final String toolCode;
-    private final String toolType;
-    private final String toolBrand;
+    private final Tool tool;
     private final int rentalDays;
     private final LocalDate checkOutDate;
     private final LocalDate dueDate;
@@ -38,12 +51,22 @@ public class RentalAgreement {
     private final BigDecimal discountAmount;
     private final BigDecimal finalCharge;
     private final int quantity;
-    private int totalChargeDays;
+    private final int totalChargeDays;
+    private final List<RatePeriodCharge> ratePeriodCharges;
 
     public RentalAgreement(String toolCode, String toolType, String toolBrand, int rentalDays, LocalDate checkOutDate, int discountPercent, int quantity, ChargeProcessor chargeProcessor) {
-        this.toolCode = toolCode;
-        this.toolType = toolType;
-        this.toolBrand = toolBrand;
+        this(toolCode, toolType, toolBrand, rentalDays, checkOutDate, discountPercent, quantity, chargeProcessor, chargeProcessor.findRule(toolCode));
+    }
+
+    // Used by callers that have already resolved the ChargeRule for this tool, or null if none was found
+    RentalAgreement(String toolCode, String toolType, String toolBrand, int rentalDays, LocalDate checkOutDate, int discountPercent, int quantity, ChargeProcessor chargeProcessor, ChargeRule chargeRule) {
+        this(chargeProcessor.getToolRegistry().intern(toolCode, toolType, toolBrand), rentalDays, checkOutDate, discountPercent, quantity, chargeProcessor.getHolidayProcessor(), chargeRule, null, 0);
+    }
+
+    // Used by ChargeProcessor.priceAll, which shares the first chargeable day and the charge days between
+    // requests; when firstChargeableDay is null both are computed here and chargeDays is ignored
+    RentalAgreement(Tool tool, int rentalDays, LocalDate checkOutDate, int discountPercent, int quantity, HolidayProcessor holidayProcessor, ChargeRule chargeRule, LocalDate firstChargeableDay, int chargeDays) {
+        this.tool = tool;
         this.rentalDays = rentalDays;
         this.checkOutDate = checkOutDate;
         this.dueDate = checkOutDate.plusDays(rentalDays - 1);
@@ -58,105 +81,66 @@ public class RentalAgreement {
             throw new IllegalArgumentException("Invalid discount percentage");
         }
 
-        // Find the appropriate ChargeRule for this tool
-        ChargeRule chargeRule = chargeProcessor.getChargeRules().stream()
-                .filter(rule -> toolCode.equals(rule.getToolCode()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Charge rule not found for tool code: " + toolCode));
-
-        // Calculating the daily rental charge based on the tool's charge rule
-        LocalDate firstChargeableDay = findFirstChargeableDay(checkOutDate, chargeRule, chargeProcessor.getHolidayProcessor());
-        this.dailyRentalCharge = chargeRule.getCharge(firstChargeableDay);
-        logger.log(Level.INFO, "Daily Rental Charge: {0}", this.dailyRentalCharge);
-
-        // Calculate chargeable days excluding holidays
-        this.totalChargeDays = calculateChargeDays(checkOutDate, dueDate, chargeRule, chargeProcessor.getHolidayProcessor());
-        this.preDiscountCharge = calculatePreDiscountCharge(this.totalChargeDays, this.dailyRentalCharge, this.quantity);
-        this.discountAmount = calculateDiscountAmount(this.preDiscountCharge, this.discountPercent);
-        this.finalCharge = calculateFinalCharge(this.preDiscountCharge, this.discountAmount);
-    }
-
-    private LocalDate findFirstChargeableDay(LocalDate startDate, ChargeRule chargeRule, HolidayProcessor holidayProcessor) {
-        LocalDate date = startDate;
-        while (holidayProcessor.isHoliday(date) || !chargeRule.applies(date)) {
-            date = date.plusDays(1);
+        // The ChargeRule for this tool must exist
+        if (chargeRule == null) {
+            throw new IllegalArgumentException("Charge rule not found for tool code: " + tool.getToolCode());
         }
 
-        return date;
-    }
-
-    private int calculateChargeDays(LocalDate startDate, LocalDate endDate, ChargeRule chargeRule, HolidayProcessor holidayProcessor) {
-        this.totalChargeDays = 0;
+        // The rule compiled into flat rate, chargeable-day and holiday tables for this holiday processor
+        PricingPlan pricingPlan = chargeRule.getPricingPlan(holidayProcessor);
 
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            boolean isHoliday = holidayProcessor.isHoliday(date);
-            boolean isWeekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
-
-            // Determine if the day should be charged
-            if ((isHoliday && chargeRule.getHolidayCharge().compareTo(BigDecimal.ZERO) > 0)
-                    || (isWeekend && chargeRule.getWeekendCharge().compareTo(BigDecimal.ZERO) > 0)
-                    || (!isHoliday && !isWeekend && chargeRule.getWeekdayCharge().compareTo(BigDecimal.ZERO) > 0)) {
-
-                this.totalChargeDays++;
-            }
+        boolean precomputed = firstChargeableDay != null;
+        if (!precomputed) {
+            firstChargeableDay = pricingPlan.findFirstChargeableDay(checkOutDate);
         }
 
-        return this.totalChargeDays;
-    }
-
-    private BigDecimal calculatePreDiscountCharge(int chargeDays, BigDecimal dailyRentalCharge, int quantity) {
-        return dailyRentalCharge.multiply(BigDecimal.valueOf(chargeDays)).multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_UP);
-    }
+        // Calculating the daily rental charge based on the tool's charge rule
+        this.dailyRentalCharge = pricingPlan.getCharge(firstChargeableDay);
+        PricingTrace.charge(chargeRule.getTool(), firstChargeableDay, this.dailyRentalCharge);
+        PricingTrace.dailyRentalCharge(tool, this.dailyRentalCharge);
 
-    private BigDecimal calculateDiscountAmount(BigDecimal preDiscountCharge, int discountPercent) {
-        return preDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100)).setScale(2, RoundingMode.HALF_UP);
+        // Calculate chargeable days excluding holidays
+        this.totalChargeDays = precomputed ? chargeDays : calculateChargeDays(checkOutDate, dueDate, pricingPlan);
+
+        Charges charges = pricingPlan.spansRatePeriods(checkOutDate, dueDate)
+                ? Charges.calculate(pricingPlan, checkOutDate, dueDate, this.quantity, this.discountPercent)
+                : Charges.calculate(pricingPlan.getChargeCents(firstChargeableDay), this.dailyRentalCharge, this.totalChargeDays, this.quantity, this.discountPercent);
+        this.preDiscountCharge = charges.preDiscountCharge;
+        this.discountAmount = charges.discountAmount;
+        this.finalCharge = charges.finalCharge;
+        this.ratePeriodCharges = charges.ratePeriodCharges;
     }
 
-    private BigDecimal calculateFinalCharge(BigDecimal preDiscountCharge, BigDecimal discountAmount) {
-        return preDiscountCharge.subtract(discountAmount).setScale(2, RoundingMode.HALF_UP);
+    private int calculateChargeDays(LocalDate startDate, LocalDate endDate, PricingPlan pricingPlan) {
+        // Cumulative table lookups, so the cost does not grow with the length of the rental
+        return pricingPlan.countChargeDays(startDate, endDate);
     }
 
     public void printAgreement(int agreementNumber) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yy");
-
-        StringBuilder agreement = new StringBuilder();
-        agreement.append(String.format("********** Rental Agreement %d **********%n", agreementNumber));
-        agreement.append("---------- Tool Information ----------\n");
-        agreement.append(String.format("Tool code: %s%n", toolCode));
-        agreement.append(String.format("Tool type: %s%n", toolType));
-        agreement.append(String.format("Tool brand: %s%n", toolBrand));
-        agreement.append(String.format("Rental days: %d%n", rentalDays));
-        agreement.append(String.format("Check out date: %s%n", checkOutDate.format(formatter)));
-        agreement.append(String.format("Due date: %s%n", dueDate.plusDays(1).format(formatter)));
-        agreement.append("--------------------------------------\n");
-        agreement.append("------------ Charges -----------------\n");
-        agreement.append(String.format("Daily rental charge per tool: $%.2f%n", dailyRentalCharge));
-        agreement.append(String.format("Quantity: %d%n", quantity));
-        agreement.append(String.format("Charge days: %d%n", totalChargeDays));
-        agreement.append(String.format("Pre-discount charge: $%.2f%n", preDiscountCharge));
-        agreement.append(String.format("Discount percent: %d%%%n", discountPercent));
-        agreement.append(String.format("Discount amount: $%.2f%n", discountAmount));
-        agreement.append(String.format("** Final charge: $%.2f **%n", finalCharge));
-        agreement.append("**************************************\n");
+        String agreement = AgreementTemplate.AGREEMENT.render(this, agreementNumber);
 
         // Print to console
-        System.out.println(agreement.toString());
+        System.out.println(agreement);
 
         // Log the agreement
-        logger.info(agreement.toString());
+        logger.info(agreement);
     }
 
     // Getters for testing purposes
+    public Tool getTool() {
+        return tool;
+    }
+
     public String getToolCode() {
-        return toolCode;
+        return tool.getToolCode();
     }
 
     public String getToolType() {
-        return toolType;
+        return tool.getToolType();
     }
 
     public String getToolBrand() {
-        return toolBrand;
+        return tool.getToolBrand();
     }
 
     public int getRentalDays() {
@@ -198,4 +182,132 @@ public class RentalAgreement {
     public int getQuantity() {
         return quantity;
     }
+
+    // The parts of a rental that crosses rate periods which have charge days, in date order; empty when
+    // the whole rental is priced at getDailyRentalCharge
+    public List<RatePeriodCharge> getRatePeriodCharges() {
+        return ratePeriodCharges;
+    }
+
+    public static final class RatePeriodCharge {
+
+        private final LocalDate startDate;
+        private final BigDecimal dailyRentalCharge;
+        private final int chargeDays;
+
+        RatePeriodCharge(LocalDate startDate, BigDecimal dailyRentalCharge, int chargeDays) {
+            this.startDate = startDate;
+            this.dailyRentalCharge = dailyRentalCharge;
+            this.chargeDays = chargeDays;
+        }
+
+        // The first rental day in this rate period
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public BigDecimal getDailyRentalCharge() {
+            return dailyRentalCharge;
+        }
+
+        public int getChargeDays() {
+            return chargeDays;
+        }
+    }
+
+    // The three money amounts of an agreement, shared with LazyRentalAgreement so both price identically
+    static final class Charges {
+
+        final BigDecimal preDiscountCharge;
+        final BigDecimal discountAmount;
+        final BigDecimal finalCharge;
+        final List<RatePeriodCharge> ratePeriodCharges;
+
+        private Charges(BigDecimal preDiscountCharge, BigDecimal discountAmount, BigDecimal finalCharge, List<RatePeriodCharge> ratePeriodCharges) {
+            this.preDiscountCharge = preDiscountCharge;
+            this.discountAmount = discountAmount;
+            this.finalCharge = finalCharge;
+            this.ratePeriodCharges = ratePeriodCharges;
+        }
+
+        static Charges calculate(long dailyRentalChargeCents, BigDecimal dailyRentalCharge, int chargeDays, int quantity, int discountPercent) {
+            // Price in whole cents when possible, falling back to BigDecimal on sub-cent rates or overflow
+            if (dailyRentalChargeCents != FixedPointPricing.NOT_REPRESENTABLE) {
+                try {
+                    return fromPreDiscountCents(FixedPointPricing.preDiscountCents(dailyRentalChargeCents, chargeDays, quantity), discountPercent, Collections.<RatePeriodCharge>emptyList());
+                } catch (ArithmeticException e) {
+                    // Fall through to BigDecimal
+                }
+            }
+
+            return fromPreDiscountCharge(calculatePreDiscountCharge(chargeDays, dailyRentalCharge, quantity).setScale(2, RoundingMode.HALF_UP), discountPercent, Collections.<RatePeriodCharge>emptyList());
+        }
+
+        // Prices a rental that crosses rate periods: each period contributes its own charge days at its own
+        // daily rate, which is the rate of its first non-holiday chargeable day within the rental, just as
+        // a rental inside one period is priced at the rate of its first chargeable day
+        static Charges calculate(PricingPlan pricingPlan, LocalDate startDate, LocalDate endDate, int quantity, int discountPercent) {
+            List<RatePeriodCharge> charges = new ArrayList<>();
+            pricingPlan.forEachSegment(startDate, endDate, (index, segmentStart, segmentEnd) -> {
+                int chargeDays = pricingPlan.countChargeDays(index, segmentStart, segmentEnd);
+                if (chargeDays > 0) {
+                    // When only holidays are charged in this part, they are priced at the holiday rate
+                    long rateDay = pricingPlan.findFirstChargeableDay(index, segmentStart.toEpochDay(), segmentEnd.toEpochDay());
+                    int dayType = rateDay != PricingPlan.NO_DAY ? pricingPlan.dayType(rateDay) : PricingPlan.HOLIDAY;
+                    charges.add(new RatePeriodCharge(segmentStart, pricingPlan.getRate(index, dayType), chargeDays));
+                }
+            });
+
+            long preDiscountCents = 0;
+            boolean pricedInCents = true;
+            BigDecimal preDiscountCharge = BigDecimal.ZERO;
+            for (RatePeriodCharge charge : charges) {
+                preDiscountCharge = preDiscountCharge.add(calculatePreDiscountCharge(charge.getChargeDays(), charge.getDailyRentalCharge(), quantity));
+                long dailyRentalChargeCents = FixedPointPricing.toCents(charge.getDailyRentalCharge());
+                if (pricedInCents && dailyRentalChargeCents != FixedPointPricing.NOT_REPRESENTABLE) {
+                    try {
+                        preDiscountCents = Math.addExact(preDiscountCents, FixedPointPricing.preDiscountCents(dailyRentalChargeCents, charge.getChargeDays(), quantity));
+                    } catch (ArithmeticException e) {
+                        pricedInCents = false;
+                    }
+                } else {
+                    pricedInCents = false;
+                }
+            }
+
+            List<RatePeriodCharge> ratePeriodCharges = Collections.unmodifiableList(charges);
+            if (pricedInCents) {
+                try {
+                    return fromPreDiscountCents(preDiscountCents, discountPercent, ratePeriodCharges);
+                } catch (ArithmeticException e) {
+                    // Fall through to BigDecimal
+                }
+            }
+            return fromPreDiscountCharge(preDiscountCharge.setScale(2, RoundingMode.HALF_UP), discountPercent, ratePeriodCharges);
+        }
+
+        private static Charges fromPreDiscountCents(long preDiscountCents, int discountPercent, List<RatePeriodCharge> ratePeriodCharges) {
+            long discountCents = FixedPointPricing.discountCents(preDiscountCents, discountPercent);
+            long finalCents = FixedPointPricing.finalCents(preDiscountCents, discountCents);
+            return new Charges(FixedPointPricing.fromCents(preDiscountCents), FixedPointPricing.fromCents(discountCents), FixedPointPricing.fromCents(finalCents), ratePeriodCharges);
+        }
+
+        private static Charges fromPreDiscountCharge(BigDecimal preDiscountCharge, int discountPercent, List<RatePeriodCharge> ratePeriodCharges) {
+            BigDecimal discountAmount = calculateDiscountAmount(preDiscountCharge, discountPercent);
+            return new Charges(preDiscountCharge, discountAmount, calculateFinalCharge(preDiscountCharge, discountAmount), ratePeriodCharges);
+        }
+
+        // Unrounded, so that the parts of a rental spanning rate periods are rounded once in total
+        private static BigDecimal calculatePreDiscountCharge(int chargeDays, BigDecimal dailyRentalCharge, int quantity) {
+            return dailyRentalCharge.multiply(BigDecimal.valueOf(chargeDays)).multiply(BigDecimal.valueOf(quantity));
+        }
+
+        private static BigDecimal calculateDiscountAmount(BigDecimal preDiscountCharge, int discountPercent) {
+            return preDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100)).setScale(2, RoundingMode.HALF_UP);
+        }
+
+        private static BigDecimal calculateFinalCharge(BigDecimal preDiscountCharge, BigDecimal discountAmount) {
+            return preDiscountCharge.subtract(discountAmount).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
 }
@@ -0,0 +1,157 @@
+/**
+ * RentalJson class for the Tool Rental System application.
+ *
+ * This class maps rental requests and rental agreements to and from JSON at
+ * the token level, so that the streaming pipeline and the HTTP service read
+ * and write exactly the same format without building a document tree.
+ *
+ * Key functionalities:
+ * - Reading one request object into a validated RentalRequest.
+ * - Writing the fields of a RentalAgreement into the current JSON object,
+ *   with charges written as exact decimals, and a ratePeriodCharges array
+ *   when the rental crosses a rate change.
+ *
+ * Request fields:
+ * - toolCode, toolType, toolBrand: Strings; toolType and toolBrand may be omitted.
+ * - checkOutDate: ISO date string (yyyy-MM-dd).
+ * - rentalDays, discountPercent, quantity: Integers in the int range.
+ * - Any other field is ignored.
+ *
+ * Example usage:
+ * - Used by JsonlQuotePipeline for JSON Lines files and by QuoteHttpServer
+ *   for request and response bodies.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+public final class RentalJson {
+
+    private static final Set<String> REQUEST_FIELDS = new HashSet<>(Arrays.asList(
+            "toolCode", "toolType", "toolBrand", "rentalDays", "checkOutDate", "discountPercent", "quantity"));
+
+    private RentalJson() {
+    }
+
+    // Reads the value starting at token, which the parser has just returned; the whole value is
+    // consumed even when it is invalid, so the caller can carry on with the next one
+    public static RentalRequest readRequest(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            throw new IllegalArgumentException("Request must be a JSON object");
+        }
+
+        String toolCode = null;
+        String toolType = null;
+        String toolBrand = null;
+        String checkOutDate = null;
+        Integer rentalDays = null;
+        Integer discountPercent = null;
+        Integer quantity = null;
+        String error = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                parser.skipChildren();
+                if (REQUEST_FIELDS.contains(field) && error == null) {
+                    error = "Field " + field + " must not be an object or array";
+                }
+                continue;
+            }
+
+            switch (field) {
+                case "toolCode":
+                    toolCode = parser.getValueAsString();
+                    break;
+                case "toolType":
+                    toolType = parser.getValueAsString();
+                    break;
+                case "toolBrand":
+                    toolBrand = parser.getValueAsString();
+                    break;
+                case "checkOutDate":
+                    checkOutDate = parser.getValueAsString();
+                    break;
+                case "rentalDays":
+                case "discountPercent":
+                case "quantity":
+                    if (value != JsonToken.VALUE_NUMBER_INT) {
+                        error = error != null ? error : "Field " + field + " must be an integer";
+                    } else if (parser.getNumberType() != JsonParser.NumberType.INT) {
+                        // getIntValue would throw, leaving the rest of the object unread
+                        error = error != null ? error : "Field " + field + " is out of range: " + parser.getText();
+                    } else if (field.equals("rentalDays")) {
+                        rentalDays = parser.getIntValue();
+                    } else if (field.equals("discountPercent")) {
+                        discountPercent = parser.getIntValue();
+                    } else {
+                        quantity = parser.getIntValue();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        if (toolCode == null || checkOutDate == null || rentalDays == null || discountPercent == null || quantity == null) {
+            throw new IllegalArgumentException("Request must have toolCode, checkOutDate, rentalDays, discountPercent and quantity");
+        }
+
+        LocalDate date;
+        try {
+            date = LocalDate.parse(checkOutDate);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid check out date: " + checkOutDate);
+        }
+        return new RentalRequest(toolCode, toolType, toolBrand, rentalDays, discountPercent, quantity, date);
+    }
+
+    public static void writeAgreementFields(JsonGenerator generator, RentalAgreement agreement) throws IOException {
+        generator.writeStringField("toolCode", agreement.getToolCode());
+        generator.writeStringField("toolType", agreement.getToolType());
+        generator.writeStringField("toolBrand", agreement.getToolBrand());
+        generator.writeNumberField("rentalDays", agreement.getRentalDays());
+        generator.writeStringField("checkOutDate", agreement.getCheckOutDate().toString());
+        generator.writeStringField("dueDate", agreement.getDueDate().toString());
+        writeDecimalField(generator, "dailyRentalCharge", agreement.getDailyRentalCharge());
+        if (!agreement.getRatePeriodCharges().isEmpty()) {
+            generator.writeArrayFieldStart("ratePeriodCharges");
+            for (RentalAgreement.RatePeriodCharge ratePeriodCharge : agreement.getRatePeriodCharges()) {
+                generator.writeStartObject();
+                generator.writeStringField("startDate", ratePeriodCharge.getStartDate().toString());
+                writeDecimalField(generator, "dailyRentalCharge", ratePeriodCharge.getDailyRentalCharge());
+                generator.writeNumberField("chargeDays", ratePeriodCharge.getChargeDays());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        generator.writeNumberField("quantity", agreement.getQuantity());
+        generator.writeNumberField("chargeDays", agreement.getChargeDays());
+        writeDecimalField(generator, "preDiscountCharge", agreement.getPreDiscountCharge());
+        generator.writeNumberField("discountPercent", agreement.getDiscountPercent());
+        writeDecimalField(generator, "discountAmount", agreement.getDiscountAmount());
+        writeDecimalField(generator, "finalCharge", agreement.getFinalCharge());
+    }
+
+    public static void writeDecimalField(JsonGenerator generator, String name, BigDecimal value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeNumber(value);
+    }
+}
@@ -0,0 +1,596 @@
+/**
+ * RentalLogAnalyzer class for the Tool Rental System application.
+ *
+ * This class reports revenue per tool code per day from rental_agreements.log
+ * files in the SimpleFormatter layout that LoggerConfig writes. Each file is
+ * memory-mapped and split into chunks of about chunkSize bytes, with every
+ * chunk boundary moved forward to the start of the next agreement, so no
+ * agreement is cut in two. The chunks are parsed in parallel on a
+ * ForkJoinPool straight from the mapped bytes, and their aggregates are
+ * merged at the end.
+ *
+ * Key functionalities:
+ * - Recovering the tool code, check out date, quantity, charge days and
+ *   final charge of every "Rental Agreement" record, whatever the level
+ *   label or decimal separator the log was written with.
+ * - Ignoring consolidated agreements, which repeat the agreements already
+ *   logged one by one, and every other log record.
+ * - Counting agreements that are cut short, such as the last one in a log
+ *   that was being written, as skipped rather than failing the scan.
+ * - Summing final charges in whole cents, so no BigDecimal is created per
+ *   agreement, and reading lines without decoding them to Strings.
+ *
+ * Components:
+ * - pool: ForkJoinPool with the configured parallelism.
+ * - chunkSize: Target number of bytes parsed by one task.
+ * - Aggregate: Agreements, quantity, charge days and final charges for one
+ *   tool code on one check out date.
+ * - Result: The aggregates sorted by tool code and date, with counts.
+ *
+ * Example usage:
+ * - Run Main with "analyze-log rental_agreements.log" to print the
+ *   aggregates as CSV.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class RentalLogAnalyzer implements AutoCloseable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    // Lines are read from mapped windows of at most this size, so chunks of any length can be parsed
+    private static final int MAX_WINDOW_SIZE = 256 * 1024 * 1024;
+
+    private static final int BOUNDARY_WINDOW_SIZE = 64 * 1024;
+
+    private static final byte[] AGREEMENT_START = ascii("********** Rental Agreement ");
+    private static final byte[] CONSOLIDATED_START = ascii("********** Consolidated Rental Agreement ");
+    private static final byte[] AGREEMENT_END = ascii("**************************************");
+    private static final byte[] TOOL_CODE = ascii("Tool code: ");
+    private static final byte[] CHECK_OUT_DATE = ascii("Check out date: ");
+    private static final byte[] QUANTITY = ascii("Quantity: ");
+    private static final byte[] CHARGE_DAYS = ascii("Charge days: ");
+    private static final byte[] FINAL_CHARGE = ascii("** Final charge: $");
+
+    private static final int NOT_PARSED = -1;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public RentalLogAnalyzer(int parallelism) {
+        this(parallelism, DEFAULT_CHUNK_SIZE);
+    }
+
+    public RentalLogAnalyzer(int parallelism, int chunkSize) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be 1 or greater");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be 1 or greater");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public Result analyze(List<Path> logFiles) throws IOException {
+        List<FileChannel> channels = new ArrayList<>();
+        try {
+            List<Chunk> chunks = new ArrayList<>();
+            for (Path logFile : logFiles) {
+                FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ);
+                channels.add(channel);
+                split(channel, chunks);
+            }
+
+            if (chunks.isEmpty()) {
+                return new Counts().toResult(0);
+            }
+            long bytes = 0;
+            for (Chunk chunk : chunks) {
+                bytes += chunk.end - chunk.start;
+            }
+            return pool.invoke(new ParseTask(chunks, 0, chunks.size())).toResult(bytes);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (FileChannel channel : channels) {
+                channel.close();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // Splits the file as it is now; records appended while the scan runs are left for the next one
+    private void split(FileChannel channel, List<Chunk> chunks) throws IOException {
+        long size = channel.size();
+        long start = 0;
+        while (start < size) {
+            long end = start + chunkSize >= size ? size : findAgreementStart(channel, start + chunkSize, size);
+            chunks.add(new Chunk(channel, start, end));
+            start = end;
+        }
+    }
+
+    // The offset of the first line at or after from that starts an agreement, or size if there is none
+    private static long findAgreementStart(FileChannel channel, long from, long size) throws IOException {
+        long windowStart = from;
+        while (windowStart < size) {
+            int length = (int) Math.min(BOUNDARY_WINDOW_SIZE, size - windowStart);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+
+            // Start at the first whole line in the window
+            int line = 0;
+            if (windowStart > 0) {
+                line = indexOf(window, (byte) '\n', 0, length);
+                if (line < 0) {
+                    windowStart += length;
+                    continue;
+                }
+                line++;
+            }
+
+            int lastLine = line;
+            while (line < length) {
+                int lineEnd = indexOf(window, (byte) '\n', line, length);
+                if (lineEnd < 0) {
+                    break;
+                }
+                if (startsBlock(window, line, lineEnd)) {
+                    return windowStart + line;
+                }
+                line = lineEnd + 1;
+                lastLine = line;
+            }
+            if (windowStart + length >= size) {
+                return size;
+            }
+
+            // Continue from the start of the last incomplete line, which the next window reads whole
+            windowStart += Math.max(lastLine - 1, 1);
+        }
+        return size;
+    }
+
+    private static boolean startsBlock(ByteBuffer buffer, int from, int to) {
+        return contains(buffer, from, to, AGREEMENT_START) || contains(buffer, from, to, CONSOLIDATED_START);
+    }
+
+    private static final class Chunk {
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        private Chunk(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private class ParseTask extends RecursiveTask<Counts> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        private ParseTask(List<Chunk> chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (to - from == 1) {
+                try {
+                    return parse(chunks.get(from));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            int middle = (from + to) >>> 1;
+            ParseTask left = new ParseTask(chunks, from, middle);
+            ParseTask right = new ParseTask(chunks, middle, to);
+            left.fork();
+            Counts rightCounts = right.compute();
+            return left.join().merge(rightCounts);
+        }
+    }
+
+    private static Counts parse(Chunk chunk) throws IOException {
+        AgreementParser parser = new AgreementParser();
+        long windowStart = chunk.start;
+        while (windowStart < chunk.end) {
+            int length = (int) Math.min(MAX_WINDOW_SIZE, chunk.end - windowStart);
+            MappedByteBuffer window = chunk.channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+            boolean last = windowStart + length >= chunk.end;
+
+            int line = 0;
+            while (line < length) {
+                int lineEnd = indexOf(window, (byte) '\n', line, length);
+                if (lineEnd < 0) {
+                    if (!last && line > 0) {
+                        // Leave the incomplete line for the next window
+                        break;
+                    }
+                    lineEnd = length;
+                }
+                parser.line(window, line, lineEnd);
+                line = lineEnd + 1;
+            }
+            windowStart += Math.min(line, length);
+        }
+        parser.finish();
+        return parser.counts;
+    }
+
+    // Reads one chunk line by line, keeping the fields of the agreement it is inside
+    private static final class AgreementParser {
+
+        private static final int OUTSIDE = 0;
+        private static final int IN_AGREEMENT = 1;
+        private static final int IN_CONSOLIDATED = 2;
+
+        private final Counts counts = new Counts();
+        private final Map<Long, String> toolCodes = new HashMap<>();
+        private int state = OUTSIDE;
+        private String toolCode;
+        private long checkOutEpochDay;
+        private int quantity;
+        private int chargeDays;
+        private long finalChargeCents;
+
+        private void line(ByteBuffer buffer, int from, int to) {
+            if (to > from && buffer.get(to - 1) == '\r') {
+                to--;
+            }
+
+            if (state == IN_AGREEMENT) {
+                if (startsWith(buffer, from, to, TOOL_CODE)) {
+                    toolCode = toolCode(buffer, from + TOOL_CODE.length, to);
+                    return;
+                }
+                if (startsWith(buffer, from, to, CHECK_OUT_DATE)) {
+                    checkOutEpochDay = parseDate(buffer, from + CHECK_OUT_DATE.length, to);
+                    return;
+                }
+                if (startsWith(buffer, from, to, QUANTITY)) {
+                    quantity = (int) parseNumber(buffer, from + QUANTITY.length, to);
+                    return;
+                }
+                if (startsWith(buffer, from, to, CHARGE_DAYS)) {
+                    chargeDays = (int) parseNumber(buffer, from + CHARGE_DAYS.length, to);
+                    return;
+                }
+                if (startsWith(buffer, from, to, FINAL_CHARGE)) {
+                    finalChargeCents = parseCents(buffer, from + FINAL_CHARGE.length, to);
+                    return;
+                }
+                if (startsWith(buffer, from, to, AGREEMENT_END)) {
+                    finish();
+                    return;
+                }
+            } else if (state == IN_CONSOLIDATED) {
+                if (startsWith(buffer, from, to, AGREEMENT_END)) {
+                    state = OUTSIDE;
+                    return;
+                }
+            }
+
+            // The first character of a block's opening message is '*', so most lines are rejected here
+            if (indexOf(buffer, (byte) '*', from, to) < 0) {
+                return;
+            }
+            if (contains(buffer, from, to, AGREEMENT_START)) {
+                finish();
+                state = IN_AGREEMENT;
+                toolCode = null;
+                checkOutEpochDay = NOT_PARSED;
+                quantity = NOT_PARSED;
+                chargeDays = NOT_PARSED;
+                finalChargeCents = NOT_PARSED;
+            } else if (contains(buffer, from, to, CONSOLIDATED_START)) {
+                finish();
+                state = IN_CONSOLIDATED;
+            }
+        }
+
+        // Records the agreement being read, or counts it as skipped if any field is missing
+        private void finish() {
+            if (state == IN_AGREEMENT) {
+                if (toolCode == null || checkOutEpochDay == NOT_PARSED || quantity == NOT_PARSED
+                        || chargeDays == NOT_PARSED || finalChargeCents == NOT_PARSED) {
+                    counts.skipped++;
+                } else {
+                    counts.add(toolCode, checkOutEpochDay, quantity, chargeDays, finalChargeCents);
+                }
+            }
+            state = OUTSIDE;
+        }
+
+        // Tool codes repeat on almost every agreement, so each distinct one is decoded once per chunk
+        private String toolCode(ByteBuffer buffer, int from, int to) {
+            if (to - from < 1 || to - from > ToolCodeKey.MAX_LENGTH) {
+                return decode(buffer, from, to);
+            }
+            long key = 0;
+            for (int i = from; i < to; i++) {
+                key = (key << 8) | (buffer.get(i) & 0xFF);
+            }
+            String toolCode = toolCodes.get(key);
+            if (toolCode == null) {
+                toolCode = decode(buffer, from, to);
+                toolCodes.put(key, toolCode);
+            }
+            return toolCode;
+        }
+    }
+
+    // MM/dd/yy as written by AgreementTemplate, read back with the pattern's base year of 2000
+    private static long parseDate(ByteBuffer buffer, int from, int to) {
+        if (to - from != 8 || buffer.get(from + 2) != '/' || buffer.get(from + 5) != '/') {
+            return NOT_PARSED;
+        }
+        long month = parseNumber(buffer, from, from + 2);
+        long day = parseNumber(buffer, from + 3, from + 5);
+        long year = parseNumber(buffer, from + 6, from + 8);
+        if (month == NOT_PARSED || day == NOT_PARSED || year == NOT_PARSED) {
+            return NOT_PARSED;
+        }
+        try {
+            return LocalDate.of(2000 + (int) year, (int) month, (int) day).toEpochDay();
+        } catch (DateTimeException e) {
+            return NOT_PARSED;
+        }
+    }
+
+    private static long parseNumber(ByteBuffer buffer, int from, int to) {
+        if (from >= to || to - from > 18) {
+            return NOT_PARSED;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_PARSED;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // An amount with two decimals and any one-character decimal separator, followed by " **"
+    private static long parseCents(ByteBuffer buffer, int from, int to) {
+        int end = to;
+        while (end > from && (buffer.get(end - 1) == '*' || buffer.get(end - 1) == ' ')) {
+            end--;
+        }
+        if (end - from < 4) {
+            return NOT_PARSED;
+        }
+        long units = parseNumber(buffer, from, end - 3);
+        long cents = parseNumber(buffer, end - 2, end);
+        if (units == NOT_PARSED || cents == NOT_PARSED || units > Long.MAX_VALUE / 100 - 1) {
+            return NOT_PARSED;
+        }
+        return units * 100 + cents;
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int from, int to, byte[] prefix) {
+        if (to - from < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(from + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(ByteBuffer buffer, int from, int to, byte[] pattern) {
+        for (int i = from; i <= to - pattern.length; i++) {
+            if (buffer.get(i) == pattern[0] && startsWith(buffer, i, to, pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String decode(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(from + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Aggregates of one or more chunks, merged as the parse tasks join
+    private static final class Counts {
+
+        private final Map<String, Map<Long, Aggregate>> aggregates = new HashMap<>();
+        private long agreements;
+        private long skipped;
+
+        private void add(String toolCode, long checkOutEpochDay, int quantity, int chargeDays, long finalChargeCents) {
+            Map<Long, Aggregate> days = aggregates.computeIfAbsent(toolCode, code -> new HashMap<>());
+            Aggregate aggregate = days.get(checkOutEpochDay);
+            if (aggregate == null) {
+                aggregate = new Aggregate(toolCode, checkOutEpochDay);
+                days.put(checkOutEpochDay, aggregate);
+            }
+            aggregate.add(1, quantity, chargeDays, finalChargeCents);
+            agreements++;
+        }
+
+        private Counts merge(Counts other) {
+            for (Map.Entry<String, Map<Long, Aggregate>> tool : other.aggregates.entrySet()) {
+                Map<Long, Aggregate> days = aggregates.computeIfAbsent(tool.getKey(), code -> new HashMap<>());
+                for (Aggregate aggregate : tool.getValue().values()) {
+                    Aggregate existing = days.get(aggregate.checkOutEpochDay);
+                    if (existing == null) {
+                        days.put(aggregate.checkOutEpochDay, aggregate);
+                    } else {
+                        existing.add(aggregate.agreements, aggregate.quantity, aggregate.chargeDays, aggregate.finalChargeCents);
+                    }
+                }
+            }
+            agreements += other.agreements;
+            skipped += other.skipped;
+            return this;
+        }
+
+        private Result toResult(long bytes) {
+            List<Aggregate> sorted = new ArrayList<>();
+            for (Map<Long, Aggregate> days : aggregates.values()) {
+                sorted.addAll(days.values());
+            }
+            sorted.sort(Comparator.comparing(Aggregate::getToolCode).thenComparingLong(aggregate -> aggregate.checkOutEpochDay));
+            return new Result(Collections.unmodifiableList(sorted), agreements, skipped, bytes);
+        }
+    }
+
+    public static class Aggregate {
+
+        private final String toolCode;
+        private final long checkOutEpochDay;
+        private long agreements;
+        private long quantity;
+        private long chargeDays;
+        private long finalChargeCents;
+
+        private Aggregate(String toolCode, long checkOutEpochDay) {
+            this.toolCode = toolCode;
+            this.checkOutEpochDay = checkOutEpochDay;
+        }
+
+        private void add(long agreements, long quantity, long chargeDays, long finalChargeCents) {
+            this.agreements += agreements;
+            this.quantity += quantity;
+            this.chargeDays += chargeDays;
+            this.finalChargeCents = Math.addExact(this.finalChargeCents, finalChargeCents);
+        }
+
+        public String getToolCode() {
+            return toolCode;
+        }
+
+        public LocalDate getCheckOutDate() {
+            return LocalDate.ofEpochDay(checkOutEpochDay);
+        }
+
+        public long getAgreements() {
+            return agreements;
+        }
+
+        public long getQuantity() {
+            return quantity;
+        }
+
+        public long getChargeDays() {
+            return chargeDays;
+        }
+
+        public long getFinalChargeCents() {
+            return finalChargeCents;
+        }
+
+        public BigDecimal getFinalCharge() {
+            return FixedPointPricing.fromCents(finalChargeCents);
+        }
+    }
+
+    public static class Result {
+
+        private final List<Aggregate> aggregates;
+        private final long agreements;
+        private final long skipped;
+        private final long bytes;
+
+        private Result(List<Aggregate> aggregates, long agreements, long skipped, long bytes) {
+            this.aggregates = aggregates;
+            this.agreements = agreements;
+            this.skipped = skipped;
+            this.bytes = bytes;
+        }
+
+        // Sorted by tool code, then check out date
+        public List<Aggregate> getAggregates() {
+            return aggregates;
+        }
+
+        public long getAgreements() {
+            return agreements;
+        }
+
+        public long getSkipped() {
+            return skipped;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public void writeCsv(Appendable out) throws IOException {
+            out.append("toolCode,checkOutDate,agreements,quantity,chargeDays,finalCharge\n");
+            for (Aggregate aggregate : aggregates) {
+                out.append(aggregate.getToolCode()).append(',')
+                        .append(aggregate.getCheckOutDate().toString()).append(',')
+                        .append(Long.toString(aggregate.getAgreements())).append(',')
+                        .append(Long.toString(aggregate.getQuantity())).append(',')
+                        .append(Long.toString(aggregate.getChargeDays())).append(',')
+                        .append(aggregate.getFinalCharge().toPlainString()).append('\n');
+            }
+        }
+    }
+}
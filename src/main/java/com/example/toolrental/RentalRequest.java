@@ -0,0 +1,91 @@
+/**
+ * RentalRequest class for the Tool Rental System application.
+ *
+ * This class holds the inputs of one rental line before it is priced: the
+ * tool, the rental period, the discount and the quantity. Requests are
+ * validated when they are created, so a batch of requests can be sorted and
+ * priced together by ChargeProcessor.priceAll.
+ *
+ * Components:
+ * - tool: The tool being rented; ShoppingCart passes the interned Tool from
+ *   the ToolRegistry.
+ * - rentalDays, checkOutDate: The rental period.
+ * - discountPercent, quantity: Applied when pricing the rental.
+ *
+ * Example usage:
+ * - Created by ShoppingCart.addTool, or directly by batch repricing jobs,
+ *   and passed to ChargeProcessor.priceAll.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.time.LocalDate;
+
+public class RentalRequest {
+
+    private final Tool tool;
+    private final int rentalDays;
+    private final int discountPercent;
+    private final int quantity;
+    private final LocalDate checkOutDate;
+
+    public RentalRequest(String toolCode, String toolType, String toolBrand, int rentalDays, int discountPercent, int quantity, LocalDate checkOutDate) {
+        this(new Tool(toolCode, toolType, toolBrand), rentalDays, discountPercent, quantity, checkOutDate);
+    }
+
+    public RentalRequest(Tool tool, int rentalDays, int discountPercent, int quantity, LocalDate checkOutDate) {
+        if (rentalDays < 1) {
+            throw new IllegalArgumentException("Rental day count must be 1 or greater");
+        }
+        if (discountPercent < 0 || discountPercent > 100) {
+            throw new IllegalArgumentException("Discount percent must be between 0 and 100");
+        }
+
+        this.tool = tool;
+        this.rentalDays = rentalDays;
+        this.discountPercent = discountPercent;
+        this.quantity = quantity;
+        this.checkOutDate = checkOutDate;
+    }
+
+    public Tool getTool() {
+        return tool;
+    }
+
+    public String getToolCode() {
+        return tool.getToolCode();
+    }
+
+    public long getToolCodeKey() {
+        return tool.getToolCodeKey();
+    }
+
+    public String getToolType() {
+        return tool.getToolType();
+    }
+
+    public String getToolBrand() {
+        return tool.getToolBrand();
+    }
+
+    public int getRentalDays() {
+        return rentalDays;
+    }
+
+    public int getDiscountPercent() {
+        return discountPercent;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public LocalDate getDueDate() {
+        return checkOutDate.plusDays(rentalDays - 1);
+    }
+}
@@ -6,163 +6,149 @@
  * It also supports printing individual and consolidated rental agreements to
  * the console and logging the details for record-keeping.
  *
+ * When constructed with a QuoteCache, the cart is bound to the cache's
+ * ChargeProcessor snapshot at that moment: its lines are interned by that
+ * snapshot and checkout prices them on it, reusing cached agreements for
+ * identical inputs only while the cache still serves the same snapshot. A
+ * reload during the cart's lifetime therefore never mixes two sets of rules
+ * in one cart.
+ *
+ * Each cart line references the Tool interned by the ChargeProcessor's
+ * ToolRegistry rather than its own copies of the tool strings.
+ *
+ * The consolidated agreement is rendered by the precompiled
+ * AgreementTemplate.CONSOLIDATED_TOOL and CONSOLIDATED_SUMMARY layouts and
+ * streamed one tool at a time, so writing it to a Writer needs memory for
+ * one tool rather than for the whole document. One pass can feed several
+ * sinks, and agreements from an earlier checkout() can be passed in instead
+ * of being priced again.
+ *
+ * checkout(AgreementJournal) also persists the cart's agreements to the
+ * journal in one append.
+ *
  * Example usage:
  * - Used to add tools to a rental cart, calculate charges, and generate rental agreements.
+ * - cart.writeConsolidatedAgreement(cart.checkout(), fileWriter, System.out)
+ *   writes the consolidated agreement to a file and the console together.
  *
  * @version 1.0
  */
 package com.example.toolrental;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 
 public class ShoppingCart {
 
-    private final List<ToolRental> rentals = new ArrayList<>();
+    private final List<RentalRequest> rentals = new ArrayList<>();
     private final ChargeProcessor chargeProcessor;
+    private final QuoteCache quoteCache;
 
     public ShoppingCart(ChargeProcessor chargeProcessor) {
         this.chargeProcessor = chargeProcessor;
+        this.quoteCache = null;
     }
 
-    public void addTool(String toolCode, String toolType, String toolBrand, int rentalDays, int discountPercent, int quantity, LocalDate checkOutDate) {
-        if (rentalDays < 1) {
-            throw new IllegalArgumentException("Rental day count must be 1 or greater");
-        }
-        if (discountPercent < 0 || discountPercent > 100) {
-            throw new IllegalArgumentException("Discount percent must be between 0 and 100");
-        }
+    // Bound to the snapshot current now, for interning and pricing alike, even if the cache reloads later
+    public ShoppingCart(QuoteCache quoteCache) {
+        this.chargeProcessor = quoteCache.getChargeProcessor();
+        this.quoteCache = quoteCache;
+    }
 
-        rentals.add(new ToolRental(toolCode, toolType, toolBrand, rentalDays, discountPercent, quantity, checkOutDate));
+    public void addTool(String toolCode, String toolType, String toolBrand, int rentalDays, int discountPercent, int quantity, LocalDate checkOutDate) {
+        // Cart lines for the same tool share one interned Tool
+        Tool tool = chargeProcessor.getToolRegistry().intern(toolCode, toolType, toolBrand);
+        rentals.add(new RentalRequest(tool, rentalDays, discountPercent, quantity, checkOutDate));
     }
 
     public List<RentalAgreement> checkout() {
+        if (quoteCache == null) {
+            return chargeProcessor.priceAll(rentals);
+        }
+
         List<RentalAgreement> agreements = new ArrayList<>();
-        for (ToolRental rental : rentals) {
-            RentalAgreement agreement = new RentalAgreement(
+        for (RentalRequest rental : rentals) {
+            agreements.add(quoteCache.quote(
+                    chargeProcessor,
                     rental.getToolCode(),
                     rental.getToolType(),
                     rental.getToolBrand(),
                     rental.getRentalDays(),
                     rental.getCheckOutDate(),
                     rental.getDiscountPercent(),
-                    rental.getQuantity(),
-                    chargeProcessor
-            );
-            agreements.add(agreement);
+                    rental.getQuantity()
+            ));
         }
         return agreements;
     }
 
+    // Checks out and journals the whole cart with one sequential write
+    public List<RentalAgreement> checkout(AgreementJournal journal) throws IOException {
+        List<RentalAgreement> agreements = checkout();
+        journal.append(agreements);
+        return agreements;
+    }
+
     public void printConsolidatedAgreement() {
-        if (rentals.isEmpty()) {
+        printConsolidatedAgreement(checkout());
+    }
+
+    // Prints agreements already returned by checkout(), so they are not priced a second time
+    public void printConsolidatedAgreement(List<RentalAgreement> agreements) {
+        if (agreements.isEmpty()) {
             System.out.println("No tools in the cart.");
             return;
         }
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yy");
-
+        // The console gets each tool as it is rendered; the log keeps the document as one record
         StringBuilder agreement = new StringBuilder();
-        agreement.append("\n********** Consolidated Rental Agreement **********\n");
-
-        BigDecimal totalPreDiscountCharge = BigDecimal.ZERO;
-        BigDecimal totalDiscountAmount = BigDecimal.ZERO;
-        BigDecimal totalFinalCharge = BigDecimal.ZERO;
-
-        List<RentalAgreement> agreements = checkout();
-        for (int i = 0; i < agreements.size(); i++) {
-            RentalAgreement rentalAgreement = agreements.get(i);
-            agreement.append(String.format("\n---------- Tool %d Information (%s - %s) ----------%n", i + 1, rentalAgreement.getToolCode(), rentalAgreement.getToolType()));
-            agreement.append(String.format("Tool code: %s%n", rentalAgreement.getToolCode()));
-            agreement.append(String.format("Tool type: %s%n", rentalAgreement.getToolType()));
-            agreement.append(String.format("Tool brand: %s%n", rentalAgreement.getToolBrand()));
-            agreement.append(String.format("Rental days: %d%n", rentalAgreement.getRentalDays()));
-            agreement.append(String.format("Check out date: %s%n", rentalAgreement.getCheckOutDate().format(formatter)));
-            agreement.append(String.format("Due date: %s%n", rentalAgreement.getDueDate().plusDays(1).format(formatter)));
-            agreement.append("\n");
-            agreement.append("------------ Charges -----------------\n");
-            agreement.append(String.format("Daily rental charge per tool: $%.2f%n", rentalAgreement.getDailyRentalCharge()));
-            agreement.append(String.format("Quantity: %d%n", rentalAgreement.getQuantity()));
-            agreement.append(String.format("Charge days: %d%n", rentalAgreement.getChargeDays()));
-            agreement.append(String.format("Pre-discount charge: $%.2f%n", rentalAgreement.getPreDiscountCharge()));
-            agreement.append(String.format("Discount percent: %d%%%n", rentalAgreement.getDiscountPercent()));
-            agreement.append(String.format("Discount amount: $%.2f%n", rentalAgreement.getDiscountAmount()));
-            agreement.append(String.format("Final charge: $%.2f%n", rentalAgreement.getFinalCharge()));
-
-            totalPreDiscountCharge = totalPreDiscountCharge.add(rentalAgreement.getPreDiscountCharge());
-            totalDiscountAmount = totalDiscountAmount.add(rentalAgreement.getDiscountAmount());
-            totalFinalCharge = totalFinalCharge.add(rentalAgreement.getFinalCharge());
-
-            if (i < agreements.size() - 1) {
-                agreement.append("\n------------------------------\n");
-            }
+        try {
+            writeConsolidatedAgreement(agreements, System.out, agreement);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-
-        agreement.append("\n");
-        agreement.append("\n============== Summary ==============\n");
-        agreement.append(String.format("Total pre-discount charge: $%.2f%n", totalPreDiscountCharge));
-        agreement.append(String.format("Total discount amount: $%.2f%n", totalDiscountAmount));
-        agreement.append(String.format("Total final charge: $%.2f%n", totalFinalCharge));
-        agreement.append("**************************************\n");
-
-        // Print to console
-        System.out.println(agreement.toString());
+        System.out.println();
 
         // Log the agreement
         Logger logger = LoggerConfig.getLogger();
         logger.info(agreement.toString());
     }
 
-    private static class ToolRental {
-
-        private final String toolCode;
-        private final String toolType;
-        private final String toolBrand;
-        private final int rentalDays;
-        private final int discountPercent;
-        private final int quantity;
-        private final LocalDate checkOutDate;
-
-        public ToolRental(String toolCode, String toolType, String toolBrand, int rentalDays, int discountPercent, int quantity, LocalDate checkOutDate) {
-            this.toolCode = toolCode;
-            this.toolType = toolType;
-            this.toolBrand = toolBrand;
-            this.rentalDays = rentalDays;
-            this.discountPercent = discountPercent;
-            this.quantity = quantity;
-            this.checkOutDate = checkOutDate;
+    // Streams the consolidated agreement to every sink in one pass, one tool at a time, and returns the totals
+    public AgreementTemplate.Totals writeConsolidatedAgreement(List<RentalAgreement> agreements, Appendable... sinks) throws IOException {
+        AgreementTemplate.Totals totals = new AgreementTemplate.Totals();
+        StringBuilder buffer = AgreementTemplate.buffer();
+        if (agreements.isEmpty()) {
+            buffer.append("No tools in the cart.").append(System.lineSeparator());
+            write(buffer, sinks);
+            return totals;
         }
 
-        public String getToolCode() {
-            return toolCode;
-        }
-
-        public String getToolType() {
-            return toolType;
-        }
-
-        public String getToolBrand() {
-            return toolBrand;
-        }
-
-        public int getRentalDays() {
-            return rentalDays;
-        }
+        buffer.append("\n********** Consolidated Rental Agreement **********\n");
+        for (int i = 0; i < agreements.size(); i++) {
+            RentalAgreement rentalAgreement = agreements.get(i);
+            if (i > 0) {
+                buffer.append("\n------------------------------\n");
+            }
+            AgreementTemplate.CONSOLIDATED_TOOL.render(buffer, rentalAgreement, i + 1, null);
+            totals.add(rentalAgreement);
 
-        public int getDiscountPercent() {
-            return discountPercent;
+            write(buffer, sinks);
         }
 
-        public int getQuantity() {
-            return quantity;
-        }
+        AgreementTemplate.CONSOLIDATED_SUMMARY.render(buffer, null, 0, totals);
+        write(buffer, sinks);
+        return totals;
+    }
 
-        public LocalDate getCheckOutDate() {
-            return checkOutDate;
+    private static void write(StringBuilder buffer, Appendable[] sinks) throws IOException {
+        for (Appendable sink : sinks) {
+            sink.append(buffer);
         }
+        buffer.setLength(0);
     }
 }
@@ -4,6 +4,10 @@
  * This class holds information about a tool, including its code, type, and brand.
  * It is used to manage tool details within the rental system.
  *
+ * Tools are immutable and compare by value. ToolRegistry interns them so that
+ * charge rules, cart lines and agreements for the same tool share one
+ * instance, and the packed tool code is computed once per instance.
+ *
  * Example usage:
  * - Used to create tool instances with specific details such as tool code, type, and brand.
  *
@@ -11,17 +15,21 @@
  */
 package com.example.toolrental;
 
+import java.util.Objects;
+
 public class Tool {
 
     private final String toolCode;
     private final String toolType;
     private final String toolBrand;
+    private final long toolCodeKey;
 
     // Constructor
     public Tool(String toolCode, String toolType, String toolBrand) {
         this.toolCode = toolCode;
         this.toolType = toolType;
         this.toolBrand = toolBrand;
+        this.toolCodeKey = ToolCodeKey.pack(toolCode);
     }
 
     // Getters and Setters
@@ -36,4 +44,27 @@ public class Tool {
     public String getToolBrand() {
         return toolBrand;
     }
+
+    public long getToolCodeKey() {
+        return toolCodeKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Tool)) {
+            return false;
+        }
+        Tool other = (Tool) o;
+        return Objects.equals(toolCode, other.toolCode)
+                && Objects.equals(toolType, other.toolType)
+                && Objects.equals(toolBrand, other.toolBrand);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(toolCode, toolType, toolBrand);
+    }
 }
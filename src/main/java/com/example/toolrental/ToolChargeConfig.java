@@ -4,6 +4,10 @@
  * This class holds the configuration for tool charges, including weekday, weekend, and holiday charges.
  * It is used to manage and load tool charge configurations from external sources.
  *
+ * A tool may also list ratePeriods, each with an effectiveDate (yyyy-MM-dd) and its own
+ * weekday, weekend, and holiday charges. The tool's own charges apply before the earliest
+ * period, and each period applies from its effective date until the next one.
+ *
  * Example usage:
  * - Used to store and retrieve tool charge details such as tool code, type, brand, and charges.
  *
@@ -12,6 +16,7 @@
 package com.example.toolrental;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ToolChargeConfig {
@@ -34,6 +39,7 @@ public class ToolChargeConfig {
         private BigDecimal weekdayCharge;
         private BigDecimal weekendCharge;
         private BigDecimal holidayCharge;
+        private List<RatePeriod> ratePeriods = new ArrayList<>();
 
         public String getToolCode() {
             return toolCode;
@@ -82,5 +88,53 @@ public class ToolChargeConfig {
         public void setHolidayCharge(BigDecimal holidayCharge) {
             this.holidayCharge = holidayCharge;
         }
+
+        public List<RatePeriod> getRatePeriods() {
+            return ratePeriods;
+        }
+
+        public void setRatePeriods(List<RatePeriod> ratePeriods) {
+            this.ratePeriods = ratePeriods;
+        }
+    }
+
+    public static class RatePeriod {
+
+        private String effectiveDate;
+        private BigDecimal weekdayCharge;
+        private BigDecimal weekendCharge;
+        private BigDecimal holidayCharge;
+
+        public String getEffectiveDate() {
+            return effectiveDate;
+        }
+
+        public void setEffectiveDate(String effectiveDate) {
+            this.effectiveDate = effectiveDate;
+        }
+
+        public BigDecimal getWeekdayCharge() {
+            return weekdayCharge;
+        }
+
+        public void setWeekdayCharge(BigDecimal weekdayCharge) {
+            this.weekdayCharge = weekdayCharge;
+        }
+
+        public BigDecimal getWeekendCharge() {
+            return weekendCharge;
+        }
+
+        public void setWeekendCharge(BigDecimal weekendCharge) {
+            this.weekendCharge = weekendCharge;
+        }
+
+        public BigDecimal getHolidayCharge() {
+            return holidayCharge;
+        }
+
+        public void setHolidayCharge(BigDecimal holidayCharge) {
+            this.holidayCharge = holidayCharge;
+        }
     }
 }
@@ -0,0 +1,63 @@
+/**
+ * ToolCodeKey class for the Tool Rental System application.
+ *
+ * This class packs a tool code of up to eight ASCII characters into a single
+ * long, one byte per character, so tool codes such as LADW or CHNS can be
+ * compared and hashed as primitives instead of Strings.
+ *
+ * Key functionalities:
+ * - Packing a conforming tool code into a non-zero long.
+ * - Unpacking a key back into its tool code.
+ * - Reporting NONE for codes that cannot be packed (empty, longer than eight
+ *   characters, or containing non-ASCII or NUL characters).
+ *
+ * Example usage:
+ * - Used by ToolCodeRuleMap and ShoppingCart to resolve charge rules without
+ *   hashing Strings on the hot path.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+public final class ToolCodeKey {
+
+    // Returned for tool codes that do not fit in a key
+    public static final long NONE = 0L;
+
+    public static final int MAX_LENGTH = 8;
+
+    private ToolCodeKey() {
+    }
+
+    public static long pack(String toolCode) {
+        if (toolCode == null || toolCode.isEmpty() || toolCode.length() > MAX_LENGTH) {
+            return NONE;
+        }
+
+        long key = 0L;
+        for (int i = 0; i < toolCode.length(); i++) {
+            char c = toolCode.charAt(i);
+            if (c == 0 || c > 0x7F) {
+                return NONE;
+            }
+            key = (key << 8) | c;
+        }
+        return key;
+    }
+
+    public static String unpack(long key) {
+        if (key == NONE) {
+            throw new IllegalArgumentException("Not a packed tool code: " + key);
+        }
+
+        char[] chars = new char[MAX_LENGTH];
+        int length = 0;
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            int c = (int) (key >>> shift) & 0xFF;
+            if (c != 0) {
+                chars[length++] = (char) c;
+            }
+        }
+        return new String(chars, 0, length);
+    }
+}
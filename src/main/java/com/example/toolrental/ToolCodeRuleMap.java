@@ -0,0 +1,107 @@
+/**
+ * ToolCodeRuleMap class for the Tool Rental System application.
+ *
+ * This class is an immutable map from tool code to ChargeRule. Tool codes that
+ * fit in a ToolCodeKey are stored in a primitive open-addressing table keyed
+ * by the packed long, so lookups neither box nor hash Strings. Codes that
+ * cannot be packed are kept in a regular HashMap as a fallback.
+ *
+ * Key functionalities:
+ * - Building the table once from a list of charge rules; the first rule for a
+ *   tool code wins.
+ * - Looking up a rule by packed key or by tool code.
+ *
+ * Components:
+ * - keys/rules: Parallel arrays with linear probing and a load factor of at most one half.
+ * - fallback: Rules whose tool codes cannot be packed.
+ *
+ * Example usage:
+ * - Used by ChargeProcessor to resolve the ChargeRule for each rental.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class ToolCodeRuleMap {
+
+    private final long[] keys;
+    private final ChargeRule[] rules;
+    private final int shift;
+    private final int mask;
+    private final Map<String, ChargeRule> fallback = new HashMap<>();
+    private int size;
+
+    public ToolCodeRuleMap(List<ChargeRule> chargeRules) {
+        int capacity = 2;
+        while (capacity < chargeRules.size() * 2) {
+            capacity <<= 1;
+        }
+
+        this.keys = new long[capacity];
+        this.rules = new ChargeRule[capacity];
+        this.shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        this.mask = capacity - 1;
+
+        for (ChargeRule rule : chargeRules) {
+            long key = ToolCodeKey.pack(rule.getToolCode());
+            if (key != ToolCodeKey.NONE) {
+                insert(key, rule);
+            } else if (rule.getToolCode() != null && !fallback.containsKey(rule.getToolCode())) {
+                fallback.put(rule.getToolCode(), rule);
+                size++;
+            }
+        }
+    }
+
+    private void insert(long key, ChargeRule rule) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == ToolCodeKey.NONE) {
+                keys[slot] = key;
+                rules[slot] = rule;
+                size++;
+                return;
+            }
+            if (keys[slot] == key) {
+                // Keep the first rule for a tool code
+                return;
+            }
+        }
+    }
+
+    public ChargeRule get(long key) {
+        if (key == ToolCodeKey.NONE) {
+            return null;
+        }
+
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long candidate = keys[slot];
+            if (candidate == key) {
+                return rules[slot];
+            }
+            if (candidate == ToolCodeKey.NONE) {
+                return null;
+            }
+        }
+    }
+
+    public ChargeRule get(String toolCode) {
+        long key = ToolCodeKey.pack(toolCode);
+        if (key != ToolCodeKey.NONE) {
+            return get(key);
+        }
+        return toolCode == null ? null : fallback.get(toolCode);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        // Fibonacci hashing spreads the packed ASCII bytes over the table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+}
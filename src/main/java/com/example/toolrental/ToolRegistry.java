@@ -0,0 +1,118 @@
+/**
+ * ToolRegistry class for the Tool Rental System application.
+ *
+ * This class interns Tool descriptors so that every charge rule, cart line
+ * and rental agreement for the same tool references one shared Tool instead
+ * of its own copies of the code, type and brand strings. Interned tools can
+ * be compared by identity.
+ *
+ * Key functionalities:
+ * - Registering the canonical Tool of each configured tool code.
+ * - Interning a tool code, type and brand, returning the canonical Tool when
+ *   they match it without allocating anything.
+ * - Interning variants whose type or brand differs from the canonical Tool,
+ *   such as a request that omits the brand, so repeats of a variant share
+ *   one instance too. Variant strings that match the canonical ones are
+ *   replaced by the canonical strings.
+ *
+ * Components:
+ * - toolsByCode: The canonical Tool for each registered tool code.
+ * - variants: Interned variants, bounded by maxVariants so that untrusted
+ *   input cannot grow the registry without limit; past the bound, variants
+ *   are returned without being interned.
+ *
+ * Example usage:
+ * - ChargeProcessor registers the Tool of every ChargeRule, and ShoppingCart
+ *   and RentalAgreement intern their tools through ChargeProcessor.getToolRegistry().
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ToolRegistry {
+
+    public static final int DEFAULT_MAX_VARIANTS = 10000;
+
+    private final ConcurrentHashMap<String, Tool> toolsByCode = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Tool, Tool> variants = new ConcurrentHashMap<>();
+    private final int maxVariants;
+
+    public ToolRegistry() {
+        this(DEFAULT_MAX_VARIANTS);
+    }
+
+    public ToolRegistry(int maxVariants) {
+        if (maxVariants < 0) {
+            throw new IllegalArgumentException("Maximum variants must be 0 or greater");
+        }
+        this.maxVariants = maxVariants;
+    }
+
+    // The first tool registered for a code stays canonical, matching the first-rule-wins lookup in ChargeProcessor
+    public Tool register(Tool tool) {
+        if (tool.getToolCode() == null) {
+            return tool;
+        }
+        Tool existing = toolsByCode.putIfAbsent(tool.getToolCode(), tool);
+        return existing != null ? existing : tool;
+    }
+
+    public Tool getCanonical(String toolCode) {
+        return toolCode != null ? toolsByCode.get(toolCode) : null;
+    }
+
+    public Tool intern(String toolCode, String toolType, String toolBrand) {
+        Tool canonical = getCanonical(toolCode);
+        if (canonical != null && Objects.equals(canonical.getToolType(), toolType) && Objects.equals(canonical.getToolBrand(), toolBrand)) {
+            return canonical;
+        }
+        return internVariant(canonical, new Tool(toolCode, toolType, toolBrand));
+    }
+
+    public Tool intern(Tool tool) {
+        Tool canonical = getCanonical(tool.getToolCode());
+        if (canonical == tool) {
+            return tool;
+        }
+        if (canonical != null && canonical.equals(tool)) {
+            return canonical;
+        }
+        return internVariant(canonical, tool);
+    }
+
+    private Tool internVariant(Tool canonical, Tool tool) {
+        Tool variant = variants.get(tool);
+        if (variant != null) {
+            return variant;
+        }
+        if (variants.size() >= maxVariants) {
+            return tool;
+        }
+
+        // Share whichever strings match the canonical tool before keeping the variant
+        if (canonical != null) {
+            tool = new Tool(
+                    canonical.getToolCode(),
+                    share(tool.getToolType(), canonical.getToolType()),
+                    share(tool.getToolBrand(), canonical.getToolBrand())
+            );
+        }
+        Tool existing = variants.putIfAbsent(tool, tool);
+        return existing != null ? existing : tool;
+    }
+
+    private static String share(String value, String canonicalValue) {
+        return Objects.equals(value, canonicalValue) ? canonicalValue : value;
+    }
+
+    public int size() {
+        return toolsByCode.size();
+    }
+
+    public int getVariantCount() {
+        return variants.size();
+    }
+}
@@ -0,0 +1,242 @@
+/**
+ * Test class for AgreementJournal in the Tool Rental System application.
+ *
+ * This class contains unit tests for the AgreementJournal class, ensuring
+ * that journaled agreements read back unchanged by id across restarts and
+ * segment rolls, and that recovery after a crash keeps every complete cart
+ * and truncates a torn one.
+ *
+ * Test cases:
+ * - Reading agreements back by id, before and after reopening.
+ * - Rolling segments and reading across them.
+ * - Truncating a torn tail and a cart with a corrupt record on reopen.
+ * - Rejecting a cart that cannot be journaled without writing any of it.
+ * - Journaling a whole cart from ShoppingCart.checkout.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AgreementJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private HolidayProcessor holidayProcessor;
+    private ChargeProcessor chargeProcessor;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+        chargeProcessor = new ChargeProcessor(ChargeProcessorConfig.getChargeRules(ConfigFileType.JSON, "tools", holidayProcessor), holidayProcessor);
+    }
+
+    @Test
+    public void testReadBackById() throws IOException {
+        List<RentalAgreement> cart = agreements(3);
+        try (AgreementJournal journal = new AgreementJournal(directory)) {
+            assertEquals(1, journal.getNextId());
+            assertEquals(1, journal.append(cart));
+            assertEquals(4, journal.append(agreements(2)));
+            assertMatches(cart.get(2), journal.read(3));
+            assertNull(journal.read(0));
+            assertNull(journal.read(6));
+        }
+
+        try (AgreementJournal journal = new AgreementJournal(directory)) {
+            assertEquals(6, journal.getNextId());
+            for (int i = 0; i < cart.size(); i++) {
+                AgreementJournal.Record record = journal.read(i + 1);
+                assertEquals(i + 1, record.getId());
+                assertMatches(cart.get(i), record);
+            }
+            assertEquals(6, journal.append(agreements(1)));
+        }
+    }
+
+    @Test
+    public void testRollsSegments() throws IOException {
+        int segmentSize = AgreementJournal.HEADER_SIZE + 5 * AgreementJournal.RECORD_SIZE;
+        List<RentalAgreement> journaled = new ArrayList<>();
+        try (AgreementJournal journal = new AgreementJournal(directory, segmentSize, false)) {
+            for (int i = 0; i < 10; i++) {
+                List<RentalAgreement> cart = agreements(1 + i % 3);
+                assertEquals(journaled.size() + 1, journal.append(cart));
+                journaled.addAll(cart);
+            }
+            assertThrows(IllegalArgumentException.class, () -> journal.append(agreements(6)));
+            assertEquals(journaled.size() + 1, journal.getNextId());
+        }
+
+        try (AgreementJournal journal = new AgreementJournal(directory, segmentSize, false)) {
+            assertEquals(segmentFiles().size(), journal.getSegmentCount());
+            assertEquals(journaled.size() + 1, journal.getNextId());
+            for (int i = 0; i < journaled.size(); i++) {
+                assertMatches(journaled.get(i), journal.read(i + 1));
+            }
+        }
+    }
+
+    @Test
+    public void testTruncatesTornTail() throws IOException {
+        try (AgreementJournal journal = new AgreementJournal(directory)) {
+            journal.append(agreements(2));
+            journal.append(agreements(3));
+        }
+
+        // A crash part way through the last record of the second cart
+        Path segment = segmentFiles().get(0);
+        long secondCartEnd = AgreementJournal.HEADER_SIZE + 5L * AgreementJournal.RECORD_SIZE;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(secondCartEnd - 10);
+        }
+
+        try (AgreementJournal journal = new AgreementJournal(directory)) {
+            assertEquals(3, journal.getNextId());
+            assertNotNull(journal.read(2));
+            assertNull(journal.read(3));
+            assertEquals(3, journal.append(agreements(1)));
+        }
+
+        // The torn bytes past the new record were cleared, so nothing of the old second cart survives
+        long newEnd = AgreementJournal.HEADER_SIZE + 3L * AgreementJournal.RECORD_SIZE;
+        assertEquals(0, countNonZeroBytes(segment, newEnd, secondCartEnd));
+        try (AgreementJournal journal = new AgreementJournal(directory)) {
+            assertEquals(4, journal.getNextId());
+            assertNull(journal.read(4));
+        }
+    }
+
+    @Test
+    public void testTruncatesCorruptCart() throws IOException {
+        List<RentalAgreement> first = agreements(2);
+        try (AgreementJournal journal = new AgreementJournal(directory)) {
+            journal.append(first);
+            journal.append(agreements(3));
+            journal.append(agreements(1));
+        }
+
+        // Flip a byte in the middle record of the second cart
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = AgreementJournal.HEADER_SIZE + 3L * AgreementJournal.RECORD_SIZE + 20;
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, position);
+            b.put(0, (byte) (b.get(0) ^ 0x01));
+            b.rewind();
+            channel.write(b, position);
+        }
+
+        try (AgreementJournal journal = new AgreementJournal(directory)) {
+            assertEquals(3, journal.getNextId());
+            assertMatches(first.get(1), journal.read(2));
+            assertNull(journal.read(4));
+        }
+    }
+
+    @Test
+    public void testRejectsCartBeforeWriting() throws IOException {
+        ChargeRule longCode = new ChargeRule("LONGTOOLCODE", "Ladder", "Werner", BigDecimal.valueOf(1.99), BigDecimal.valueOf(1.99), BigDecimal.ZERO, holidayProcessor);
+        ChargeProcessor processor = new ChargeProcessor(Arrays.asList(longCode, chargeProcessor.findRule("LADW")), holidayProcessor);
+        List<RentalAgreement> cart = Arrays.asList(
+                new RentalAgreement("LADW", "Ladder", "Werner", 3, LocalDate.of(2024, 7, 2), 0, 1, processor),
+                new RentalAgreement("LONGTOOLCODE", "Ladder", "Werner", 3, LocalDate.of(2024, 7, 2), 0, 1, processor)
+        );
+
+        try (AgreementJournal journal = new AgreementJournal(directory)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> journal.append(cart));
+            assertEquals("Tool code cannot be journaled: LONGTOOLCODE", e.getMessage());
+            assertEquals(1, journal.getNextId());
+            assertEquals(1, journal.append(Collections.singletonList(cart.get(0))));
+            assertThrows(IllegalStateException.class, () -> {
+                journal.close();
+                journal.read(1);
+            });
+        }
+    }
+
+    @Test
+    public void testCheckoutJournalsCart() throws IOException {
+        ShoppingCart cart = new ShoppingCart(chargeProcessor);
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+        cart.addTool("LADW", "Ladder", "Werner", 3, 10, 1, checkOutDate);
+        cart.addTool("CHNS", "Chainsaw", "Stihl", 5, 0, 2, checkOutDate);
+        cart.addTool("JAKR", "Jackhammer", "Ridgid", 4, 20, 1, checkOutDate);
+
+        try (AgreementJournal journal = new AgreementJournal(directory)) {
+            List<RentalAgreement> agreements = cart.checkout(journal);
+            assertEquals(4, journal.getNextId());
+            for (int i = 0; i < agreements.size(); i++) {
+                assertMatches(agreements.get(i), journal.read(i + 1));
+            }
+        }
+    }
+
+    private List<RentalAgreement> agreements(int count) {
+        List<String> toolCodes = Arrays.asList("LADW", "CHNS", "JAKD", "JAKR");
+        List<RentalAgreement> agreements = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            agreements.add(new RentalAgreement(toolCodes.get(i % 4), null, null, 2 + i, LocalDate.of(2024, 7, 1).plusDays(i), 10 * i, 1 + i, chargeProcessor));
+        }
+        return agreements;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    // The length of the segment up to its last non-zero byte, ignoring preallocated space
+    // Not measured by trimming trailing zeros, since the last byte of a record (its CRC) can itself be zero
+    private static int countNonZeroBytes(Path segment, long from, long to) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment);
+        int count = 0;
+        for (long i = from; i < to && i < bytes.length; i++) {
+            if (bytes[(int) i] != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void assertMatches(RentalAgreement agreement, AgreementJournal.Record record) {
+        assertNotNull(record);
+        assertEquals(agreement.getToolCode(), record.getToolCode());
+        assertEquals(agreement.getCheckOutDate(), record.getCheckOutDate());
+        assertEquals(agreement.getDueDate(), record.getDueDate());
+        assertEquals(agreement.getRentalDays(), record.getRentalDays());
+        assertEquals(agreement.getChargeDays(), record.getChargeDays());
+        assertEquals(agreement.getDiscountPercent(), record.getDiscountPercent());
+        assertEquals(agreement.getQuantity(), record.getQuantity());
+        assertEquals(FixedPointPricing.toCents(agreement.getDailyRentalCharge()), record.getDailyRentalChargeCents());
+        assertEquals(FixedPointPricing.toCents(agreement.getPreDiscountCharge()), record.getPreDiscountChargeCents());
+        assertEquals(FixedPointPricing.toCents(agreement.getDiscountAmount()), record.getDiscountAmountCents());
+        assertEquals(FixedPointPricing.toCents(agreement.getFinalCharge()), record.getFinalChargeCents());
+    }
+}
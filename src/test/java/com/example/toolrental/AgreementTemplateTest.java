@@ -0,0 +1,259 @@
+/**
+ * Test class for AgreementTemplate in the Tool Rental System application.
+ *
+ * This class contains unit tests for the AgreementTemplate class, ensuring
+ * that rendered agreements are character for character what the
+ * String.format calls they replaced produced, in the default locale and in
+ * locales with a different decimal separator or different digits.
+ *
+ * Test cases:
+ * - Matching String.format for single agreements across tools and dates.
+ * - Matching String.format for the consolidated agreement of a cart.
+ * - Matching %.2f, %d and MM/dd/yy for edge values.
+ * - Following the default FORMAT locale.
+ * - Listing each rate period of a rental that crosses a rate change.
+ * - Rejecting unknown and unclosed placeholders.
+ * - Adding up Totals agreement by agreement and by merging partial Totals.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AgreementTemplateTest {
+
+    private ChargeProcessor chargeProcessor;
+    private Locale previousLocale;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        previousLocale = Locale.getDefault(Locale.Category.FORMAT);
+
+        HolidayProcessor holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+        chargeProcessor = new ChargeProcessor(ChargeProcessorConfig.getChargeRules(ConfigFileType.JSON, "tools", holidayProcessor), holidayProcessor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Locale.setDefault(Locale.Category.FORMAT, previousLocale);
+    }
+
+    @Test
+    public void testMatchesAgreementFormat() {
+        for (RentalAgreement agreement : agreements()) {
+            for (int number : new int[]{1, 9, 10, 12345}) {
+                assertEquals(formatAgreement(agreement, number), AgreementTemplate.AGREEMENT.render(agreement, number));
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesConsolidatedFormat() {
+        ShoppingCart cart = new ShoppingCart(chargeProcessor);
+        cart.addTool("JAKR", "Jackhammer", "Ridgid", 9, 0, 1, LocalDate.of(2015, 7, 2));
+        cart.addTool("LADW", "Ladder", "Werner", 3, 10, 2, LocalDate.of(2020, 7, 2));
+        cart.addTool("CHNS", "Chainsaw", "Stihl", 5, 25, 3, LocalDate.of(2015, 7, 2));
+
+        assertEquals(formatConsolidated(cart.checkout()) + System.lineSeparator(), printConsolidated(cart));
+    }
+
+    @Test
+    public void testEdgeValues() {
+        AgreementTemplate.NumberSymbols symbols = new AgreementTemplate.NumberSymbols(Locale.US);
+        for (String value : Arrays.asList("0", "0.005", "0.004", "-0.001", "-1.235", "1.995", "9.999", "100", "0.1", "123456789.125", "99999999999999999999.995")) {
+            StringBuilder out = new StringBuilder();
+            AgreementTemplate.appendMoney(out, new BigDecimal(value), symbols);
+            assertEquals(String.format(Locale.US, "%.2f", new BigDecimal(value)), out.toString(), value);
+        }
+        for (long value : new long[]{0, 7, -7, 10, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE}) {
+            StringBuilder out = new StringBuilder();
+            AgreementTemplate.appendInteger(out, value, symbols);
+            assertEquals(String.format(Locale.US, "%d", value), out.toString());
+        }
+
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yy");
+        for (LocalDate date : Arrays.asList(LocalDate.of(2024, 7, 4), LocalDate.of(2000, 1, 1), LocalDate.of(1999, 12, 31), LocalDate.of(2105, 10, 9), LocalDate.of(5, 3, 1))) {
+            StringBuilder out = new StringBuilder();
+            AgreementTemplate.appendDate(out, date);
+            assertEquals(date.format(formatter), out.toString());
+        }
+    }
+
+    @Test
+    public void testFollowsDefaultLocale() {
+        List<RentalAgreement> agreements = agreements();
+        for (Locale locale : Arrays.asList(Locale.GERMANY, Locale.forLanguageTag("th-TH-u-nu-thai"), Locale.US)) {
+            Locale.setDefault(Locale.Category.FORMAT, locale);
+            for (RentalAgreement agreement : agreements) {
+                assertEquals(formatAgreement(agreement, 3), AgreementTemplate.AGREEMENT.render(agreement, 3), locale.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testRatePeriodCharges() {
+        // The ladder goes up from 1.99 to 2.49 a day on July 3, 2024
+        HolidayProcessor holidayProcessor = chargeProcessor.getHolidayProcessor();
+        ChargeRule.RatePeriod increase = new ChargeRule.RatePeriod(LocalDate.of(2024, 7, 3), new BigDecimal("2.49"), new BigDecimal("2.49"), BigDecimal.ZERO);
+        ChargeRule ladderRule = new ChargeRule(new Tool("LADW", "Ladder", "Werner"), new BigDecimal("1.99"), new BigDecimal("1.99"), BigDecimal.ZERO, Arrays.asList(increase), holidayProcessor);
+        ChargeProcessor processor = new ChargeProcessor(Arrays.asList(ladderRule), holidayProcessor);
+        Locale.setDefault(Locale.Category.FORMAT, Locale.US);
+
+        RentalAgreement agreement = new RentalAgreement("LADW", "Ladder", "Werner", 5, LocalDate.of(2024, 7, 1), 10, 2, processor);
+        String n = System.lineSeparator();
+        String charges = "Daily rental charge per tool: $1.99" + n
+                + "Rate from 07/01/24: $1.99 x 2 charge days" + n
+                + "Rate from 07/03/24: $2.49 x 2 charge days" + n
+                + "Quantity: 2" + n
+                + "Charge days: 4" + n
+                + "Pre-discount charge: $17.92" + n;
+        assertTrue(AgreementTemplate.AGREEMENT.render(agreement, 1).contains(charges));
+
+        StringBuilder tool = new StringBuilder();
+        AgreementTemplate.CONSOLIDATED_TOOL.render(tool, agreement, 1, null);
+        assertTrue(tool.toString().contains(charges));
+    }
+
+    @Test
+    public void testInvalidLayout() {
+        assertThrows(IllegalArgumentException.class, () -> AgreementTemplate.compile("Tool: {toolName}{n}"));
+        assertThrows(IllegalArgumentException.class, () -> AgreementTemplate.compile("Tool: {toolCode"));
+        assertEquals("Tool: LADW (Ladder)" + System.lineSeparator(), AgreementTemplate.compile("Tool: {toolCode} ({toolType}){n}").render(new RentalAgreement("LADW", "Ladder", "Werner", 3, LocalDate.of(2024, 7, 2), 0, 1, chargeProcessor), 1));
+    }
+
+    @Test
+    public void testTotals() {
+        List<RentalAgreement> agreements = agreements();
+        AgreementTemplate.Totals all = new AgreementTemplate.Totals();
+        AgreementTemplate.Totals first = new AgreementTemplate.Totals();
+        AgreementTemplate.Totals second = new AgreementTemplate.Totals();
+        BigDecimal finalCharge = BigDecimal.ZERO;
+        for (int i = 0; i < agreements.size(); i++) {
+            all.add(agreements.get(i));
+            (i < agreements.size() / 2 ? first : second).add(agreements.get(i));
+            finalCharge = finalCharge.add(agreements.get(i).getFinalCharge());
+        }
+        first.add(second);
+
+        assertEquals(finalCharge, all.getFinalCharge());
+        assertEquals(all.getPreDiscountCharge(), first.getPreDiscountCharge());
+        assertEquals(all.getDiscountAmount(), first.getDiscountAmount());
+        assertEquals(all.getFinalCharge(), first.getFinalCharge());
+    }
+
+    private List<RentalAgreement> agreements() {
+        List<RentalAgreement> agreements = new ArrayList<>();
+        for (String toolCode : Arrays.asList("LADW", "CHNS", "JAKD", "JAKR")) {
+            for (LocalDate checkOutDate = LocalDate.of(2024, 6, 28); checkOutDate.isBefore(LocalDate.of(2024, 7, 8)); checkOutDate = checkOutDate.plusDays(3)) {
+                agreements.add(new RentalAgreement(toolCode, null, null, 7, checkOutDate, 15, 4, chargeProcessor));
+            }
+        }
+        agreements.add(new RentalAgreement("JAKR", null, null, 400, LocalDate.of(2024, 8, 30), 99, 250, chargeProcessor));
+        return agreements;
+    }
+
+    private String printConsolidated(ShoppingCart cart) {
+        PrintStream previousOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true));
+        try {
+            cart.printConsolidatedAgreement();
+        } finally {
+            System.setOut(previousOut);
+        }
+        return output.toString();
+    }
+
+    // The String.format rendering RentalAgreement.printAgreement used before AgreementTemplate
+    private static String formatAgreement(RentalAgreement agreement, int agreementNumber) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yy");
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("********** Rental Agreement %d **********%n", agreementNumber));
+        text.append("---------- Tool Information ----------\n");
+        text.append(String.format("Tool code: %s%n", agreement.getToolCode()));
+        text.append(String.format("Tool type: %s%n", agreement.getToolType()));
+        text.append(String.format("Tool brand: %s%n", agreement.getToolBrand()));
+        text.append(String.format("Rental days: %d%n", agreement.getRentalDays()));
+        text.append(String.format("Check out date: %s%n", agreement.getCheckOutDate().format(formatter)));
+        text.append(String.format("Due date: %s%n", agreement.getDueDate().plusDays(1).format(formatter)));
+        text.append("--------------------------------------\n");
+        text.append("------------ Charges -----------------\n");
+        text.append(String.format("Daily rental charge per tool: $%.2f%n", agreement.getDailyRentalCharge()));
+        text.append(String.format("Quantity: %d%n", agreement.getQuantity()));
+        text.append(String.format("Charge days: %d%n", agreement.getChargeDays()));
+        text.append(String.format("Pre-discount charge: $%.2f%n", agreement.getPreDiscountCharge()));
+        text.append(String.format("Discount percent: %d%%%n", agreement.getDiscountPercent()));
+        text.append(String.format("Discount amount: $%.2f%n", agreement.getDiscountAmount()));
+        text.append(String.format("** Final charge: $%.2f **%n", agreement.getFinalCharge()));
+        text.append("**************************************\n");
+        return text.toString();
+    }
+
+    // The String.format rendering ShoppingCart.printConsolidatedAgreement used before AgreementTemplate
+    private static String formatConsolidated(List<RentalAgreement> agreements) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yy");
+
+        StringBuilder text = new StringBuilder();
+        text.append("\n********** Consolidated Rental Agreement **********\n");
+
+        BigDecimal totalPreDiscountCharge = BigDecimal.ZERO;
+        BigDecimal totalDiscountAmount = BigDecimal.ZERO;
+        BigDecimal totalFinalCharge = BigDecimal.ZERO;
+
+        for (int i = 0; i < agreements.size(); i++) {
+            RentalAgreement agreement = agreements.get(i);
+            text.append(String.format("\n---------- Tool %d Information (%s - %s) ----------%n", i + 1, agreement.getToolCode(), agreement.getToolType()));
+            text.append(String.format("Tool code: %s%n", agreement.getToolCode()));
+            text.append(String.format("Tool type: %s%n", agreement.getToolType()));
+            text.append(String.format("Tool brand: %s%n", agreement.getToolBrand()));
+            text.append(String.format("Rental days: %d%n", agreement.getRentalDays()));
+            text.append(String.format("Check out date: %s%n", agreement.getCheckOutDate().format(formatter)));
+            text.append(String.format("Due date: %s%n", agreement.getDueDate().plusDays(1).format(formatter)));
+            text.append("\n");
+            text.append("------------ Charges -----------------\n");
+            text.append(String.format("Daily rental charge per tool: $%.2f%n", agreement.getDailyRentalCharge()));
+            text.append(String.format("Quantity: %d%n", agreement.getQuantity()));
+            text.append(String.format("Charge days: %d%n", agreement.getChargeDays()));
+            text.append(String.format("Pre-discount charge: $%.2f%n", agreement.getPreDiscountCharge()));
+            text.append(String.format("Discount percent: %d%%%n", agreement.getDiscountPercent()));
+            text.append(String.format("Discount amount: $%.2f%n", agreement.getDiscountAmount()));
+            text.append(String.format("Final charge: $%.2f%n", agreement.getFinalCharge()));
+
+            totalPreDiscountCharge = totalPreDiscountCharge.add(agreement.getPreDiscountCharge());
+            totalDiscountAmount = totalDiscountAmount.add(agreement.getDiscountAmount());
+            totalFinalCharge = totalFinalCharge.add(agreement.getFinalCharge());
+
+            if (i < agreements.size() - 1) {
+                text.append("\n------------------------------\n");
+            }
+        }
+
+        text.append("\n");
+        text.append("\n============== Summary ==============\n");
+        text.append(String.format("Total pre-discount charge: $%.2f%n", totalPreDiscountCharge));
+        text.append(String.format("Total discount amount: $%.2f%n", totalDiscountAmount));
+        text.append(String.format("Total final charge: $%.2f%n", totalFinalCharge));
+        text.append("**************************************\n");
+        return text.toString();
+    }
+}
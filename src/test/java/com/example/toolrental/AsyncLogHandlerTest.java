@@ -0,0 +1,248 @@
+/**
+ * Test class for AsyncLogHandler in the Tool Rental System application.
+ *
+ * This class contains unit tests for the AsyncLogHandler class, ensuring
+ * that records from any number of threads are written in order and in full,
+ * that each overflow policy treats a full buffer as configured, and that
+ * closing the handler writes out everything it accepted.
+ *
+ * Test cases:
+ * - Writing records in order and making them visible on flush.
+ * - Accepting records from concurrent threads without losing any.
+ * - Dropping records under DROP while the output is stalled, but never
+ *   dropping a WARNING record.
+ * - Keeping a sample of the overflowing records under SAMPLE.
+ * - Waiting for space under BLOCK.
+ * - Writing out buffered records on close and ignoring records after it.
+ * - Rejecting invalid settings.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class AsyncLogHandlerTest {
+
+    @Test
+    public void testWritesInOrder() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AsyncLogHandler handler = newHandler(output, 16, AsyncLogHandler.OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 1000; i++) {
+            handler.publish(new LogRecord(Level.INFO, "record " + i));
+        }
+        handler.flush();
+
+        String[] lines = lines(output);
+        assertEquals(1000, lines.length);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("record " + i, lines[i]);
+        }
+        handler.close();
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AsyncLogHandler handler = newHandler(output, 64, AsyncLogHandler.OverflowPolicy.BLOCK);
+
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int producer = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    handler.publish(new LogRecord(Level.INFO, producer + " " + i));
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        handler.close();
+
+        // Every record arrives, and each producer's records stay in the order it logged them
+        String[] lines = lines(output);
+        assertEquals(16000, lines.length);
+        int[] next = new int[8];
+        for (String line : lines) {
+            String[] parts = line.split(" ");
+            int producer = Integer.parseInt(parts[0]);
+            assertEquals(next[producer]++, Integer.parseInt(parts[1]));
+        }
+        assertEquals(0, handler.getDroppedCount());
+    }
+
+    @Test
+    public void testDropWhenFull() throws InterruptedException {
+        StalledOutputStream output = new StalledOutputStream();
+        AsyncLogHandler handler = newHandler(output, 4, AsyncLogHandler.OverflowPolicy.DROP);
+
+        // The writer takes the first record and stalls on it, leaving room for four more
+        handler.publish(new LogRecord(Level.INFO, "first"));
+        assertTrue(output.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            handler.publish(new LogRecord(Level.INFO, "record " + i));
+        }
+        assertEquals(96, handler.getDroppedCount());
+
+        // A warning waits for space instead of being dropped
+        Thread warning = new Thread(() -> handler.publish(new LogRecord(Level.WARNING, "warning")));
+        warning.start();
+        warning.join(200);
+        assertTrue(warning.isAlive());
+
+        output.release.countDown();
+        warning.join();
+        handler.close();
+
+        String[] lines = lines(output.written);
+        assertEquals(6, lines.length);
+        assertEquals("first", lines[0]);
+        assertEquals("record 3", lines[4]);
+        assertEquals("warning", lines[5]);
+        assertEquals(96, handler.getDroppedCount());
+    }
+
+    @Test
+    public void testSampleWhenFull() throws InterruptedException {
+        StalledOutputStream output = new StalledOutputStream();
+        AsyncLogHandler handler = new AsyncLogHandler(output, 4, 1, AsyncLogHandler.OverflowPolicy.SAMPLE, 10);
+        handler.setFormatter(new MessageFormatter());
+
+        handler.publish(new LogRecord(Level.INFO, "first"));
+        assertTrue(output.entered.await(5, TimeUnit.SECONDS));
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                handler.publish(new LogRecord(Level.INFO, "record " + i));
+            }
+        });
+        producer.start();
+
+        // The first nine overflowing records are dropped and the tenth waits for space
+        long deadline = System.currentTimeMillis() + 5000;
+        while (handler.getDroppedCount() < 9 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        producer.join(100);
+        assertTrue(producer.isAlive());
+        assertEquals(9, handler.getDroppedCount());
+
+        output.release.countDown();
+        producer.join();
+        handler.close();
+
+        assertEquals(101, lines(output.written).length + handler.getDroppedCount());
+    }
+
+    @Test
+    public void testBlockWhenFull() throws InterruptedException {
+        StalledOutputStream output = new StalledOutputStream();
+        AsyncLogHandler handler = newHandler(output, 4, AsyncLogHandler.OverflowPolicy.BLOCK);
+
+        handler.publish(new LogRecord(Level.INFO, "first"));
+        assertTrue(output.entered.await(5, TimeUnit.SECONDS));
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                handler.publish(new LogRecord(Level.INFO, "record " + i));
+            }
+        });
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive());
+
+        output.release.countDown();
+        producer.join();
+        handler.close();
+
+        assertEquals(21, lines(output.written).length);
+        assertEquals(0, handler.getDroppedCount());
+    }
+
+    @Test
+    public void testCloseWritesBufferedRecords() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AsyncLogHandler handler = newHandler(output, 1024, AsyncLogHandler.OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 500; i++) {
+            handler.publish(new LogRecord(Level.INFO, "record " + i));
+        }
+        handler.close();
+        handler.publish(new LogRecord(Level.INFO, "after close"));
+        handler.close();
+
+        String[] lines = lines(output);
+        assertEquals(500, lines.length);
+        assertEquals("record 499", lines[499]);
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertThrows(IllegalArgumentException.class, () -> new AsyncLogHandler(output, 100, 1, AsyncLogHandler.OverflowPolicy.BLOCK, 1));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncLogHandler(output, 16, 0, AsyncLogHandler.OverflowPolicy.BLOCK, 1));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncLogHandler(output, 16, 1, AsyncLogHandler.OverflowPolicy.SAMPLE, 0));
+    }
+
+    private static AsyncLogHandler newHandler(OutputStream output, int capacity, AsyncLogHandler.OverflowPolicy overflowPolicy) {
+        AsyncLogHandler handler = new AsyncLogHandler(output, capacity, 1, overflowPolicy, AsyncLogHandler.DEFAULT_SAMPLE_RATE);
+        handler.setFormatter(new MessageFormatter());
+        return handler;
+    }
+
+    private static String[] lines(ByteArrayOutputStream output) {
+        String text = new String(output.toByteArray(), Charset.defaultCharset());
+        return text.isEmpty() ? new String[0] : text.split("\n");
+    }
+
+    private static final class MessageFormatter extends Formatter {
+
+        @Override
+        public String format(LogRecord record) {
+            return record.getMessage() + "\n";
+        }
+    }
+
+    // Holds the first write until released, as a slow disk would
+    private static final class StalledOutputStream extends OutputStream {
+
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            written.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Test class for BinaryQuoteServer in the Tool Rental System application.
+ *
+ * This class contains unit tests for the BinaryQuoteServer class, ensuring
+ * that binary quotes match the charges of a RentalAgreement, that invalid
+ * requests are answered with an error status, and that pipelined and split
+ * request frames are all answered in order.
+ *
+ * Test cases:
+ * - Quoting a rental and comparing it with a RentalAgreement.
+ * - Answering unknown tools and invalid requests, including due dates out
+ *   of the frame's range, with error statuses.
+ * - Answering many pipelined frames written in uneven pieces through small
+ *   server buffers.
+ * - Running the load client against the server.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BinaryQuoteServerTest {
+
+    private static final LocalDate CHECK_OUT_DATE = LocalDate.of(2024, 7, 2);
+
+    private ChargeProcessor chargeProcessor;
+    private BinaryQuoteServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        HolidayProcessor holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+
+        List<ChargeRule> chargeRules = ChargeProcessorConfig.getChargeRules(ConfigFileType.JSON, "tools", holidayProcessor);
+        chargeProcessor = new ChargeProcessor(chargeRules, holidayProcessor);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testQuote() throws IOException {
+        startServer(BinaryQuoteServer.DEFAULT_READ_BUFFER_SIZE, BinaryQuoteServer.DEFAULT_WRITE_BUFFER_SIZE);
+        RentalAgreement agreement = new RentalAgreement("LADW", "Ladder", "Werner", 3, CHECK_OUT_DATE, 10, 2, chargeProcessor);
+
+        try (SocketChannel channel = connect()) {
+            BinaryQuoteProtocol.Response response = quote(channel, 7, "LADW", CHECK_OUT_DATE, 3, 10, 2);
+            assertEquals(7, response.getRequestId());
+            assertEquals(BinaryQuoteProtocol.STATUS_OK, response.getStatus());
+            assertEquals(agreement.getDueDate(), response.getDueDate());
+            assertEquals(2, response.getChargeDays());
+            assertEquals(199, response.getDailyRentalChargeCents());
+            assertEquals(FixedPointPricing.toCents(agreement.getPreDiscountCharge()), response.getPreDiscountChargeCents());
+            assertEquals(FixedPointPricing.toCents(agreement.getDiscountAmount()), response.getDiscountAmountCents());
+            assertEquals(FixedPointPricing.toCents(agreement.getFinalCharge()), response.getFinalChargeCents());
+        }
+    }
+
+    @Test
+    public void testErrorStatuses() throws IOException {
+        startServer(BinaryQuoteServer.DEFAULT_READ_BUFFER_SIZE, BinaryQuoteServer.DEFAULT_WRITE_BUFFER_SIZE);
+
+        try (SocketChannel channel = connect()) {
+            assertEquals(BinaryQuoteProtocol.STATUS_UNKNOWN_TOOL, quote(channel, 1, "NONE", CHECK_OUT_DATE, 3, 0, 1).getStatus());
+            assertEquals(BinaryQuoteProtocol.STATUS_INVALID_REQUEST, quote(channel, 2, "LADW", CHECK_OUT_DATE, 3, 101, 1).getStatus());
+            assertEquals(BinaryQuoteProtocol.STATUS_INVALID_REQUEST, quote(channel, 3, "LADW", CHECK_OUT_DATE, 0, 0, 1).getStatus());
+
+            BinaryQuoteProtocol.Response tooLong = quote(channel, 4, "LADW", CHECK_OUT_DATE, BinaryQuoteProtocol.MAX_RENTAL_DAYS + 1, 0, 1);
+            assertEquals(4, tooLong.getRequestId());
+            assertEquals(BinaryQuoteProtocol.STATUS_INVALID_REQUEST, tooLong.getStatus());
+            assertEquals(0, tooLong.getFinalChargeCents());
+
+            // A due date past the int epoch days of the response frame
+            BinaryQuoteProtocol.Response farDueDate = quote(channel, 5, "LADW", LocalDate.ofEpochDay(Integer.MAX_VALUE - 10), 100, 0, 1);
+            assertEquals(5, farDueDate.getRequestId());
+            assertEquals(BinaryQuoteProtocol.STATUS_INVALID_REQUEST, farDueDate.getStatus());
+
+            // The connection stays usable after errors
+            assertEquals(BinaryQuoteProtocol.STATUS_OK, quote(channel, 6, "CHNS", CHECK_OUT_DATE, 5, 25, 1).getStatus());
+        }
+
+        // And so does the server
+        try (SocketChannel channel = connect()) {
+            assertEquals(BinaryQuoteProtocol.STATUS_OK, quote(channel, 7, "JAKD", CHECK_OUT_DATE, 4, 0, 1).getStatus());
+        }
+    }
+
+    @Test
+    public void testPipelinedFrames() throws IOException {
+        // Buffers smaller than the burst force the server to pause reading until responses drain
+        startServer(BinaryQuoteProtocol.REQUEST_SIZE * 2, BinaryQuoteProtocol.RESPONSE_SIZE);
+        List<String> toolCodes = Arrays.asList("LADW", "CHNS", "JAKD", "JAKR");
+        int count = 500;
+
+        ByteBuffer requests = ByteBuffer.allocate(BinaryQuoteProtocol.REQUEST_SIZE * count);
+        for (int i = 0; i < count; i++) {
+            BinaryQuoteProtocol.writeRequest(requests, i, ToolCodeKey.pack(toolCodes.get(i % 4)), CHECK_OUT_DATE, 1 + i % 9, i % 50, 1);
+        }
+        requests.flip();
+
+        try (SocketChannel channel = connect()) {
+            // Uneven writes split frames across reads on the server
+            while (requests.hasRemaining()) {
+                ByteBuffer piece = requests.duplicate();
+                piece.limit(Math.min(requests.limit(), requests.position() + 37));
+                requests.position(requests.position() + channel.write(piece));
+            }
+
+            ByteBuffer responses = ByteBuffer.allocate(BinaryQuoteProtocol.RESPONSE_SIZE * count);
+            while (responses.hasRemaining()) {
+                assertTrue(channel.read(responses) >= 0);
+            }
+            responses.flip();
+
+            for (int i = 0; i < count; i++) {
+                BinaryQuoteProtocol.Response response = BinaryQuoteProtocol.readResponse(responses);
+                RentalAgreement agreement = new RentalAgreement(toolCodes.get(i % 4), null, null, 1 + i % 9, CHECK_OUT_DATE, i % 50, 1, chargeProcessor);
+                assertEquals(i, response.getRequestId());
+                assertEquals(BinaryQuoteProtocol.STATUS_OK, response.getStatus());
+                assertEquals(agreement.getChargeDays(), response.getChargeDays());
+                assertEquals(FixedPointPricing.toCents(agreement.getFinalCharge()), response.getFinalChargeCents());
+            }
+        }
+    }
+
+    @Test
+    public void testLoadClient() throws IOException, InterruptedException {
+        startServer(BinaryQuoteServer.DEFAULT_READ_BUFFER_SIZE, BinaryQuoteServer.DEFAULT_WRITE_BUFFER_SIZE);
+        BinaryQuoteLoadClient client = new BinaryQuoteLoadClient(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()), 4, 250);
+
+        BinaryQuoteLoadClient.Report report = client.run(Arrays.asList("LADW", "CHNS", "JAKD", "JAKR"), CHECK_OUT_DATE);
+        assertEquals(1000, report.getRequestCount());
+        assertTrue(report.getPercentileNanos(50) <= report.getPercentileNanos(99.9));
+        assertTrue(report.getPercentileNanos(99.9) <= report.getMaxNanos());
+    }
+
+    private void startServer(int readBufferSize, int writeBufferSize) throws IOException {
+        server = new BinaryQuoteServer(chargeProcessor, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), readBufferSize, writeBufferSize);
+        server.start();
+    }
+
+    private SocketChannel connect() throws IOException {
+        return SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+    }
+
+    private BinaryQuoteProtocol.Response quote(SocketChannel channel, int requestId, String toolCode, LocalDate checkOutDate, int rentalDays, int discountPercent, int quantity) throws IOException {
+        ByteBuffer request = ByteBuffer.allocate(BinaryQuoteProtocol.REQUEST_SIZE);
+        BinaryQuoteProtocol.writeRequest(request, requestId, ToolCodeKey.pack(toolCode), checkOutDate, rentalDays, discountPercent, quantity);
+        request.flip();
+        while (request.hasRemaining()) {
+            channel.write(request);
+        }
+
+        ByteBuffer response = ByteBuffer.allocate(BinaryQuoteProtocol.RESPONSE_SIZE);
+        while (response.hasRemaining()) {
+            assertTrue(channel.read(response) >= 0);
+        }
+        response.flip();
+        return BinaryQuoteProtocol.readResponse(response);
+    }
+}
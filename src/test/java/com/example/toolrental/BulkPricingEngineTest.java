@@ -0,0 +1,113 @@
+/**
+ * Test class for BulkPricingEngine in the Tool Rental System application.
+ *
+ * This class contains unit tests for the BulkPricingEngine class, ensuring
+ * that parallel pricing returns the same agreements, in the same order, and
+ * the same totals as sequential pricing, and that the engine prices against
+ * a snapshot that later rule changes do not reach.
+ *
+ * Test cases:
+ * - Comparing parallel and sequential pricing for several parallelism and batch sizes.
+ * - Pricing against the snapshot after a holiday rule is added to the original processor.
+ * - Rejecting invalid parallelism and batch sizes.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BulkPricingEngineTest {
+
+    private HolidayProcessor holidayProcessor;
+    private ChargeProcessor chargeProcessor;
+    private List<RentalRequest> requests;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+
+        List<ChargeRule> chargeRules = ChargeProcessorConfig.getChargeRules(ConfigFileType.JSON, "tools", holidayProcessor);
+        chargeProcessor = new ChargeProcessor(chargeRules, holidayProcessor);
+
+        String[][] tools = {
+                {"LADW", "Ladder", "Werner"},
+                {"CHNS", "Chainsaw", "Stihl"},
+                {"JAKD", "Jackhammer", "DeWalt"},
+                {"JAKR", "Jackhammer", "Ridgid"}
+        };
+        requests = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String[] tool = tools[i % tools.length];
+            requests.add(new RentalRequest(tool[0], tool[1], tool[2], i % 20 + 1, i % 101, i % 3 + 1, LocalDate.of(2024, 6, 1).plusDays(i % 120)));
+        }
+    }
+
+    @Test
+    public void testMatchesSequentialPricing() {
+        List<RentalAgreement> expected = chargeProcessor.priceAll(requests);
+        BigDecimal expectedPreDiscount = BigDecimal.ZERO;
+        BigDecimal expectedDiscount = BigDecimal.ZERO;
+        BigDecimal expectedFinal = BigDecimal.ZERO;
+        for (RentalAgreement agreement : expected) {
+            expectedPreDiscount = expectedPreDiscount.add(agreement.getPreDiscountCharge());
+            expectedDiscount = expectedDiscount.add(agreement.getDiscountAmount());
+            expectedFinal = expectedFinal.add(agreement.getFinalCharge());
+        }
+
+        int[][] configurations = {{1, 1024}, {4, 7}, {8, 64}};
+        for (int[] configuration : configurations) {
+            try (BulkPricingEngine engine = new BulkPricingEngine(chargeProcessor, configuration[0], configuration[1])) {
+                BulkPricingEngine.Result result = engine.price(requests);
+
+                assertEquals(expected.size(), result.getAgreements().size());
+                for (int i = 0; i < expected.size(); i++) {
+                    RentalAgreement expectedAgreement = expected.get(i);
+                    RentalAgreement actual = result.getAgreements().get(i);
+                    assertEquals(expectedAgreement.getToolCode(), actual.getToolCode());
+                    assertEquals(expectedAgreement.getCheckOutDate(), actual.getCheckOutDate());
+                    assertEquals(expectedAgreement.getChargeDays(), actual.getChargeDays());
+                    assertEquals(expectedAgreement.getFinalCharge(), actual.getFinalCharge());
+                }
+
+                assertEquals(expectedPreDiscount, result.getTotalPreDiscountCharge());
+                assertEquals(expectedDiscount, result.getTotalDiscountAmount());
+                assertEquals(expectedFinal, result.getTotalFinalCharge());
+            }
+        }
+    }
+
+    @Test
+    public void testPricesAgainstSnapshot() {
+        try (BulkPricingEngine engine = new BulkPricingEngine(chargeProcessor, 2)) {
+            assertTrue(engine.getChargeProcessor().getHolidayProcessor().isReadOnly());
+
+            // Make July 2 a holiday on the original processor only
+            holidayProcessor.addHolidayRule(date -> date.getMonthValue() == 7 && date.getDayOfMonth() == 2);
+
+            List<RentalRequest> ladder = new ArrayList<>();
+            ladder.add(new RentalRequest("LADW", "Ladder", "Werner", 3, 0, 1, LocalDate.of(2024, 7, 1)));
+
+            assertEquals(3, engine.price(ladder).getAgreements().get(0).getChargeDays());
+            assertEquals(2, chargeProcessor.priceAll(ladder).get(0).getChargeDays());
+        }
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new BulkPricingEngine(chargeProcessor, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BulkPricingEngine(chargeProcessor, 2, 0));
+    }
+}
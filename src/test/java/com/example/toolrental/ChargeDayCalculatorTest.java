@@ -0,0 +1,117 @@
+/**
+ * Test class for ChargeDayCalculator in the Tool Rental System application.
+ *
+ * This class contains unit tests for the ChargeDayCalculator class, ensuring
+ * that the closed-form charge-day count matches the original day-by-day scan
+ * for every combination of zero and non-zero weekday, weekend and holiday
+ * charges.
+ *
+ * Test cases:
+ * - Counting weekend days from whole weeks and a partial-week remainder.
+ * - Comparing short rentals starting on every day over several years.
+ * - Comparing long-term rentals of 180 to 365 days.
+ * - Returning zero for an empty period.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ChargeDayCalculatorTest {
+
+    private HolidayProcessor holidayProcessor;
+    private List<ChargeRule> chargeRules;
+
+    @BeforeEach
+    public void setUp() {
+        holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+
+        // Every combination of zero and non-zero charges
+        chargeRules = new ArrayList<>();
+        for (int mask = 0; mask < 8; mask++) {
+            chargeRules.add(new ChargeRule(
+                    "T" + mask,
+                    "Test",
+                    "Test",
+                    (mask & 1) != 0 ? BigDecimal.valueOf(1.99) : BigDecimal.valueOf(0.0),
+                    (mask & 2) != 0 ? BigDecimal.valueOf(1.49) : BigDecimal.valueOf(0.0),
+                    (mask & 4) != 0 ? BigDecimal.valueOf(2.99) : BigDecimal.valueOf(0.0),
+                    holidayProcessor
+            ));
+        }
+    }
+
+    @Test
+    public void testCountWeekendDays() {
+        assertEquals(0, ChargeDayCalculator.countWeekendDays(DayOfWeek.MONDAY, 5));
+        assertEquals(1, ChargeDayCalculator.countWeekendDays(DayOfWeek.MONDAY, 6));
+        assertEquals(2, ChargeDayCalculator.countWeekendDays(DayOfWeek.MONDAY, 7));
+        assertEquals(1, ChargeDayCalculator.countWeekendDays(DayOfWeek.SUNDAY, 1));
+        assertEquals(1, ChargeDayCalculator.countWeekendDays(DayOfWeek.SUNDAY, 6));
+        assertEquals(2, ChargeDayCalculator.countWeekendDays(DayOfWeek.FRIDAY, 3));
+        assertEquals(3, ChargeDayCalculator.countWeekendDays(DayOfWeek.SATURDAY, 8));
+        assertEquals(104, ChargeDayCalculator.countWeekendDays(DayOfWeek.WEDNESDAY, 364));
+    }
+
+    @Test
+    public void testMatchesDayByDayScanForShortRentals() {
+        for (ChargeRule chargeRule : chargeRules) {
+            for (LocalDate start = LocalDate.of(2019, 6, 1); start.isBefore(LocalDate.of(2022, 10, 1)); start = start.plusDays(1)) {
+                for (int rentalDays = 1; rentalDays <= 14; rentalDays++) {
+                    assertCountMatches(start, start.plusDays(rentalDays - 1), chargeRule);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesDayByDayScanForLongRentals() {
+        for (ChargeRule chargeRule : chargeRules) {
+            for (LocalDate start = LocalDate.of(2023, 1, 1); start.isBefore(LocalDate.of(2025, 1, 1)); start = start.plusDays(3)) {
+                for (int rentalDays = 180; rentalDays <= 365; rentalDays += 37) {
+                    assertCountMatches(start, start.plusDays(rentalDays - 1), chargeRule);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyPeriod() {
+        LocalDate date = LocalDate.of(2024, 7, 4);
+        assertEquals(0, ChargeDayCalculator.countChargeDays(date, date.minusDays(1), chargeRules.get(7).getChargeableMask(), holidayProcessor));
+    }
+
+    private void assertCountMatches(LocalDate startDate, LocalDate endDate, ChargeRule chargeRule) {
+        assertEquals(
+                scanChargeDays(startDate, endDate, chargeRule),
+                ChargeDayCalculator.countChargeDays(startDate, endDate, chargeRule.getChargeableMask(), holidayProcessor),
+                "Mismatch for " + chargeRule.getToolCode() + " from " + startDate + " to " + endDate);
+    }
+
+    // The day-by-day scan that RentalAgreement originally used
+    private int scanChargeDays(LocalDate startDate, LocalDate endDate, ChargeRule chargeRule) {
+        int chargeDays = 0;
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            boolean isHoliday = holidayProcessor.isHoliday(date);
+            boolean isWeekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+
+            if ((isHoliday && chargeRule.getHolidayCharge().compareTo(BigDecimal.ZERO) > 0)
+                    || (isWeekend && chargeRule.getWeekendCharge().compareTo(BigDecimal.ZERO) > 0)
+                    || (!isHoliday && !isWeekend && chargeRule.getWeekdayCharge().compareTo(BigDecimal.ZERO) > 0)) {
+                chargeDays++;
+            }
+        }
+        return chargeDays;
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Test class for ChargeDayTable in the Tool Rental System application.
+ *
+ * This class contains unit tests for the ChargeDayTable class, ensuring that
+ * charge days read from the cumulative tables match the closed-form count of
+ * ChargeDayCalculator for every chargeable day-type mask.
+ *
+ * Test cases:
+ * - Comparing a checkout-date sweep over a quarter for every mask.
+ * - Windows that cross one or more year boundaries.
+ * - Growing the built range backwards and forwards.
+ * - Sharing tables per mask and discarding them when a holiday rule is added.
+ * - Counting through PricingPlan.countChargeDays.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ChargeDayTableTest {
+
+    private HolidayProcessor holidayProcessor;
+
+    @BeforeEach
+    public void setUp() {
+        holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+    }
+
+    @Test
+    public void testQuarterSweepMatchesClosedForm() {
+        for (int mask = 0; mask < 8; mask++) {
+            ChargeDayTable table = holidayProcessor.getChargeDayTable(mask);
+            for (LocalDate checkOutDate = LocalDate.of(2024, 7, 1); checkOutDate.isBefore(LocalDate.of(2024, 10, 1)); checkOutDate = checkOutDate.plusDays(1)) {
+                for (int rentalDays = 1; rentalDays <= 30; rentalDays++) {
+                    assertCountMatches(table, checkOutDate, checkOutDate.plusDays(rentalDays - 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWindowsAcrossYears() {
+        for (int mask = 0; mask < 8; mask++) {
+            ChargeDayTable table = new ChargeDayTable(mask, holidayProcessor);
+            assertCountMatches(table, LocalDate.of(2023, 12, 20), LocalDate.of(2024, 1, 10));
+            assertCountMatches(table, LocalDate.of(2020, 6, 15), LocalDate.of(2024, 9, 15));
+            assertCountMatches(table, LocalDate.of(2024, 12, 31), LocalDate.of(2024, 12, 31));
+        }
+    }
+
+    @Test
+    public void testGrowsInBothDirections() {
+        ChargeDayTable table = new ChargeDayTable(ChargeRule.CHARGEABLE_WEEKDAY, holidayProcessor);
+
+        assertCountMatches(table, LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31));
+        assertCountMatches(table, LocalDate.of(2019, 7, 1), LocalDate.of(2019, 9, 30));
+        assertCountMatches(table, LocalDate.of(2030, 7, 1), LocalDate.of(2031, 9, 30));
+        assertCountMatches(table, LocalDate.of(2019, 1, 1), LocalDate.of(2031, 12, 31));
+
+        // Far beyond the built range the table falls back to the closed form
+        assertCountMatches(table, LocalDate.of(2900, 7, 1), LocalDate.of(2900, 9, 30));
+    }
+
+    @Test
+    public void testTablesSharedPerMaskAndReset() {
+        ChargeDayTable table = holidayProcessor.getChargeDayTable(ChargeRule.CHARGEABLE_WEEKDAY);
+        assertSame(table, holidayProcessor.getChargeDayTable(ChargeRule.CHARGEABLE_WEEKDAY));
+
+        holidayProcessor.addHolidayRule(date -> date.getMonthValue() == 12 && date.getDayOfMonth() == 25);
+        ChargeDayTable rebuilt = holidayProcessor.getChargeDayTable(ChargeRule.CHARGEABLE_WEEKDAY);
+        assertNotSame(table, rebuilt);
+        assertCountMatches(rebuilt, LocalDate.of(2024, 12, 20), LocalDate.of(2024, 12, 31));
+    }
+
+    @Test
+    public void testPricingPlanCountChargeDays() {
+        ChargeRule chainsawRule = new ChargeRule("CHNS", "Chainsaw", "Stihl", BigDecimal.valueOf(1.49), BigDecimal.valueOf(0.0), BigDecimal.valueOf(1.49), holidayProcessor);
+
+        // Aug 29 - Sep 4, 2024: weekdays and Labor Day are charged, the weekend is not
+        assertEquals(5, chainsawRule.getPricingPlan().countChargeDays(LocalDate.of(2024, 8, 29), LocalDate.of(2024, 9, 4)));
+    }
+
+    private void assertCountMatches(ChargeDayTable table, LocalDate startDate, LocalDate endDate) {
+        assertEquals(
+                ChargeDayCalculator.countChargeDays(startDate, endDate, table.getChargeableMask(), holidayProcessor),
+                table.countChargeDays(startDate, endDate),
+                "Mismatch for mask " + table.getChargeableMask() + " from " + startDate + " to " + endDate);
+    }
+}
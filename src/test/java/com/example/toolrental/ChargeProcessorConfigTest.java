@@ -7,6 +7,8 @@
  * Test cases:
  * - Loading charge rules from a JSON configuration file.
  * - Loading charge rules from a YAML configuration file.
+ * - Building charge rules with effective-dated rate periods from JSON and YAML.
+ * - Rejecting rate periods with an invalid effective date.
  *
  * Each test verifies the charge values for different days (weekday, weekend, holiday)
  * for the tools configured in the test files.
@@ -16,14 +18,20 @@
 package com.example.toolrental;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class ChargeProcessorConfigTest {
 
@@ -81,4 +89,43 @@ public class ChargeProcessorConfigTest {
         assertEquals(BigDecimal.valueOf(0.0), jackhammerRule.getCharge(LocalDate.of(2024, 7, 6))); // Weekend
         assertEquals(BigDecimal.valueOf(0.0), jackhammerRule.getCharge(LocalDate.of(2024, 7, 4))); // Holiday
     }
+
+    @Test
+    public void testRatePeriodsFromJsonAndYaml() throws IOException {
+        String json = "{\"tools\":[{\"toolCode\":\"LADW\",\"toolType\":\"Ladder\",\"toolBrand\":\"Werner\","
+                + "\"weekdayCharge\":1.99,\"weekendCharge\":1.99,\"holidayCharge\":0.0,\"ratePeriods\":["
+                + "{\"effectiveDate\":\"2025-01-01\",\"weekdayCharge\":2.29,\"weekendCharge\":2.29,\"holidayCharge\":0.0},"
+                + "{\"effectiveDate\":\"2024-07-01\",\"weekdayCharge\":2.19,\"weekendCharge\":2.19,\"holidayCharge\":0.0}]}]}";
+        String yaml = "tools:\n"
+                + "  - toolCode: \"LADW\"\n    toolType: \"Ladder\"\n    toolBrand: \"Werner\"\n"
+                + "    weekdayCharge: 1.99\n    weekendCharge: 1.99\n    holidayCharge: 0.0\n"
+                + "    ratePeriods:\n"
+                + "      - effectiveDate: \"2025-01-01\"\n        weekdayCharge: 2.29\n        weekendCharge: 2.29\n        holidayCharge: 0.0\n"
+                + "      - effectiveDate: \"2024-07-01\"\n        weekdayCharge: 2.19\n        weekendCharge: 2.19\n        holidayCharge: 0.0\n";
+
+        ToolChargeConfig jsonConfig = new ObjectMapper().readValue(json, ToolChargeConfig.class);
+        ToolChargeConfig yamlConfig = new Yaml(new Constructor(ToolChargeConfig.class)).load(new StringReader(yaml));
+
+        for (ToolChargeConfig config : new ToolChargeConfig[]{jsonConfig, yamlConfig}) {
+            ChargeRule ladderRule = ChargeProcessorConfig.buildChargeRules(config, holidayProcessor).get(0);
+            assertEquals(3, ladderRule.getRatePeriods().size());
+            assertEquals(0, new BigDecimal("1.99").compareTo(ladderRule.getCharge(LocalDate.of(2024, 6, 28))));
+            assertEquals(0, new BigDecimal("2.19").compareTo(ladderRule.getCharge(LocalDate.of(2024, 7, 1))));
+            assertEquals(0, new BigDecimal("2.29").compareTo(ladderRule.getCharge(LocalDate.of(2025, 1, 2))));
+        }
+
+        // Tools without rate periods keep a single rate
+        assertEquals(1, ChargeProcessorConfig.getChargeRules(ConfigFileType.JSON, "tools", holidayProcessor).get(0).getRatePeriods().size());
+    }
+
+    @Test
+    public void testInvalidRatePeriod() throws IOException {
+        String json = "{\"tools\":[{\"toolCode\":\"LADW\",\"toolType\":\"Ladder\",\"toolBrand\":\"Werner\","
+                + "\"weekdayCharge\":1.99,\"weekendCharge\":1.99,\"holidayCharge\":0.0,\"ratePeriods\":["
+                + "{\"effectiveDate\":\"2025-13-01\",\"weekdayCharge\":2.29,\"weekendCharge\":2.29,\"holidayCharge\":0.0}]}]}";
+        ToolChargeConfig config = new ObjectMapper().readValue(json, ToolChargeConfig.class);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ChargeProcessorConfig.buildChargeRules(config, holidayProcessor));
+        assertEquals("Invalid effective date for tool code LADW: 2025-13-01", e.getMessage());
+    }
 }
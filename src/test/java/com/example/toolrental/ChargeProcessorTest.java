@@ -10,6 +10,8 @@
  * - Calculating the total charge for a chainsaw rental that includes a holiday.
  * - Calculating the total charge for a DeWalt jackhammer rental that includes a holiday.
  * - Calculating the total charge for a Ridgid jackhammer rental that includes a holiday.
+ * - Looking up charge rules by tool code through the rule index.
+ * - Pricing a batch of rental requests exactly like individual agreements, in input order.
  *
  * Each test verifies the total charge values for different date ranges (including holidays and weekends)
  * for the tools configured in the test files.
@@ -21,9 +23,16 @@ package com.example.toolrental;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -115,4 +124,72 @@ public class ChargeProcessorTest {
         // The first day is a holiday (no charge), the second day is a regular weekday (charge applies)
         assertEquals(BigDecimal.valueOf(2.99).setScale(2), totalCharge);
     }
+
+    @Test
+    public void testFindRule() {
+        for (ChargeRule rule : chargeProcessor.getChargeRules()) {
+            assertSame(rule, chargeProcessor.findRule(rule.getToolCode()));
+        }
+        assertNull(chargeProcessor.findRule("NONE"));
+    }
+
+    @Test
+    public void testFindRule_DuplicateToolCodeKeepsFirst() {
+        ChargeRule first = new ChargeRule("LADW", "Ladder", "Werner", BigDecimal.valueOf(1.99), BigDecimal.valueOf(1.99), BigDecimal.ZERO, holidayProcessor);
+        ChargeRule second = new ChargeRule("LADW", "Ladder", "Werner", BigDecimal.valueOf(2.99), BigDecimal.valueOf(2.99), BigDecimal.ZERO, holidayProcessor);
+        ChargeProcessor processor = new ChargeProcessor(Arrays.asList(first, second), holidayProcessor);
+
+        assertSame(first, processor.findRule("LADW"));
+    }
+
+    @Test
+    public void testPriceAllMatchesIndividualAgreements() {
+        String[][] tools = {
+                {"LADW", "Ladder", "Werner"},
+                {"CHNS", "Chainsaw", "Stihl"},
+                {"JAKD", "Jackhammer", "DeWalt"},
+                {"JAKR", "Jackhammer", "Ridgid"}
+        };
+
+        // Overlapping windows around both holidays, interleaved across tools
+        List<RentalRequest> requests = new ArrayList<>();
+        for (LocalDate checkOutDate = LocalDate.of(2024, 6, 28); checkOutDate.isBefore(LocalDate.of(2024, 9, 8)); checkOutDate = checkOutDate.plusDays(3)) {
+            for (int rentalDays = 1; rentalDays <= 12; rentalDays += 5) {
+                for (String[] tool : tools) {
+                    requests.add(new RentalRequest(tool[0], tool[1], tool[2], rentalDays, rentalDays * 7 % 101, rentalDays % 3 + 1, checkOutDate));
+                }
+            }
+        }
+        Collections.shuffle(requests, new Random(42));
+
+        List<RentalAgreement> agreements = chargeProcessor.priceAll(requests);
+        assertEquals(requests.size(), agreements.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            RentalRequest request = requests.get(i);
+            RentalAgreement expected = new RentalAgreement(request.getToolCode(), request.getToolType(), request.getToolBrand(), request.getRentalDays(), request.getCheckOutDate(), request.getDiscountPercent(), request.getQuantity(), chargeProcessor);
+            RentalAgreement actual = agreements.get(i);
+
+            assertEquals(expected.getToolCode(), actual.getToolCode());
+            assertEquals(expected.getCheckOutDate(), actual.getCheckOutDate());
+            assertEquals(expected.getDueDate(), actual.getDueDate());
+            assertEquals(expected.getQuantity(), actual.getQuantity());
+            assertEquals(expected.getDailyRentalCharge(), actual.getDailyRentalCharge());
+            assertEquals(expected.getChargeDays(), actual.getChargeDays());
+            assertEquals(expected.getPreDiscountCharge(), actual.getPreDiscountCharge());
+            assertEquals(expected.getDiscountAmount(), actual.getDiscountAmount());
+            assertEquals(expected.getFinalCharge(), actual.getFinalCharge());
+        }
+    }
+
+    @Test
+    public void testPriceAllUnknownToolCode() {
+        List<RentalRequest> requests = Arrays.asList(
+                new RentalRequest("LADW", "Ladder", "Werner", 2, 0, 1, LocalDate.of(2024, 7, 2)),
+                new RentalRequest("NONE", "Ladder", "Werner", 2, 0, 1, LocalDate.of(2024, 7, 2))
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> chargeProcessor.priceAll(requests));
+        assertEquals(0, chargeProcessor.priceAll(Collections.<RentalRequest>emptyList()).size());
+    }
 }
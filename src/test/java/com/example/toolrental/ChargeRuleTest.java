@@ -7,31 +7,42 @@
  *
  * Key functionalities tested:
  * - Correct retrieval of weekday, weekend, and holiday charges.
- * - Correct determination of applicable charges based on rental dates.
+ * - Correct determination of chargeable dates through the compiled PricingPlan.
  * - Correct retrieval of tool attributes such as tool code, tool type, and brand.
  *
  * Tests included:
  * - testWeekdayCharge: Verifies the charge for a weekday.
  * - testWeekendCharge: Verifies the charge for a weekend.
  * - testHolidayCharge: Verifies the charge for a holiday with zero charge.
- * - testAppliesMethod: Tests the applies method for different dates and conditions.
- * - testMultipleHolidays: Verifies the applies method for multiple holidays.
+ * - testChargeableDays: Verifies through the PricingPlan which dates are charged.
+ * - testMultipleHolidays: Verifies that another holiday is not charged.
  * - testGetToolCode: Verifies the retrieval of the tool code.
  * - testGetToolType: Verifies the retrieval of the tool type.
  * - testGetToolBrand: Verifies the retrieval of the tool brand.
  * - testGetWeekdayCharge: Verifies the retrieval of the weekday charge.
  * - testGetWeekendCharge: Verifies the retrieval of the weekend charge.
  * - testGetHolidayCharge: Verifies the retrieval of the holiday charge.
+ * - testChargeableMask: Verifies the precomputed chargeable day-type bitmask.
+ * - testIsChargeable: Verifies the precomputed day-of-week chargeability lookup.
+ * - testRatePeriods: Verifies that each date is charged at the rate period in effect.
+ * - testRatePeriodLookup: Verifies the period lookup over a long price history.
+ * - testDuplicateRatePeriod: Verifies that two periods cannot share an effective date.
  *
  * @version 1.0
  */
 package com.example.toolrental;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -77,21 +88,25 @@ public class ChargeRuleTest {
     }
 
     @Test
-    public void testAppliesMethod() {
+    public void testChargeableDays() {
         LocalDate weekday = LocalDate.of(2024, 7, 2); // A Tuesday
-        assertTrue(chargeRule.applies(weekday));
+        assertTrue(isChargeDay(chargeRule, weekday));
 
         LocalDate weekend = LocalDate.of(2024, 7, 6); // A Saturday
-        assertTrue(chargeRule.applies(weekend));
+        assertTrue(isChargeDay(chargeRule, weekend));
 
         LocalDate holiday = LocalDate.of(2024, 7, 4); // Independence Day
-        assertFalse(chargeRule.applies(holiday)); // This specific charge rule has a zero holiday charge
+        assertFalse(isChargeDay(chargeRule, holiday)); // This specific charge rule has a zero holiday charge
     }
 
     @Test
     public void testMultipleHolidays() {
         LocalDate holiday = LocalDate.of(2024, 9, 2); // Labor Day
-        assertFalse(chargeRule.applies(holiday)); // This specific charge rule has a zero holiday charge
+        assertFalse(isChargeDay(chargeRule, holiday)); // This specific charge rule has a zero holiday charge
+    }
+
+    private static boolean isChargeDay(ChargeRule rule, LocalDate date) {
+        return rule.getPricingPlan().countChargeDays(date, date) == 1;
     }
 
     @Test
@@ -123,4 +138,78 @@ public class ChargeRuleTest {
     public void testGetHolidayCharge() {
         assertTrue(BigDecimal.ZERO.compareTo(chargeRule.getHolidayCharge()) == 0);
     }
+
+    @Test
+    public void testChargeableMask() {
+        assertEquals(ChargeRule.CHARGEABLE_WEEKDAY | ChargeRule.CHARGEABLE_WEEKEND, chargeRule.getChargeableMask());
+
+        ChargeRule chainsawRule = new ChargeRule("CHNS", "Chainsaw", "Stihl", BigDecimal.valueOf(1.49), BigDecimal.valueOf(0.0), BigDecimal.valueOf(1.49), holidayProcessor);
+        assertEquals(ChargeRule.CHARGEABLE_WEEKDAY | ChargeRule.CHARGEABLE_HOLIDAY, chainsawRule.getChargeableMask());
+    }
+
+    @Test
+    public void testIsChargeable() {
+        ChargeRule jackhammerRule = new ChargeRule("JAKD", "Jackhammer", "DeWalt", BigDecimal.valueOf(2.99), BigDecimal.valueOf(0.0), BigDecimal.valueOf(0.0), holidayProcessor);
+
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            boolean weekend = dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+            assertTrue(chargeRule.isChargeable(dayOfWeek));
+            assertEquals(!weekend, jackhammerRule.isChargeable(dayOfWeek));
+        }
+    }
+
+    @Test
+    public void testRatePeriods() {
+        ChargeRule.RatePeriod summer = new ChargeRule.RatePeriod(LocalDate.of(2024, 6, 1), BigDecimal.valueOf(2.49), BigDecimal.valueOf(1.99), BigDecimal.valueOf(0.99));
+        ChargeRule.RatePeriod autumn = new ChargeRule.RatePeriod(LocalDate.of(2024, 9, 1), BigDecimal.valueOf(2.19), BigDecimal.valueOf(0.0), BigDecimal.valueOf(0.0));
+        // Given out of order on purpose
+        ChargeRule rule = new ChargeRule(new Tool("LADW", "Ladder", "Werner"), BigDecimal.valueOf(1.99), BigDecimal.valueOf(1.49), BigDecimal.valueOf(0.0), Arrays.asList(autumn, summer), holidayProcessor);
+
+        assertTrue(rule.hasRatePeriods());
+        assertEquals(3, rule.getRatePeriods().size());
+        assertEquals(LocalDate.MIN, rule.getRatePeriods().get(0).getEffectiveDate());
+        assertEquals(BigDecimal.valueOf(1.99), rule.getCharge(LocalDate.of(2024, 5, 31))); // Friday before summer
+        assertEquals(BigDecimal.valueOf(1.99), rule.getCharge(LocalDate.of(2024, 6, 1))); // Saturday in summer
+        assertEquals(BigDecimal.valueOf(0.99), rule.getCharge(LocalDate.of(2024, 7, 4))); // Holiday in summer
+        assertEquals(249L, rule.getPricingPlan().getChargeCents(LocalDate.of(2024, 8, 30))); // Friday in summer
+        assertEquals(BigDecimal.valueOf(0.0), rule.getCharge(LocalDate.of(2024, 9, 2))); // Labor Day in autumn
+        assertFalse(isChargeDay(rule, LocalDate.of(2024, 9, 7))); // Saturday in autumn
+        assertTrue(isChargeDay(rule, LocalDate.of(2024, 9, 9)));
+
+        // The charges given to the constructor stay the initial charges
+        assertEquals(BigDecimal.valueOf(1.49), rule.getWeekendCharge());
+        assertSame(rule.getRatePeriods().get(2), rule.withHolidayProcessor(holidayProcessor.snapshot()).getRatePeriod(LocalDate.of(2030, 1, 1)));
+        assertFalse(chargeRule.hasRatePeriods());
+    }
+
+    @Test
+    public void testRatePeriodLookup() {
+        // Ten years of weekly price changes
+        List<ChargeRule.RatePeriod> ratePeriods = new ArrayList<>();
+        LocalDate first = LocalDate.of(2015, 1, 5);
+        for (int week = 0; week < 520; week++) {
+            BigDecimal charge = BigDecimal.valueOf(100 + week, 2);
+            ratePeriods.add(new ChargeRule.RatePeriod(first.plusWeeks(week), charge, charge, charge));
+        }
+        ChargeRule rule = new ChargeRule(new Tool("LADW", "Ladder", "Werner"), BigDecimal.valueOf(0.50), BigDecimal.valueOf(0.50), BigDecimal.valueOf(0.50), ratePeriods, holidayProcessor);
+
+        assertEquals(BigDecimal.valueOf(0.50), rule.getRatePeriod(first.minusDays(1)).getWeekdayCharge());
+        for (int week = 0; week < 520; week++) {
+            LocalDate weekStart = first.plusWeeks(week);
+            assertEquals(BigDecimal.valueOf(100 + week, 2), rule.getRatePeriod(weekStart).getWeekdayCharge());
+            assertEquals(BigDecimal.valueOf(100 + week, 2), rule.getRatePeriod(weekStart.plusDays(6)).getWeekdayCharge());
+        }
+        assertEquals(BigDecimal.valueOf(619, 2), rule.getRatePeriod(LocalDate.of(2099, 1, 1)).getWeekdayCharge());
+    }
+
+    @Test
+    public void testDuplicateRatePeriod() {
+        List<ChargeRule.RatePeriod> ratePeriods = Arrays.asList(
+                new ChargeRule.RatePeriod(LocalDate.of(2024, 6, 1), BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE),
+                new ChargeRule.RatePeriod(LocalDate.of(2024, 6, 1), BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new ChargeRule(new Tool("LADW", "Ladder", "Werner"), BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, ratePeriods, holidayProcessor));
+        assertEquals("Duplicate rate period effective date: 2024-06-01", e.getMessage());
+    }
 }
@@ -0,0 +1,174 @@
+/**
+ * Test class for ChargeRuleWatcher in the Tool Rental System application.
+ *
+ * This class contains unit tests for the ChargeRuleWatcher class, ensuring
+ * that edited configuration files are picked up and published atomically,
+ * that invalid configurations leave the current rules in place, and that a
+ * processor already handed out keeps pricing with the rules it was read with.
+ *
+ * Test cases:
+ * - Loading the initial rules as a read-only snapshot.
+ * - Reloading after the configuration file is edited on disk.
+ * - Keeping the current rules when the edited file is invalid.
+ * - Rejecting empty, duplicate and negative rule sets.
+ * - Finishing an in-flight checkout on the old snapshot.
+ * - Notifying listeners such as QuoteCache.reload.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ChargeRuleWatcherTest {
+
+    @TempDir
+    Path configDirectory;
+
+    private HolidayProcessor holidayProcessor;
+    private Path configFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+
+        configFile = configDirectory.resolve("tools.json");
+        Files.copy(Paths.get("src/main/resources/config/tools.json"), configFile);
+    }
+
+    @Test
+    public void testInitialRules() throws IOException {
+        ChargeRuleWatcher watcher = new ChargeRuleWatcher(ConfigFileType.JSON, configFile, holidayProcessor);
+        ChargeProcessor processor = watcher.getChargeProcessor();
+
+        assertEquals(4, processor.getChargeRules().size());
+        assertEquals(new BigDecimal("1.99"), processor.findRule("LADW").getWeekdayCharge());
+        assertThrows(UnsupportedOperationException.class, () -> processor.getChargeRules().clear());
+        assertThrows(IllegalStateException.class, () -> processor.getHolidayProcessor().addHolidayRule(new LaborDayRule()));
+    }
+
+    @Test
+    public void testReloadOnEdit() throws Exception {
+        try (ChargeRuleWatcher watcher = new ChargeRuleWatcher(ConfigFileType.JSON, configFile, holidayProcessor, 50)) {
+            ChargeProcessor original = watcher.getChargeProcessor();
+            watcher.start();
+
+            rewriteCharge("1.99", "2.49");
+
+            long deadline = System.currentTimeMillis() + 10000;
+            while (watcher.getChargeProcessor() == original && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+
+            assertNotSame(original, watcher.getChargeProcessor());
+            assertEquals(new BigDecimal("2.49"), watcher.getChargeProcessor().findRule("LADW").getWeekdayCharge());
+            assertEquals(new BigDecimal("1.99"), original.findRule("LADW").getWeekdayCharge());
+        }
+    }
+
+    @Test
+    public void testInvalidConfigKeepsRules() throws IOException {
+        ChargeRuleWatcher watcher = new ChargeRuleWatcher(ConfigFileType.JSON, configFile, holidayProcessor);
+        ChargeProcessor original = watcher.getChargeProcessor();
+
+        rewriteFile("{ \"tools\": [ {");
+        assertFalse(watcher.reload());
+        assertSame(original, watcher.getChargeProcessor());
+
+        rewriteFile("{ \"tools\": [] }");
+        assertFalse(watcher.reload());
+        assertSame(original, watcher.getChargeProcessor());
+        assertEquals(2, watcher.getFailedReloadCount());
+        assertEquals(0, watcher.getReloadCount());
+
+        Files.copy(Paths.get("src/main/resources/config/tools.json"), configFile, StandardCopyOption.REPLACE_EXISTING);
+        assertTrue(watcher.reload());
+        assertNotSame(original, watcher.getChargeProcessor());
+        assertEquals(1, watcher.getReloadCount());
+    }
+
+    @Test
+    public void testValidate() {
+        ChargeRule ladder = new ChargeRule("LADW", "Ladder", "Werner", BigDecimal.valueOf(1.99), BigDecimal.valueOf(1.99), BigDecimal.ZERO, holidayProcessor);
+        ChargeRule negative = new ChargeRule("JAKD", "Jackhammer", "DeWalt", BigDecimal.valueOf(-2.99), BigDecimal.ZERO, BigDecimal.ZERO, holidayProcessor);
+        ChargeRule noCode = new ChargeRule(null, "Jackhammer", "DeWalt", BigDecimal.valueOf(2.99), BigDecimal.ZERO, BigDecimal.ZERO, holidayProcessor);
+
+        ChargeRuleWatcher.validate(Collections.singletonList(ladder));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ChargeRuleWatcher.validate(Collections.<ChargeRule>emptyList()));
+        assertEquals("Charge rule configuration has no tools", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> ChargeRuleWatcher.validate(Arrays.asList(ladder, ladder)));
+        assertEquals("Duplicate charge rule for tool code: LADW", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> ChargeRuleWatcher.validate(Arrays.asList(ladder, negative)));
+        assertEquals("Negative charge for tool code: JAKD", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> ChargeRuleWatcher.validate(Arrays.asList(noCode)));
+        assertEquals("Charge rule is missing a tool code", e.getMessage());
+    }
+
+    @Test
+    public void testInFlightCheckoutUsesOldSnapshot() throws IOException {
+        ChargeRuleWatcher watcher = new ChargeRuleWatcher(ConfigFileType.JSON, configFile, holidayProcessor);
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+
+        // The cart reads the processor once, as a checkout in progress would
+        ShoppingCart cart = new ShoppingCart(watcher.getChargeProcessor());
+        cart.addTool("LADW", "Ladder", "Werner", 3, 10, 1, checkOutDate);
+
+        rewriteCharge("1.99", "2.49");
+        assertTrue(watcher.reload());
+
+        List<RentalAgreement> agreements = cart.checkout();
+        assertEquals(new BigDecimal("3.58"), agreements.get(0).getFinalCharge());
+
+        ShoppingCart nextCart = new ShoppingCart(watcher.getChargeProcessor());
+        nextCart.addTool("LADW", "Ladder", "Werner", 3, 10, 1, checkOutDate);
+        assertEquals(new BigDecimal("4.48"), nextCart.checkout().get(0).getFinalCharge());
+    }
+
+    @Test
+    public void testListenerReloadsQuoteCache() throws IOException {
+        ChargeRuleWatcher watcher = new ChargeRuleWatcher(ConfigFileType.JSON, configFile, holidayProcessor);
+        QuoteCache quoteCache = new QuoteCache(watcher.getChargeProcessor(), 16);
+        watcher.addListener(quoteCache::reload);
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+
+        assertEquals(new BigDecimal("3.58"), quoteCache.quote("LADW", "Ladder", "Werner", 3, checkOutDate, 10, 1).getFinalCharge());
+
+        rewriteCharge("1.99", "2.49");
+        assertTrue(watcher.reload());
+
+        assertSame(watcher.getChargeProcessor(), quoteCache.getChargeProcessor());
+        assertEquals(new BigDecimal("4.48"), quoteCache.quote("LADW", "Ladder", "Werner", 3, checkOutDate, 10, 1).getFinalCharge());
+    }
+
+    private void rewriteCharge(String from, String to) throws IOException {
+        String config = new String(Files.readAllBytes(configFile), StandardCharsets.UTF_8);
+        rewriteFile(config.replace(from, to));
+    }
+
+    private void rewriteFile(String contents) throws IOException {
+        Files.write(configFile, contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Test class for FixedPointPricing in the Tool Rental System application.
+ *
+ * This class contains unit tests for the FixedPointPricing class, ensuring
+ * that pricing in long cents gives exactly the same BigDecimal values, scale
+ * included, as the BigDecimal arithmetic in RentalAgreement, and that rental
+ * agreements fall back to BigDecimal when cents cannot be used.
+ *
+ * Test cases:
+ * - Converting amounts to and from cents.
+ * - HALF_UP rounding of positive and negative quotients.
+ * - Comparing the cents path with the BigDecimal path over many inputs.
+ * - Falling back to BigDecimal for sub-cent rates and on overflow.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+public class FixedPointPricingTest {
+
+    @Test
+    public void testToCents() {
+        assertEquals(199, FixedPointPricing.toCents(new BigDecimal("1.99")));
+        assertEquals(199, FixedPointPricing.toCents(new BigDecimal("1.990")));
+        assertEquals(150, FixedPointPricing.toCents(new BigDecimal("1.5")));
+        assertEquals(0, FixedPointPricing.toCents(BigDecimal.valueOf(0.0)));
+        assertEquals(1000, FixedPointPricing.toCents(new BigDecimal("1E+1")));
+        assertEquals(FixedPointPricing.NOT_REPRESENTABLE, FixedPointPricing.toCents(new BigDecimal("1.995")));
+        assertEquals(FixedPointPricing.NOT_REPRESENTABLE, FixedPointPricing.toCents(new BigDecimal("1E+20")));
+    }
+
+    @Test
+    public void testFromCents() {
+        assertEquals(new BigDecimal("5.38"), FixedPointPricing.fromCents(538));
+        assertEquals(new BigDecimal("0.00"), FixedPointPricing.fromCents(0));
+    }
+
+    @Test
+    public void testDivideHalfUp() {
+        assertEquals(60, FixedPointPricing.divideHalfUp(5980, 100));
+        assertEquals(1, FixedPointPricing.divideHalfUp(50, 100));
+        assertEquals(0, FixedPointPricing.divideHalfUp(49, 100));
+        assertEquals(-1, FixedPointPricing.divideHalfUp(-50, 100));
+        assertEquals(0, FixedPointPricing.divideHalfUp(-49, 100));
+    }
+
+    @Test
+    public void testMatchesBigDecimalPath() {
+        for (String rate : Arrays.asList("0.0", "0.01", "1.49", "1.5", "1.99", "1.990", "2.99", "7", "12.35", "99.99")) {
+            BigDecimal dailyRentalCharge = new BigDecimal(rate);
+            long dailyRentalChargeCents = FixedPointPricing.toCents(dailyRentalCharge);
+
+            for (int chargeDays = 0; chargeDays <= 400; chargeDays += 7) {
+                for (int quantity = 1; quantity <= 4; quantity++) {
+                    for (int discountPercent = 0; discountPercent <= 100; discountPercent++) {
+                        BigDecimal preDiscountCharge = dailyRentalCharge.multiply(BigDecimal.valueOf(chargeDays)).multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_UP);
+                        BigDecimal discountAmount = preDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100)).setScale(2, RoundingMode.HALF_UP);
+                        BigDecimal finalCharge = preDiscountCharge.subtract(discountAmount).setScale(2, RoundingMode.HALF_UP);
+
+                        long preDiscountCents = FixedPointPricing.preDiscountCents(dailyRentalChargeCents, chargeDays, quantity);
+                        long discountCents = FixedPointPricing.discountCents(preDiscountCents, discountPercent);
+                        long finalCents = FixedPointPricing.finalCents(preDiscountCents, discountCents);
+
+                        assertEquals(preDiscountCharge, FixedPointPricing.fromCents(preDiscountCents));
+                        assertEquals(discountAmount, FixedPointPricing.fromCents(discountCents));
+                        assertEquals(finalCharge, FixedPointPricing.fromCents(finalCents));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFallsBackToBigDecimal() {
+        HolidayProcessor holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+
+        ChargeRule subCentRule = new ChargeRule("SUBC", "Test", "Test", new BigDecimal("1.995"), new BigDecimal("1.995"), BigDecimal.ZERO, holidayProcessor);
+        ChargeRule hugeRule = new ChargeRule("HUGE", "Test", "Test", new BigDecimal("92233720368547758.07"), BigDecimal.ZERO, BigDecimal.ZERO, holidayProcessor);
+        ChargeProcessor chargeProcessor = new ChargeProcessor(Arrays.asList(subCentRule, hugeRule), holidayProcessor);
+
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 1);
+
+        RentalAgreement subCent = new RentalAgreement("SUBC", "Test", "Test", 3, checkOutDate, 10, 1, chargeProcessor);
+        assertEquals(3, subCent.getChargeDays());
+        assertEquals(new BigDecimal("5.99"), subCent.getPreDiscountCharge());
+        assertEquals(new BigDecimal("0.60"), subCent.getDiscountAmount());
+        assertEquals(new BigDecimal("5.39"), subCent.getFinalCharge());
+
+        RentalAgreement huge = new RentalAgreement("HUGE", "Test", "Test", 2, checkOutDate, 50, 1, chargeProcessor);
+        assertEquals(2, huge.getChargeDays());
+        assertEquals(new BigDecimal("184467440737095516.14"), huge.getPreDiscountCharge());
+        assertEquals(new BigDecimal("92233720368547758.07"), huge.getDiscountAmount());
+        assertEquals(new BigDecimal("92233720368547758.07"), huge.getFinalCharge());
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Test class for HolidayCalendar in the Tool Rental System application.
+ *
+ * This class contains unit tests for the HolidayCalendar class, ensuring
+ * that the precomputed per-year bitmap answers exactly like the holiday
+ * rules it was built from, including for years outside the warmed range.
+ *
+ * Test cases:
+ * - Comparing every day of the warmed range against the rules.
+ * - Looking up epoch days across leap and century years.
+ * - Growing lazily for years before and after the warmed range.
+ * - Answering far-away years from the rules without growing.
+ * - Rebuilding the calendar when a HolidayProcessor gains a rule.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class HolidayCalendarTest {
+
+    private final List<HolidayRule> rules = Arrays.asList(new IndependenceDayRule(), new LaborDayRule());
+
+    @Test
+    public void testMatchesRulesForWarmedRange() {
+        HolidayCalendar calendar = new HolidayCalendar(rules, 2015, 2035);
+
+        for (LocalDate date = LocalDate.of(2015, 1, 1); date.getYear() <= 2035; date = date.plusDays(1)) {
+            assertEquals(isHolidayByRules(date), calendar.isHoliday(date), "Mismatch on " + date);
+        }
+    }
+
+    @Test
+    public void testEpochDayLookup() {
+        HolidayCalendar calendar = new HolidayCalendar(rules, 1896, 2104);
+
+        // Spans leap years, the non-leap 1900 and 2100, and dates on both sides of the warmed range
+        for (LocalDate date = LocalDate.of(1890, 1, 1); date.getYear() <= 2110; date = date.plusDays(1)) {
+            assertEquals(isHolidayByRules(date), calendar.isHoliday(date.toEpochDay()), "Mismatch on " + date);
+        }
+        assertTrue(calendar.isHoliday(LocalDate.of(1900, 12, 31).toEpochDay() - 180));
+    }
+
+    @Test
+    public void testGrowsLazilyOutsideWarmedRange() {
+        HolidayCalendar calendar = new HolidayCalendar(rules, 2024, 2024);
+
+        assertTrue(calendar.isHoliday(LocalDate.of(2020, 7, 3)), "2020-07-03 should be a holiday (observed)");
+        assertEquals(2020, calendar.getFirstYear());
+        assertEquals(2024, calendar.getLastYear());
+
+        assertTrue(calendar.isHoliday(LocalDate.of(2027, 7, 5)), "2027-07-05 should be a holiday (observed)");
+        assertEquals(2027, calendar.getLastYear());
+
+        for (LocalDate date = LocalDate.of(2020, 1, 1); date.getYear() <= 2027; date = date.plusDays(1)) {
+            assertEquals(isHolidayByRules(date), calendar.isHoliday(date), "Mismatch on " + date);
+        }
+    }
+
+    @Test
+    public void testFarYearsAnsweredWithoutGrowing() {
+        HolidayCalendar calendar = new HolidayCalendar(rules, 2024, 2024);
+
+        assertTrue(calendar.isHoliday(LocalDate.of(3024, 7, 4)));
+        assertFalse(calendar.isHoliday(LocalDate.of(3024, 7, 6)));
+        assertEquals(2024, calendar.getFirstYear());
+        assertEquals(2024, calendar.getLastYear());
+    }
+
+    @Test
+    public void testProcessorRebuildsCalendarOnNewRule() {
+        HolidayProcessor holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.enableCalendar(2024, 2025);
+
+        assertTrue(holidayProcessor.isCalendarEnabled());
+        assertFalse(holidayProcessor.isHoliday(LocalDate.of(2024, 9, 2)));
+
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+        assertTrue(holidayProcessor.isHoliday(LocalDate.of(2024, 9, 2)), "2024-09-02 should be Labor Day");
+    }
+
+    private boolean isHolidayByRules(LocalDate date) {
+        for (HolidayRule rule : rules) {
+            if (rule.isHoliday(date)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
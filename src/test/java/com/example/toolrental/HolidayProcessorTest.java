@@ -9,6 +9,8 @@
  * - Checking if Independence Day and its observed dates are correctly identified as holidays.
  * - Checking if Labor Day (first Monday in September) is correctly identified as a holiday.
  * - Verifying that non-holiday dates are correctly identified as non-holidays.
+ * - Listing all holidays between two dates in ascending order.
+ * - Taking a read-only snapshot that ignores later rule changes.
  *
  * Each test ensures the proper functioning of holiday detection for various dates.
  *
@@ -17,8 +19,11 @@
 package com.example.toolrental;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -55,4 +60,35 @@ public class HolidayProcessorTest {
         // Non-holiday
         assertFalse(holidayProcessor.isHoliday(LocalDate.of(2024, 9, 9)), "2024-09-09 should not be a holiday");
     }
+
+    @Test
+    public void testGetHolidays() {
+        assertEquals(
+                Arrays.asList(
+                        LocalDate.of(2020, 7, 3),
+                        LocalDate.of(2020, 7, 4),
+                        LocalDate.of(2020, 9, 7),
+                        LocalDate.of(2021, 7, 4),
+                        LocalDate.of(2021, 7, 5)),
+                holidayProcessor.getHolidays(LocalDate.of(2020, 6, 1), LocalDate.of(2021, 8, 31)));
+
+        assertEquals(Arrays.asList(), holidayProcessor.getHolidays(LocalDate.of(2024, 7, 5), LocalDate.of(2024, 7, 4)));
+    }
+
+    @Test
+    public void testSnapshot() {
+        holidayProcessor.enableCalendar(2020, 2030);
+        HolidayProcessor snapshot = holidayProcessor.snapshot();
+
+        assertTrue(snapshot.isReadOnly());
+        assertFalse(holidayProcessor.isReadOnly());
+        assertTrue(snapshot.isCalendarEnabled());
+        assertTrue(snapshot.isHoliday(LocalDate.of(2024, 7, 4)));
+        assertThrows(IllegalStateException.class, () -> snapshot.addHolidayRule(new LaborDayRule()));
+        assertThrows(IllegalStateException.class, () -> snapshot.enableCalendar(2020, 2030));
+
+        holidayProcessor.addHolidayRule(date -> date.getMonthValue() == 12 && date.getDayOfMonth() == 25);
+        assertTrue(holidayProcessor.isHoliday(LocalDate.of(2024, 12, 25)));
+        assertFalse(snapshot.isHoliday(LocalDate.of(2024, 12, 25)));
+    }
 }
@@ -10,6 +10,8 @@
  * - testObservedIndependenceDayOnSaturday: Verifies that July 3rd is recognized as the observed holiday when July 4th is on a Saturday.
  * - testObservedIndependenceDayOnSunday: Verifies that July 5th is recognized as the observed holiday when July 4th is on a Sunday.
  * - testNonHoliday: Verifies that a date that is not Independence Day or the observed Independence Day is not recognized as a holiday.
+ * - testGetHolidays: Verifies that the range API lists Independence Day and its observed dates.
+ * - testGetHolidaysMatchesIsHoliday: Verifies that the range API agrees with a day-by-day scan.
  *
  * @version 1.0
  */
@@ -17,7 +19,9 @@ package com.example.toolrental;
 
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.Arrays;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
@@ -67,4 +71,29 @@ public class IndependenceDayRuleTest {
         nonHoliday = LocalDate.of(2024, Month.JULY, 5);
         assertFalse(independenceDayRule.isHoliday(nonHoliday), "July 5, 2024 should not be a holiday");
     }
+
+    @Test
+    public void testGetHolidays() {
+        assertEquals(
+                Arrays.asList(
+                        LocalDate.of(2020, Month.JULY, 3),
+                        LocalDate.of(2020, Month.JULY, 4),
+                        LocalDate.of(2021, Month.JULY, 4),
+                        LocalDate.of(2021, Month.JULY, 5)),
+                independenceDayRule.getHolidays(LocalDate.of(2020, Month.JANUARY, 1), LocalDate.of(2021, Month.DECEMBER, 31)));
+
+        // Range boundaries are inclusive and cut through the observed pair
+        assertEquals(
+                Arrays.asList(LocalDate.of(2020, Month.JULY, 4)),
+                independenceDayRule.getHolidays(LocalDate.of(2020, Month.JULY, 4), LocalDate.of(2020, Month.JULY, 10)));
+    }
+
+    @Test
+    public void testGetHolidaysMatchesIsHoliday() {
+        LocalDate startDate = LocalDate.of(2000, Month.JANUARY, 1);
+        LocalDate endDate = LocalDate.of(2050, Month.DECEMBER, 31);
+
+        HolidayRule scanningRule = independenceDayRule::isHoliday;
+        assertEquals(scanningRule.getHolidays(startDate, endDate), independenceDayRule.getHolidays(startDate, endDate));
+    }
 }
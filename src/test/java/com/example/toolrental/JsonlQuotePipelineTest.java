@@ -0,0 +1,173 @@
+/**
+ * Test class for JsonlQuotePipeline in the Tool Rental System application.
+ *
+ * This class contains unit tests for the JsonlQuotePipeline class, ensuring
+ * that JSON Lines requests are priced exactly like individual agreements,
+ * that every request produces one output line in input order, and that
+ * invalid requests produce error lines without stopping the stream.
+ *
+ * Test cases:
+ * - Pricing valid requests and checking the agreement fields.
+ * - Writing error lines for unknown tools, invalid values and missing fields.
+ * - Writing an error line for a due date past the last supported date.
+ * - Streaming many requests through buffers much smaller than the input.
+ * - Failing with an IOException on malformed JSON.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class JsonlQuotePipelineTest {
+
+    // Keeps decimals as written, so 0.40 is not read back as 0.4
+    private final ObjectMapper mapper = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+    private ChargeProcessor chargeProcessor;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        HolidayProcessor holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+
+        List<ChargeRule> chargeRules = ChargeProcessorConfig.getChargeRules(ConfigFileType.JSON, "tools", holidayProcessor);
+        chargeProcessor = new ChargeProcessor(chargeRules, holidayProcessor);
+    }
+
+    @Test
+    public void testPricesRequests() throws IOException {
+        String input = request("LADW", "Ladder", "Werner", 3, "2024-07-02", 10, 1) + "\n"
+                + request("JAKD", "Jackhammer", "DeWalt", 2, "2024-07-02", 0, 2) + "\n";
+
+        String[] lines = run(new JsonlQuotePipeline(chargeProcessor), input);
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith("{\"request\":2,"));
+
+        JsonNode ladder = mapper.readTree(lines[0]);
+        assertEquals(1, ladder.get("request").asInt());
+        assertEquals("LADW", ladder.get("toolCode").asText());
+        assertEquals("2024-07-04", ladder.get("dueDate").asText());
+        assertEquals(2, ladder.get("chargeDays").asInt());
+        assertEquals(new BigDecimal("3.98"), ladder.get("preDiscountCharge").decimalValue());
+        assertEquals(new BigDecimal("0.40"), ladder.get("discountAmount").decimalValue());
+        assertEquals(new BigDecimal("3.58"), ladder.get("finalCharge").decimalValue());
+
+        JsonNode jackhammer = mapper.readTree(lines[1]);
+        assertEquals(2, jackhammer.get("request").asInt());
+        assertEquals(2, jackhammer.get("quantity").asInt());
+    }
+
+    @Test
+    public void testInvalidRequestsProduceErrorLines() throws IOException {
+        String input = request("LADW", "Ladder", "Werner", 3, "2024-07-02", 10, 1) + "\n"
+                + request("NONE", "Ladder", "Werner", 3, "2024-07-02", 10, 1) + "\n"
+                + request("LADW", "Ladder", "Werner", 0, "2024-07-02", 10, 1) + "\n"
+                + request("LADW", "Ladder", "Werner", 3, "07/02/24", 10, 1) + "\n"
+                + "{\"toolCode\":\"LADW\",\"rentalDays\":\"three\"}\n"
+                + "{\"toolCode\":\"LADW\",\"notes\":{\"a\":[1,2]}}\n"
+                + "[1,2,3]\n"
+                + "{\"toolCode\":\"LADW\",\"rentalDays\":3000000000,\"checkOutDate\":\"2024-07-02\",\"discountPercent\":0,\"quantity\":1}\n"
+                + request("CHNS", "Chainsaw", "Stihl", 5, "2024-07-02", 25, 1) + "\n";
+
+        String[] lines = run(new JsonlQuotePipeline(chargeProcessor), input);
+        assertEquals(9, lines.length);
+
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode line = mapper.readTree(lines[i]);
+            assertEquals(i + 1, line.get("request").asInt());
+            boolean expectError = i >= 1 && i <= 7;
+            assertEquals(expectError, line.has("error"), lines[i]);
+        }
+        assertEquals("Charge rule not found for tool code: NONE", mapper.readTree(lines[1]).get("error").asText());
+        assertEquals("Rental day count must be 1 or greater", mapper.readTree(lines[2]).get("error").asText());
+        assertEquals("Invalid check out date: 07/02/24", mapper.readTree(lines[3]).get("error").asText());
+        assertEquals("Field rentalDays must be an integer", mapper.readTree(lines[4]).get("error").asText());
+        assertEquals("Field rentalDays is out of range: 3000000000", mapper.readTree(lines[7]).get("error").asText());
+        assertEquals("CHNS", mapper.readTree(lines[8]).get("toolCode").asText());
+    }
+
+    @Test
+    public void testOutOfRangeDateProducesErrorLine() throws IOException {
+        String input = request("LADW", "Ladder", "Werner", 3, "2024-07-02", 10, 1) + "\n"
+                + request("LADW", "Ladder", "Werner", 3, "+999999999-12-30", 10, 1) + "\n"
+                + request("CHNS", "Chainsaw", "Stihl", 5, "2024-07-02", 25, 1) + "\n";
+
+        // A chunk size of one prices the bad line on its own; the default prices it with its neighbours
+        for (JsonlQuotePipeline pipeline : new JsonlQuotePipeline[] { new JsonlQuotePipeline(chargeProcessor), new JsonlQuotePipeline(chargeProcessor, 8, 1) }) {
+            String[] lines = run(pipeline, input);
+            assertEquals(3, lines.length);
+            assertEquals(new BigDecimal("3.58"), mapper.readTree(lines[0]).get("finalCharge").decimalValue());
+
+            JsonNode error = mapper.readTree(lines[1]);
+            assertEquals(2, error.get("request").asInt());
+            assertTrue(error.has("error"));
+            assertTrue(!error.has("finalCharge"));
+
+            assertEquals("CHNS", mapper.readTree(lines[2]).get("toolCode").asText());
+        }
+    }
+
+    @Test
+    public void testStreamsThroughSmallBuffers() throws IOException {
+        StringBuilder input = new StringBuilder();
+        LocalDate checkOutDate = LocalDate.of(2024, 6, 1);
+        for (int i = 0; i < 5000; i++) {
+            input.append(request("JAKR", "Jackhammer", "Ridgid", i % 10 + 1, checkOutDate.plusDays(i % 150).toString(), i % 50, 1)).append('\n');
+        }
+
+        JsonlQuotePipeline pipeline = new JsonlQuotePipeline(chargeProcessor, 8, 3);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long count = pipeline.run(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] lines = new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(5000, count);
+        assertEquals(5000, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode line = mapper.readTree(lines[i]);
+            assertEquals(i + 1, line.get("request").asInt());
+
+            RentalAgreement expected = new RentalAgreement("JAKR", "Jackhammer", "Ridgid", i % 10 + 1, checkOutDate.plusDays(i % 150), i % 50, 1, chargeProcessor);
+            assertEquals(expected.getFinalCharge(), line.get("finalCharge").decimalValue());
+        }
+    }
+
+    @Test
+    public void testMalformedJson() {
+        String input = request("LADW", "Ladder", "Werner", 3, "2024-07-02", 10, 1) + "\n{\"toolCode\": \n";
+
+        IOException e = assertThrows(IOException.class, () -> run(new JsonlQuotePipeline(chargeProcessor), input));
+        assertTrue(e.getMessage() != null);
+        assertThrows(IllegalArgumentException.class, () -> new JsonlQuotePipeline(chargeProcessor, 0, 1));
+    }
+
+    private String[] run(JsonlQuotePipeline pipeline, String input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        pipeline.run(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n");
+    }
+
+    private static String request(String toolCode, String toolType, String toolBrand, int rentalDays, String checkOutDate, int discountPercent, int quantity) {
+        return String.format("{\"toolCode\":\"%s\",\"toolType\":\"%s\",\"toolBrand\":\"%s\",\"rentalDays\":%d,\"checkOutDate\":\"%s\",\"discountPercent\":%d,\"quantity\":%d}",
+                toolCode, toolType, toolBrand, rentalDays, checkOutDate, discountPercent, quantity);
+    }
+}
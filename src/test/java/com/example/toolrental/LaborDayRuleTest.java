@@ -7,6 +7,8 @@
  * Tests:
  * - testLaborDay: Verifies that the first Monday in September is correctly identified as Labor Day.
  * - testNonLaborDay: Verifies that dates not matching the first Monday in September are not identified as Labor Day.
+ * - testGetHolidays: Verifies that the range API computes Labor Day for each year in the range.
+ * - testGetHolidaysMatchesIsHoliday: Verifies that the range API agrees with a day-by-day scan.
  *
  * Example usage:
  * - Ensures that the LaborDayRule class correctly identifies Labor Day for various dates.
@@ -17,7 +19,9 @@ package com.example.toolrental;
 
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.Arrays;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
@@ -55,4 +59,24 @@ public class LaborDayRuleTest {
         LocalDate randomDate2023 = LocalDate.of(2023, Month.SEPTEMBER, 12);
         assertFalse(laborDayRule.isHoliday(randomDate2023), "September 12, 2023 should not be Labor Day");
     }
+
+    @Test
+    public void testGetHolidays() {
+        assertEquals(
+                Arrays.asList(LocalDate.of(2023, Month.SEPTEMBER, 4), LocalDate.of(2024, Month.SEPTEMBER, 2)),
+                laborDayRule.getHolidays(LocalDate.of(2023, Month.JANUARY, 1), LocalDate.of(2024, Month.DECEMBER, 31)));
+
+        assertEquals(
+                Arrays.asList(),
+                laborDayRule.getHolidays(LocalDate.of(2024, Month.SEPTEMBER, 3), LocalDate.of(2024, Month.DECEMBER, 31)));
+    }
+
+    @Test
+    public void testGetHolidaysMatchesIsHoliday() {
+        LocalDate startDate = LocalDate.of(2000, Month.JANUARY, 1);
+        LocalDate endDate = LocalDate.of(2050, Month.DECEMBER, 31);
+
+        HolidayRule scanningRule = laborDayRule::isHoliday;
+        assertEquals(scanningRule.getHolidays(startDate, endDate), laborDayRule.getHolidays(startDate, endDate));
+    }
 }
@@ -0,0 +1,127 @@
+/**
+ * Test class for LazyRentalAgreement in the Tool Rental System application.
+ *
+ * This class contains unit tests for the LazyRentalAgreement class, ensuring
+ * that lazily computed agreements return exactly the same values as eager
+ * RentalAgreements, that derived fields are only computed when read, and
+ * that concurrent readers all see a single computed value.
+ *
+ * Test cases:
+ * - Matching RentalAgreement across tools, dates, durations and discounts.
+ * - Reading the due date without searching for a chargeable day.
+ * - Rejecting invalid input when the agreement is created.
+ * - Computing the final charge once under concurrent access.
+ * - Converting to an equivalent RentalAgreement.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LazyRentalAgreementTest {
+
+    private HolidayProcessor holidayProcessor;
+    private ChargeProcessor chargeProcessor;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+
+        List<ChargeRule> chargeRules = ChargeProcessorConfig.getChargeRules(ConfigFileType.JSON, "tools", holidayProcessor);
+        chargeProcessor = new ChargeProcessor(chargeRules, holidayProcessor);
+    }
+
+    @Test
+    public void testMatchesRentalAgreement() {
+        for (String toolCode : Arrays.asList("LADW", "CHNS", "JAKD", "JAKR")) {
+            for (int day = 0; day < 14; day++) {
+                LocalDate checkOutDate = LocalDate.of(2024, 7, 1).plusDays(day * 5);
+                int rentalDays = 1 + day * 3;
+                int discountPercent = day * 7;
+                RentalAgreement eager = new RentalAgreement(toolCode, null, null, rentalDays, checkOutDate, discountPercent, 2, chargeProcessor);
+                LazyRentalAgreement lazy = new LazyRentalAgreement(toolCode, null, null, rentalDays, checkOutDate, discountPercent, 2, chargeProcessor);
+
+                // Read the final charge first, as an availability screen would
+                assertEquals(eager.getFinalCharge(), lazy.getFinalCharge());
+                assertEquals(eager.getDueDate(), lazy.getDueDate());
+                assertEquals(eager.getDailyRentalCharge(), lazy.getDailyRentalCharge());
+                assertEquals(eager.getChargeDays(), lazy.getChargeDays());
+                assertEquals(eager.getPreDiscountCharge(), lazy.getPreDiscountCharge());
+                assertEquals(eager.getDiscountAmount(), lazy.getDiscountAmount());
+            }
+        }
+    }
+
+    @Test
+    public void testDueDateWithoutChargeableDay() {
+        ChargeRule holidayOnlyRule = new ChargeRule("HOLI", "Test", "Test", BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.valueOf(1.99), holidayProcessor);
+        ChargeProcessor processor = new ChargeProcessor(Arrays.asList(holidayOnlyRule), holidayProcessor);
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+
+        LazyRentalAgreement agreement = new LazyRentalAgreement("HOLI", "Test", "Test", 2, checkOutDate, 0, 1, processor);
+        assertEquals(LocalDate.of(2024, 7, 3), agreement.getDueDate());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, agreement::getFinalCharge);
+        assertEquals("No chargeable day for tool code: HOLI", e.getMessage());
+    }
+
+    @Test
+    public void testInvalidInput() {
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+        assertThrows(IllegalArgumentException.class, () -> new LazyRentalAgreement("LADW", "Ladder", "Werner", 0, checkOutDate, 0, 1, chargeProcessor));
+        assertThrows(IllegalArgumentException.class, () -> new LazyRentalAgreement("LADW", "Ladder", "Werner", 3, checkOutDate, 101, 1, chargeProcessor));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new LazyRentalAgreement("NONE", "None", "None", 3, checkOutDate, 0, 1, chargeProcessor));
+        assertEquals("Charge rule not found for tool code: NONE", e.getMessage());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        LazyRentalAgreement agreement = new LazyRentalAgreement("CHNS", "Chainsaw", "Stihl", 400, LocalDate.of(2024, 7, 2), 25, 3, chargeProcessor);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<BigDecimal>> results = new ArrayList<>();
+            Callable<BigDecimal> read = agreement::getFinalCharge;
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(read));
+            }
+
+            BigDecimal first = results.get(0).get();
+            for (Future<BigDecimal> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testToRentalAgreement() {
+        LazyRentalAgreement lazy = new LazyRentalAgreement("LADW", "Ladder", "Werner", 3, LocalDate.of(2024, 7, 2), 10, 1, chargeProcessor);
+        RentalAgreement agreement = lazy.toRentalAgreement();
+
+        assertEquals("Ladder", agreement.getToolType());
+        assertEquals(2, agreement.getChargeDays());
+        assertEquals(new BigDecimal("3.58"), agreement.getFinalCharge());
+        assertEquals(lazy.getFinalCharge(), agreement.getFinalCharge());
+    }
+}
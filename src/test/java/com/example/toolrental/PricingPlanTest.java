@@ -0,0 +1,210 @@
+/**
+ * Test class for PricingPlan in the Tool Rental System application.
+ *
+ * This class contains unit tests for the PricingPlan class, ensuring that a
+ * compiled plan answers every lookup exactly like a day-by-day walk over the
+ * rate periods of the ChargeRule it was compiled from, for dates near and far
+ * from the years its HolidayCalendar has warmed, and that a plan is
+ * recompiled once its HolidayProcessor gains a holiday rule.
+ *
+ * Test cases:
+ * - Matching ChargeRule rates and holidays for every chargeable day-type mask.
+ * - Matching the first chargeable day and charge days across rate periods.
+ * - Counting across many rate periods with every combination of chargeable
+ *   day types.
+ * - Finding the first chargeable day past a period that only charges holidays.
+ * - Matching dates centuries before and after the current year.
+ * - Rejecting a rule that only charges holidays.
+ * - Caching the plan on the ChargeRule and recompiling it after a holiday
+ *   rule is added.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PricingPlanTest {
+
+    private HolidayProcessor holidayProcessor;
+    private List<ChargeRule> chargeRules;
+
+    @BeforeEach
+    public void setUp() {
+        holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+
+        // Every combination of zero and non-zero charges
+        chargeRules = new ArrayList<>();
+        for (int mask = 0; mask < 8; mask++) {
+            chargeRules.add(new ChargeRule(
+                    "T" + mask,
+                    "Test",
+                    "Test",
+                    (mask & 1) != 0 ? BigDecimal.valueOf(1.99) : BigDecimal.valueOf(0.0),
+                    (mask & 2) != 0 ? BigDecimal.valueOf(1.49) : BigDecimal.valueOf(0.0),
+                    (mask & 4) != 0 ? BigDecimal.valueOf(2.99) : BigDecimal.valueOf(0.0),
+                    holidayProcessor
+            ));
+        }
+    }
+
+    @Test
+    public void testMatchesChargeRule() {
+        for (ChargeRule chargeRule : chargeRules) {
+            PricingPlan plan = PricingPlan.compile(chargeRule, holidayProcessor);
+            for (LocalDate date = LocalDate.of(2023, 6, 1); date.isBefore(LocalDate.of(2025, 10, 1)); date = date.plusDays(1)) {
+                assertEquals(holidayProcessor.isHoliday(date), plan.isHoliday(date), date.toString());
+                assertEquals(chargeRule.getRatePeriod(date).getCharge(holidayProcessor.isHoliday(date), date.getDayOfWeek()), plan.getCharge(date), date.toString());
+                assertEquals(expectedChargeCents(chargeRule, date), plan.getChargeCents(date), date.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesAcrossRatePeriods() {
+        List<ChargeRule.RatePeriod> ratePeriods = Arrays.asList(
+                new ChargeRule.RatePeriod(LocalDate.of(2024, 7, 1), BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.valueOf(2.99)),
+                new ChargeRule.RatePeriod(LocalDate.of(2024, 7, 10), BigDecimal.ZERO, BigDecimal.valueOf(1.49), BigDecimal.ZERO),
+                new ChargeRule.RatePeriod(LocalDate.of(2024, 9, 1), BigDecimal.valueOf(2.49), BigDecimal.valueOf(2.49), BigDecimal.ZERO)
+        );
+        ChargeRule chargeRule = new ChargeRule(new Tool("RATE", "Test", "Test"), BigDecimal.valueOf(1.99), BigDecimal.ZERO, BigDecimal.ZERO, ratePeriods, holidayProcessor);
+        PricingPlan plan = PricingPlan.compile(chargeRule, holidayProcessor);
+
+        for (LocalDate start = LocalDate.of(2024, 6, 20); start.isBefore(LocalDate.of(2024, 9, 15)); start = start.plusDays(1)) {
+            assertEquals(scanFirstChargeableDay(start, chargeRule), plan.findFirstChargeableDay(start), start.toString());
+            for (int rentalDays = 1; rentalDays <= 60; rentalDays += 7) {
+                LocalDate end = start.plusDays(rentalDays - 1);
+                assertEquals(scanChargeDays(start, end, chargeRule), plan.countChargeDays(start, end), start + " to " + end);
+                assertEquals(chargeRule.getRatePeriod(start) != chargeRule.getRatePeriod(end), plan.spansRatePeriods(start, end));
+            }
+            assertEquals(expectedChargeCents(chargeRule, start), plan.getChargeCents(start), start.toString());
+        }
+    }
+
+    @Test
+    public void testManyRatePeriods() {
+        // A new period every eleven days in 2024, cycling through every combination of chargeable day types
+        List<ChargeRule.RatePeriod> ratePeriods = new ArrayList<>();
+        for (int i = 0; i < 34; i++) {
+            int mask = i % 8;
+            ratePeriods.add(new ChargeRule.RatePeriod(
+                    LocalDate.of(2024, 1, 1).plusDays(i * 11L),
+                    (mask & 1) != 0 ? BigDecimal.valueOf(1.99) : BigDecimal.ZERO,
+                    (mask & 2) != 0 ? BigDecimal.valueOf(1.49) : BigDecimal.ZERO,
+                    (mask & 4) != 0 ? BigDecimal.valueOf(2.99) : BigDecimal.ZERO));
+        }
+        ChargeRule chargeRule = new ChargeRule(new Tool("RATE", "Test", "Test"), BigDecimal.valueOf(1.99), BigDecimal.ZERO, BigDecimal.ZERO, ratePeriods, holidayProcessor);
+        PricingPlan plan = PricingPlan.compile(chargeRule, holidayProcessor);
+
+        for (LocalDate start = LocalDate.of(2023, 12, 20); start.isBefore(LocalDate.of(2025, 1, 10)); start = start.plusDays(2)) {
+            for (int rentalDays = 1; rentalDays <= 40; rentalDays += 3) {
+                LocalDate end = start.plusDays(rentalDays - 1);
+                assertEquals(scanChargeDays(start, end, chargeRule), plan.countChargeDays(start, end), start + " to " + end);
+            }
+        }
+        assertEquals(0, plan.countChargeDays(LocalDate.of(2024, 7, 4), LocalDate.of(2024, 7, 3)));
+    }
+
+    @Test
+    public void testFirstChargeableDayAcrossRatePeriods() {
+        // Weekdays only, then holidays only from July 1, then weekends only from July 10, 2024
+        List<ChargeRule.RatePeriod> ratePeriods = new ArrayList<>();
+        ratePeriods.add(new ChargeRule.RatePeriod(LocalDate.of(2024, 7, 1), BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.valueOf(2.99)));
+        ratePeriods.add(new ChargeRule.RatePeriod(LocalDate.of(2024, 7, 10), BigDecimal.ZERO, BigDecimal.valueOf(1.49), BigDecimal.ZERO));
+        PricingPlan plan = PricingPlan.compile(new ChargeRule(new Tool("RATE", "Test", "Test"), BigDecimal.valueOf(1.99), BigDecimal.ZERO, BigDecimal.ZERO, ratePeriods, holidayProcessor), holidayProcessor);
+
+        assertEquals(LocalDate.of(2024, 6, 28), plan.findFirstChargeableDay(LocalDate.of(2024, 6, 28)));
+        assertEquals(LocalDate.of(2024, 7, 13), plan.findFirstChargeableDay(LocalDate.of(2024, 6, 29)));
+        assertEquals(LocalDate.of(2024, 7, 13), plan.findFirstChargeableDay(LocalDate.of(2024, 7, 4)));
+
+        PricingPlan holidayOnly = PricingPlan.compile(new ChargeRule(new Tool("HOLI", "Test", "Test"), BigDecimal.valueOf(1.99), BigDecimal.ZERO, BigDecimal.ZERO,
+                ratePeriods.subList(0, 1), holidayProcessor), holidayProcessor);
+        assertEquals(LocalDate.of(2024, 6, 28), holidayOnly.findFirstChargeableDay(LocalDate.of(2024, 6, 28)));
+        assertThrows(IllegalArgumentException.class, () -> holidayOnly.findFirstChargeableDay(LocalDate.of(2024, 6, 29)));
+    }
+
+    @Test
+    public void testFarDates() {
+        ChargeRule chargeRule = chargeRules.get(ChargeRule.CHARGEABLE_WEEKDAY | ChargeRule.CHARGEABLE_HOLIDAY);
+        PricingPlan plan = PricingPlan.compile(chargeRule, holidayProcessor);
+
+        for (LocalDate start : Arrays.asList(LocalDate.of(1850, 7, 1), LocalDate.of(1899, 12, 25), LocalDate.of(2199, 12, 25), LocalDate.of(2400, 9, 1))) {
+            for (LocalDate date = start; date.isBefore(start.plusDays(21)); date = date.plusDays(1)) {
+                assertEquals(holidayProcessor.isHoliday(date), plan.isHoliday(date), date.toString());
+                assertEquals(expectedChargeCents(chargeRule, date), plan.getChargeCents(date), date.toString());
+                assertEquals(scanFirstChargeableDay(date, chargeRule), plan.findFirstChargeableDay(date), date.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testNoChargeableDay() {
+        PricingPlan plan = PricingPlan.compile(chargeRules.get(ChargeRule.CHARGEABLE_HOLIDAY), holidayProcessor);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> plan.findFirstChargeableDay(LocalDate.of(2024, 7, 2)));
+        assertEquals("No chargeable day for tool code: T4", e.getMessage());
+    }
+
+    @Test
+    public void testCachedUntilHolidaysChange() {
+        ChargeRule chargeRule = chargeRules.get(ChargeRule.CHARGEABLE_WEEKDAY);
+        PricingPlan plan = chargeRule.getPricingPlan(holidayProcessor);
+        assertSame(plan, chargeRule.getPricingPlan(holidayProcessor));
+
+        // A new holiday on Tuesday, July 2, 2024 must move the first chargeable day
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+        assertEquals(checkOutDate, plan.findFirstChargeableDay(checkOutDate));
+        holidayProcessor.addHolidayRule(date -> date.equals(checkOutDate));
+
+        PricingPlan recompiled = chargeRule.getPricingPlan(holidayProcessor);
+        assertNotSame(plan, recompiled);
+        assertEquals(LocalDate.of(2024, 7, 3), recompiled.findFirstChargeableDay(checkOutDate));
+        assertEquals(1, recompiled.countChargeDays(checkOutDate, LocalDate.of(2024, 7, 4)));
+    }
+
+    private long expectedChargeCents(ChargeRule chargeRule, LocalDate date) {
+        return chargeRule.getRatePeriod(date).getChargeCents(holidayProcessor.isHoliday(date), date.getDayOfWeek());
+    }
+
+    // Day by day with the charges of the rate period of each day: a holiday is charged when its holiday charge is
+    // positive, a weekend day (holiday or not) when its weekend charge is, and a plain weekday when its weekday charge is
+    private int scanChargeDays(LocalDate startDate, LocalDate endDate, ChargeRule chargeRule) {
+        int chargeDays = 0;
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            boolean isHoliday = holidayProcessor.isHoliday(date);
+            boolean isWeekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            ChargeRule.RatePeriod ratePeriod = chargeRule.getRatePeriod(date);
+
+            if ((isHoliday && ratePeriod.getHolidayCharge().compareTo(BigDecimal.ZERO) > 0)
+                    || (isWeekend && ratePeriod.getWeekendCharge().compareTo(BigDecimal.ZERO) > 0)
+                    || (!isHoliday && !isWeekend && ratePeriod.getWeekdayCharge().compareTo(BigDecimal.ZERO) > 0)) {
+                chargeDays++;
+            }
+        }
+        return chargeDays;
+    }
+
+    // The first non-holiday day charged by the rate period it falls in, searched for up to a year ahead
+    private LocalDate scanFirstChargeableDay(LocalDate startDate, ChargeRule chargeRule) {
+        for (LocalDate date = startDate; date.isBefore(startDate.plusYears(1)); date = date.plusDays(1)) {
+            if (!holidayProcessor.isHoliday(date) && chargeRule.getRatePeriod(date).isChargeable(date.getDayOfWeek())) {
+                return date;
+            }
+        }
+        return null;
+    }
+}
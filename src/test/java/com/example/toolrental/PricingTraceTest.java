@@ -0,0 +1,206 @@
+/**
+ * Test class for PricingTrace in the Tool Rental System application.
+ *
+ * This class contains unit tests for the PricingTrace class, ensuring that
+ * pricing logs nothing while tracing is off and that each switch (category
+ * sampling rates, tool codes and request scopes) selects exactly the events
+ * it should.
+ *
+ * Test cases:
+ * - Logging nothing while every switch is off.
+ * - Tracing every event, or one event in N, for a category.
+ * - Tracing every category for an enabled tool code only.
+ * - Rejecting tool codes ToolCodeKey cannot pack and more than
+ *   MAX_TOOL_CODES tool codes.
+ * - Tracing only the thread that opened a request scope, until it is closed.
+ * - Respecting the logger level and resetting every switch.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PricingTraceTest {
+
+    private final List<LogRecord> records = Collections.synchronizedList(new ArrayList<>());
+    private final Handler capture = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            records.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private Logger logger;
+    private Level previousLevel;
+    private ChargeProcessor chargeProcessor;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        PricingTrace.reset();
+        logger = LoggerConfig.getLogger();
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.ALL);
+        logger.addHandler(capture);
+
+        HolidayProcessor holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+        chargeProcessor = new ChargeProcessor(ChargeProcessorConfig.getChargeRules(ConfigFileType.JSON, "tools", holidayProcessor), holidayProcessor);
+        records.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.removeHandler(capture);
+        logger.setLevel(previousLevel);
+        PricingTrace.reset();
+    }
+
+    @Test
+    public void testOffByDefault() {
+        assertFalse(PricingTrace.isActive());
+        price("LADW");
+        chargeProcessor.calculateTotalCharge(LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 10), chargeProcessor.findRule("JAKD"));
+        assertEquals(0, records.size());
+    }
+
+    @Test
+    public void testSampleRate() {
+        PricingTrace.setSampleRate(PricingTrace.Category.AGREEMENT, 1);
+        assertTrue(PricingTrace.isActive());
+        for (int i = 0; i < 10; i++) {
+            price("LADW");
+        }
+        assertEquals(10, count("Daily Rental Charge: {0}"));
+        assertEquals(0, count("Date: {0}, Charge: {1}, Tool Code: {2}, Tool Type: {3}, Tool Brand: {4}"));
+
+        records.clear();
+        PricingTrace.setSampleRate(PricingTrace.Category.AGREEMENT, 4);
+        for (int i = 0; i < 20; i++) {
+            price("LADW");
+        }
+        assertEquals(5, count("Daily Rental Charge: {0}"));
+
+        PricingTrace.setSampleRate(PricingTrace.Category.AGREEMENT, 0);
+        assertFalse(PricingTrace.isActive());
+        assertThrows(IllegalArgumentException.class, () -> PricingTrace.setSampleRate(PricingTrace.Category.CHARGE, -1));
+    }
+
+    @Test
+    public void testDailyTotal() {
+        PricingTrace.setSampleRate(PricingTrace.Category.DAILY_TOTAL, 1);
+        chargeProcessor.calculateTotalCharge(LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 7), chargeProcessor.findRule("JAKD"));
+
+        // Six non-holiday days and the total
+        assertEquals(6, count("Date: {0} - Charge: {1}"));
+        assertEquals(1, count("Total Charge: {0}"));
+    }
+
+    @Test
+    public void testToolCode() {
+        PricingTrace.enableToolCode("CHNS");
+        price("LADW");
+        assertEquals(0, records.size());
+
+        price("CHNS");
+        assertEquals(1, count("Date: {0}, Charge: {1}, Tool Code: {2}, Tool Type: {3}, Tool Brand: {4}"));
+        assertEquals(1, count("Daily Rental Charge: {0}"));
+        assertEquals("CHNS", records.get(0).getParameters()[2]);
+
+        PricingTrace.disableToolCode("CHNS");
+        assertFalse(PricingTrace.isActive());
+    }
+
+    @Test
+    public void testToolCodeLimits() {
+        assertThrows(IllegalArgumentException.class, () -> PricingTrace.enableToolCode(""));
+        assertThrows(IllegalArgumentException.class, () -> PricingTrace.enableToolCode(null));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> PricingTrace.enableToolCode("LADDER-XL"));
+        assertEquals("Tool code cannot be traced: LADDER-XL", e.getMessage());
+        assertFalse(PricingTrace.isActive());
+
+        for (int i = 0; i < PricingTrace.MAX_TOOL_CODES; i++) {
+            PricingTrace.enableToolCode("T" + i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> PricingTrace.enableToolCode("LADW"));
+        assertEquals(PricingTrace.MAX_TOOL_CODES, PricingTrace.getToolCodes().size());
+
+        // Enabling a code that is already traced, or making room, still works
+        PricingTrace.enableToolCode("T0");
+        PricingTrace.disableToolCode("T0");
+        PricingTrace.enableToolCode("LADW");
+        assertTrue(PricingTrace.getToolCodes().contains("LADW"));
+    }
+
+    @Test
+    public void testRequestScope() throws InterruptedException {
+        try (PricingTrace.RequestScope scope = PricingTrace.traceRequest()) {
+            assertTrue(PricingTrace.isActive());
+
+            // Another thread pricing at the same time is not traced
+            Thread other = new Thread(() -> price("JAKR"));
+            other.start();
+            other.join();
+            assertEquals(0, records.size());
+
+            price("LADW");
+            assertEquals(2, records.size());
+        }
+
+        assertFalse(PricingTrace.isActive());
+        price("LADW");
+        assertEquals(2, records.size());
+    }
+
+    @Test
+    public void testLevel() {
+        PricingTrace.setSampleRate(PricingTrace.Category.AGREEMENT, 1);
+        PricingTrace.setLevel(Level.FINE);
+        logger.setLevel(Level.INFO);
+        price("LADW");
+        assertEquals(0, records.size());
+
+        logger.setLevel(Level.ALL);
+        price("LADW");
+        assertEquals(Level.FINE, records.get(0).getLevel());
+
+        PricingTrace.reset();
+        assertEquals(Level.INFO, PricingTrace.getLevel());
+        assertFalse(PricingTrace.isActive());
+    }
+
+    private void price(String toolCode) {
+        new RentalAgreement(toolCode, null, null, 3, LocalDate.of(2024, 7, 2), 10, 1, chargeProcessor);
+    }
+
+    private long count(String message) {
+        synchronized (records) {
+            return records.stream().filter(record -> message.equals(record.getMessage())).count();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Test class for QuoteCache in the Tool Rental System application.
+ *
+ * This class contains unit tests for the QuoteCache class, ensuring that
+ * repeated quotes are served from the cache, that the cache stays within its
+ * size bound in least-recently-used order, and that reloading the charge
+ * rules discards every cached quote.
+ *
+ * Test cases:
+ * - Returning the same agreement for identical inputs and counting hits and misses.
+ * - Treating a change in any input as a different quote.
+ * - Evicting the least recently used entry.
+ * - Invalidating the cache when charge rules are reloaded.
+ * - Not caching invalid input.
+ * - Checking out a ShoppingCart through the cache.
+ * - Pricing a cart created before a reload on the rules it was created with,
+ *   without reading or filling the cache.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class QuoteCacheTest {
+
+    private HolidayProcessor holidayProcessor;
+    private ChargeProcessor chargeProcessor;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+
+        List<ChargeRule> chargeRules = ChargeProcessorConfig.getChargeRules(ConfigFileType.JSON, "tools", holidayProcessor);
+        chargeProcessor = new ChargeProcessor(chargeRules, holidayProcessor);
+    }
+
+    @Test
+    public void testRepeatQuoteIsCached() {
+        QuoteCache cache = new QuoteCache(chargeProcessor, 10);
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+
+        RentalAgreement first = cache.quote("LADW", "Ladder", "Werner", 3, checkOutDate, 10, 1);
+        RentalAgreement second = cache.quote("LADW", "Ladder", "Werner", 3, checkOutDate, 10, 1);
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+        assertEquals(BigDecimal.valueOf(3.58), second.getFinalCharge());
+    }
+
+    @Test
+    public void testDifferentInputsAreDifferentQuotes() {
+        QuoteCache cache = new QuoteCache(chargeProcessor, 10);
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+
+        RentalAgreement base = cache.quote("LADW", "Ladder", "Werner", 3, checkOutDate, 10, 1);
+        assertNotSame(base, cache.quote("LADW", "Ladder", "Werner", 4, checkOutDate, 10, 1));
+        assertNotSame(base, cache.quote("LADW", "Ladder", "Werner", 3, checkOutDate.plusDays(1), 10, 1));
+        assertNotSame(base, cache.quote("LADW", "Ladder", "Werner", 3, checkOutDate, 20, 1));
+        assertNotSame(base, cache.quote("LADW", "Ladder", "Werner", 3, checkOutDate, 10, 2));
+        assertNotSame(base, cache.quote("CHNS", "Chainsaw", "Stihl", 3, checkOutDate, 10, 1));
+
+        assertEquals(0, cache.getHits());
+        assertEquals(6, cache.getMisses());
+        assertEquals(6, cache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        QuoteCache cache = new QuoteCache(chargeProcessor, 2);
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+
+        RentalAgreement ladder = cache.quote("LADW", "Ladder", "Werner", 3, checkOutDate, 0, 1);
+        RentalAgreement chainsaw = cache.quote("CHNS", "Chainsaw", "Stihl", 3, checkOutDate, 0, 1);
+
+        // Touch the ladder so the chainsaw becomes the eldest entry
+        assertSame(ladder, cache.quote("LADW", "Ladder", "Werner", 3, checkOutDate, 0, 1));
+        cache.quote("JAKR", "Jackhammer", "Ridgid", 3, checkOutDate, 0, 1);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertSame(ladder, cache.quote("LADW", "Ladder", "Werner", 3, checkOutDate, 0, 1));
+        assertNotSame(chainsaw, cache.quote("CHNS", "Chainsaw", "Stihl", 3, checkOutDate, 0, 1));
+    }
+
+    @Test
+    public void testReloadInvalidates() {
+        QuoteCache cache = new QuoteCache(chargeProcessor, 10);
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+
+        RentalAgreement before = cache.quote("LADW", "Ladder", "Werner", 3, checkOutDate, 0, 1);
+
+        ChargeRule reloadedRule = new ChargeRule("LADW", "Ladder", "Werner", BigDecimal.valueOf(2.49), BigDecimal.valueOf(2.49), BigDecimal.valueOf(0.0), holidayProcessor);
+        ChargeProcessor reloaded = new ChargeProcessor(Collections.singletonList(reloadedRule), holidayProcessor);
+        cache.reload(reloaded);
+
+        assertEquals(0, cache.size());
+        assertSame(reloaded, cache.getChargeProcessor());
+
+        RentalAgreement after = cache.quote("LADW", "Ladder", "Werner", 3, checkOutDate, 0, 1);
+        assertNotSame(before, after);
+        assertEquals(BigDecimal.valueOf(2.49), after.getDailyRentalCharge());
+    }
+
+    @Test
+    public void testInvalidInputNotCached() {
+        QuoteCache cache = new QuoteCache(chargeProcessor, 10);
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.quote("LADW", "Ladder", "Werner", 3, checkOutDate, 101, 1));
+        assertThrows(IllegalArgumentException.class, () -> cache.quote("NONE", "Ladder", "Werner", 3, checkOutDate, 0, 1));
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> new QuoteCache(chargeProcessor, 0));
+    }
+
+    @Test
+    public void testShoppingCartUsesCache() {
+        QuoteCache cache = new QuoteCache(chargeProcessor, 10);
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+
+        ShoppingCart first = new ShoppingCart(cache);
+        first.addTool("JAKD", "Jackhammer", "DeWalt", 2, 0, 2, checkOutDate);
+        ShoppingCart second = new ShoppingCart(cache);
+        second.addTool("JAKD", "Jackhammer", "DeWalt", 2, 0, 2, checkOutDate);
+
+        assertSame(first.checkout().get(0), second.checkout().get(0));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testShoppingCartKeepsItsSnapshot() {
+        QuoteCache cache = new QuoteCache(chargeProcessor, 10);
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+        ShoppingCart cart = new ShoppingCart(cache);
+        cart.addTool("LADW", "Ladder", "Werner", 3, 0, 1, checkOutDate);
+
+        ChargeRule reloadedRule = new ChargeRule("LADW", "Ladder", "Werner", BigDecimal.valueOf(2.49), BigDecimal.valueOf(2.49), BigDecimal.valueOf(0.0), holidayProcessor);
+        cache.reload(new ChargeProcessor(Collections.singletonList(reloadedRule), holidayProcessor));
+
+        RentalAgreement agreement = cart.checkout().get(0);
+        assertEquals(BigDecimal.valueOf(1.99), agreement.getDailyRentalCharge());
+        assertSame(chargeProcessor.getToolRegistry().intern("LADW", "Ladder", "Werner"), agreement.getTool());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMisses());
+
+        // A cart created after the reload prices on the new rules and fills the cache
+        ShoppingCart next = new ShoppingCart(cache);
+        next.addTool("LADW", "Ladder", "Werner", 3, 0, 1, checkOutDate);
+        assertEquals(BigDecimal.valueOf(2.49), next.checkout().get(0).getDailyRentalCharge());
+        assertEquals(1, cache.size());
+    }
+}
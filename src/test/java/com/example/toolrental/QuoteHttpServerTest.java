@@ -0,0 +1,256 @@
+/**
+ * Test class for QuoteHttpServer in the Tool Rental System application.
+ *
+ * This class contains unit tests for the QuoteHttpServer class, ensuring
+ * that the quote and checkout endpoints price requests exactly like the
+ * ShoppingCart, that invalid requests are answered with 400, and that many
+ * concurrent quote calls are served correctly.
+ *
+ * Test cases:
+ * - Quoting a single rental and serving a repeat from the QuoteCache.
+ * - Checking out several rentals and returning the totals.
+ * - Answering invalid bodies, out-of-range dates, unknown paths and wrong
+ *   methods.
+ * - Serving concurrent quote calls.
+ * - Tracing a quote sent with X-Pricing-Trace even when it is cached, and
+ *   switching tracing for a tool code through /trace, on a server created
+ *   with tracing on.
+ * - Serving neither /trace nor the trace header on a server created with
+ *   tracing off.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class QuoteHttpServerTest {
+
+    private static final String LADDER = "{\"toolCode\":\"LADW\",\"toolType\":\"Ladder\",\"toolBrand\":\"Werner\",\"rentalDays\":3,\"checkOutDate\":\"2024-07-02\",\"discountPercent\":10,\"quantity\":1}";
+    private static final String CHAINSAW = "{\"toolCode\":\"CHNS\",\"toolType\":\"Chainsaw\",\"toolBrand\":\"Stihl\",\"rentalDays\":5,\"checkOutDate\":\"2024-07-02\",\"discountPercent\":25,\"quantity\":1}";
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+    private ChargeProcessor chargeProcessor;
+    private QuoteHttpServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        HolidayProcessor holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+
+        List<ChargeRule> chargeRules = ChargeProcessorConfig.getChargeRules(ConfigFileType.JSON, "tools", holidayProcessor);
+        chargeProcessor = new ChargeProcessor(chargeRules, holidayProcessor);
+        startServer(false);
+    }
+
+    private void startServer(boolean tracing) throws IOException {
+        server = new QuoteHttpServer(chargeProcessor, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 100, tracing);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        PricingTrace.reset();
+    }
+
+    @Test
+    public void testQuote() throws IOException {
+        Response first = call("POST", "/quote", LADDER);
+        assertEquals(200, first.status);
+        assertEquals(2, first.body.get("chargeDays").asInt());
+        assertEquals(new BigDecimal("0.40"), first.body.get("discountAmount").decimalValue());
+        assertEquals(new BigDecimal("3.58"), first.body.get("finalCharge").decimalValue());
+
+        Response second = call("POST", "/quote", LADDER);
+        assertEquals(first.body, second.body);
+        assertEquals(1, server.getQuoteCache().getHits());
+    }
+
+    @Test
+    public void testCheckout() throws IOException {
+        Response response = call("POST", "/checkout", "[" + LADDER + "," + CHAINSAW + "]");
+        assertEquals(200, response.status);
+
+        JsonNode agreements = response.body.get("agreements");
+        assertEquals(2, agreements.size());
+        assertEquals("LADW", agreements.get(0).get("toolCode").asText());
+        assertEquals("CHNS", agreements.get(1).get("toolCode").asText());
+
+        BigDecimal finalTotal = agreements.get(0).get("finalCharge").decimalValue().add(agreements.get(1).get("finalCharge").decimalValue());
+        assertEquals(finalTotal, response.body.get("totalFinalCharge").decimalValue());
+    }
+
+    @Test
+    public void testErrors() throws IOException {
+        assertEquals(400, call("POST", "/quote", "{\"toolCode\":\"NONE\",\"rentalDays\":3,\"checkOutDate\":\"2024-07-02\",\"discountPercent\":0,\"quantity\":1}").status);
+        assertEquals(400, call("POST", "/quote", "{\"toolCode\":").status);
+        assertEquals(400, call("POST", "/quote", "").status);
+        assertEquals(400, call("POST", "/quote", "{\"toolCode\":\"LADW\",\"rentalDays\":3,\"checkOutDate\":\"+999999999-12-30\",\"discountPercent\":0,\"quantity\":1}").status);
+        assertEquals(400, call("POST", "/checkout", "[{\"toolCode\":\"LADW\",\"rentalDays\":3,\"checkOutDate\":\"+999999999-12-30\",\"discountPercent\":0,\"quantity\":1}]").status);
+        assertEquals(400, call("POST", "/checkout", LADDER).status);
+
+        Response notFound = call("POST", "/quote/extra", LADDER);
+        assertEquals(404, notFound.status);
+        assertEquals(405, call("GET", "/quote", null).status);
+        assertEquals("Charge rule not found for tool code: NONE",
+                call("POST", "/checkout", "[{\"toolCode\":\"NONE\",\"rentalDays\":3,\"checkOutDate\":\"2024-07-02\",\"discountPercent\":0,\"quantity\":1}]").body.get("error").asText());
+    }
+
+    @Test
+    public void testConcurrentQuotes() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Response>> responses = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String body = i % 2 == 0 ? LADDER : CHAINSAW;
+                responses.add(clients.submit(() -> call("POST", "/quote", body)));
+            }
+            for (int i = 0; i < responses.size(); i++) {
+                Response response = responses.get(i).get();
+                assertEquals(200, response.status);
+                assertEquals(i % 2 == 0 ? "LADW" : "CHNS", response.body.get("toolCode").asText());
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    @Test
+    public void testTracing() throws IOException {
+        List<LogRecord> records = Collections.synchronizedList(new ArrayList<>());
+        Handler capture = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getMessage().startsWith("Date: ")) {
+                    records.add(record);
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = LoggerConfig.getLogger();
+        logger.addHandler(capture);
+        server.stop(0);
+        startServer(true);
+        try {
+            Response cached = call("POST", "/quote", LADDER);
+            assertEquals(0, records.size());
+
+            // The same quote is in the cache, but a traced one is priced again
+            Response traced = call("POST", "/quote", LADDER, true);
+            assertEquals(cached.body, traced.body);
+            assertTrue(records.size() > 0);
+            assertEquals(0, server.getQuoteCache().getHits());
+            assertEquals(1, server.getQuoteCache().size());
+
+            Response enabled = call("POST", "/trace", "{\"toolCode\":\"CHNS\",\"enabled\":true}");
+            assertEquals(200, enabled.status);
+            assertEquals("[\"CHNS\"]", enabled.body.get("toolCodes").toString());
+            records.clear();
+            call("POST", "/quote", CHAINSAW);
+            assertTrue(records.size() > 0);
+
+            assertEquals("[]", call("POST", "/trace", "{\"toolCode\":\"CHNS\",\"enabled\":false}").body.get("toolCodes").toString());
+            assertFalse(PricingTrace.isActive());
+            assertEquals(400, call("POST", "/trace", "{\"toolCode\":\"CHNS\"}").status);
+            assertEquals("Tool code cannot be traced: CHAINSAW-XL",
+                    call("POST", "/trace", "{\"toolCode\":\"CHAINSAW-XL\",\"enabled\":true}").body.get("error").asText());
+        } finally {
+            logger.removeHandler(capture);
+        }
+    }
+
+    @Test
+    public void testTracingOffByDefault() throws IOException {
+        assertFalse(server.isTracing());
+        assertEquals(404, call("POST", "/trace", "{\"toolCode\":\"CHNS\",\"enabled\":true}").status);
+        assertFalse(PricingTrace.isActive());
+
+        // The header is ignored, so the repeat is answered from the cache as usual
+        call("POST", "/quote", LADDER);
+        call("POST", "/quote", LADDER, true);
+        assertEquals(1, server.getQuoteCache().getHits());
+    }
+
+    private Response call(String method, String path, String body) throws IOException {
+        return call(method, path, body, false);
+    }
+
+    private Response call(String method, String path, String body, boolean trace) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (trace) {
+            connection.setRequestProperty(QuoteHttpServer.TRACE_HEADER, "true");
+        }
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        int status = connection.getResponseCode();
+        try (InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            return new Response(status, mapper.readTree(bytes.toByteArray()));
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static final class Response {
+
+        private final int status;
+        private final JsonNode body;
+
+        private Response(int status, JsonNode body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
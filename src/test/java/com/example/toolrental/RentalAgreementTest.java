@@ -10,6 +10,10 @@
  * - Checking correct application of holiday and weekend charges.
  * - Ensuring proper handling of discounts.
  * - Verifying behavior with invalid input (e.g., invalid rental days or discount percentages).
+ * - Rejecting tools that are only chargeable on holidays.
+ * - Pricing a rental that crosses a rate change period by period, identically
+ *   through the constructor, ChargeProcessor.priceAll and LazyRentalAgreement,
+ *   and listing the charge of each period.
  *
  * Each test ensures the proper functioning of rental agreement generation and charge calculations.
  *
@@ -20,6 +24,7 @@ package com.example.toolrental;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -184,4 +189,56 @@ public class RentalAgreementTest {
         );
         assertTrue(thrown.getMessage().contains("Invalid rental days"));
     }
+
+    @Test
+    public void testNoChargeableDay() {
+        ChargeRule holidayOnlyRule = new ChargeRule("HOLI", "Test", "Test", BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.valueOf(1.99), holidayProcessor);
+        ChargeProcessor processor = new ChargeProcessor(Arrays.asList(holidayOnlyRule), holidayProcessor);
+
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 4); // Independence Day
+        IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> new RentalAgreement("HOLI", "Test", "Test", 2, checkOutDate, 0, 1, processor)
+        );
+        assertTrue(thrown.getMessage().contains("No chargeable day"));
+    }
+
+    @Test
+    public void testRentalAcrossRatePeriods() {
+        // The ladder goes up from 1.99 to 2.49 a day on July 3, 2024
+        ChargeRule.RatePeriod increase = new ChargeRule.RatePeriod(LocalDate.of(2024, 7, 3), BigDecimal.valueOf(2.49), BigDecimal.valueOf(2.49), BigDecimal.valueOf(0.0));
+        ChargeRule ladderRule = new ChargeRule(new Tool("LADW", "Ladder", "Werner"), BigDecimal.valueOf(1.99), BigDecimal.valueOf(1.99), BigDecimal.valueOf(0.0), Arrays.asList(increase), holidayProcessor);
+        ChargeProcessor processor = new ChargeProcessor(Arrays.asList(ladderRule), holidayProcessor);
+
+        // July 1 and 2 at 1.99, then July 3 and 5 at 2.49; July 4 is a holiday
+        RentalAgreement agreement = new RentalAgreement("LADW", "Ladder", "Werner", 5, LocalDate.of(2024, 7, 1), 10, 1, processor);
+        assertEquals(4, agreement.getChargeDays());
+        assertEquals(new BigDecimal("1.99"), agreement.getDailyRentalCharge());
+        assertEquals(new BigDecimal("8.96"), agreement.getPreDiscountCharge());
+        assertEquals(new BigDecimal("0.90"), agreement.getDiscountAmount());
+        assertEquals(new BigDecimal("8.06"), agreement.getFinalCharge());
+
+        // The parts add up to the pre-discount charge
+        List<RentalAgreement.RatePeriodCharge> parts = agreement.getRatePeriodCharges();
+        assertEquals(2, parts.size());
+        assertEquals(LocalDate.of(2024, 7, 1), parts.get(0).getStartDate());
+        assertEquals(new BigDecimal("1.99"), parts.get(0).getDailyRentalCharge());
+        assertEquals(2, parts.get(0).getChargeDays());
+        assertEquals(LocalDate.of(2024, 7, 3), parts.get(1).getStartDate());
+        assertEquals(new BigDecimal("2.49"), parts.get(1).getDailyRentalCharge());
+        assertEquals(2, parts.get(1).getChargeDays());
+
+        RentalAgreement batched = processor.priceAll(Arrays.asList(new RentalRequest("LADW", "Ladder", "Werner", 5, 10, 1, LocalDate.of(2024, 7, 1)))).get(0);
+        assertEquals(agreement.getChargeDays(), batched.getChargeDays());
+        assertEquals(agreement.getFinalCharge(), batched.getFinalCharge());
+        assertEquals(agreement.getFinalCharge(), new LazyRentalAgreement("LADW", "Ladder", "Werner", 5, LocalDate.of(2024, 7, 1), 10, 1, processor).getFinalCharge());
+        assertEquals(2, batched.getRatePeriodCharges().size());
+        assertEquals(2, new LazyRentalAgreement("LADW", "Ladder", "Werner", 5, LocalDate.of(2024, 7, 1), 10, 1, processor).getRatePeriodCharges().size());
+
+        // Rentals inside one period are priced at that period's rate
+        RentalAgreement beforeIncrease = new RentalAgreement("LADW", "Ladder", "Werner", 2, LocalDate.of(2024, 7, 1), 0, 1, processor);
+        assertEquals(new BigDecimal("3.98"), beforeIncrease.getPreDiscountCharge());
+        assertTrue(beforeIncrease.getRatePeriodCharges().isEmpty());
+        assertEquals(new BigDecimal("4.98"), new RentalAgreement("LADW", "Ladder", "Werner", 2, LocalDate.of(2024, 7, 8), 0, 1, processor).getPreDiscountCharge());
+    }
 }
@@ -0,0 +1,108 @@
+/**
+ * Test class for RentalJson in the Tool Rental System application.
+ *
+ * This class contains unit tests for the RentalJson class, ensuring that
+ * request objects are read into validated RentalRequests, that invalid
+ * requests are consumed completely before they are rejected, and that
+ * agreement charges are written as exact decimals.
+ *
+ * Test cases:
+ * - Reading a request and ignoring unknown fields.
+ * - Rejecting invalid requests, including integers out of the int range,
+ *   and continuing with the next value.
+ * - Writing the fields of an agreement, with the rate period parts of a
+ *   rental that crosses a rate change.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class RentalJsonTest {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Test
+    public void testReadRequest() throws IOException {
+        String json = "{\"notes\":{\"gift\":true},\"toolCode\":\"JAKR\",\"toolType\":\"Jackhammer\",\"toolBrand\":\"Ridgid\","
+                + "\"rentalDays\":4,\"checkOutDate\":\"2024-09-01\",\"discountPercent\":15,\"quantity\":2}";
+
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            RentalRequest request = RentalJson.readRequest(parser, parser.nextToken());
+            assertEquals("JAKR", request.getToolCode());
+            assertEquals("Jackhammer", request.getToolType());
+            assertEquals("Ridgid", request.getToolBrand());
+            assertEquals(4, request.getRentalDays());
+            assertEquals(LocalDate.of(2024, 9, 1), request.getCheckOutDate());
+            assertEquals(15, request.getDiscountPercent());
+            assertEquals(2, request.getQuantity());
+        }
+    }
+
+    @Test
+    public void testInvalidRequestIsConsumed() throws IOException {
+        String json = "{\"toolCode\":[\"LADW\"],\"rentalDays\":3} {\"toolCode\":\"LADW\"} 42 "
+                + "{\"toolCode\":\"LADW\",\"rentalDays\":3000000000,\"quantity\":1} "
+                + "{\"toolCode\":\"LADW\",\"rentalDays\":3,\"checkOutDate\":\"2024-07-02\",\"discountPercent\":0,\"quantity\":1}";
+
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> RentalJson.readRequest(parser, parser.nextToken()));
+            assertEquals("Field toolCode must not be an object or array", e.getMessage());
+            assertThrows(IllegalArgumentException.class, () -> RentalJson.readRequest(parser, parser.nextToken()));
+            assertThrows(IllegalArgumentException.class, () -> RentalJson.readRequest(parser, parser.nextToken()));
+            e = assertThrows(IllegalArgumentException.class, () -> RentalJson.readRequest(parser, parser.nextToken()));
+            assertEquals("Field rentalDays is out of range: 3000000000", e.getMessage());
+            assertEquals("LADW", RentalJson.readRequest(parser, parser.nextToken()).getToolCode());
+        }
+    }
+
+    @Test
+    public void testWriteAgreementFields() throws IOException {
+        HolidayProcessor holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        ChargeRule ladderRule = new ChargeRule("LADW", "Ladder", "Werner", BigDecimal.valueOf(1.99), BigDecimal.valueOf(1.99), BigDecimal.valueOf(0.0), holidayProcessor);
+        ChargeProcessor chargeProcessor = new ChargeProcessor(Arrays.asList(ladderRule), holidayProcessor);
+        RentalAgreement agreement = new RentalAgreement("LADW", "Ladder", "Werner", 3, LocalDate.of(2024, 7, 2), 10, 1, chargeProcessor);
+
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            generator.writeStartObject();
+            RentalJson.writeAgreementFields(generator, agreement);
+            generator.writeEndObject();
+        }
+
+        assertTrue(json.toString().startsWith("{\"toolCode\":\"LADW\",\"toolType\":\"Ladder\",\"toolBrand\":\"Werner\",\"rentalDays\":3,"));
+        assertTrue(json.toString().contains("\"discountAmount\":0.40,\"finalCharge\":3.58}"));
+        assertFalse(json.toString().contains("ratePeriodCharges"));
+
+        // A rental that crosses a rate change lists each period's part
+        ChargeRule.RatePeriod increase = new ChargeRule.RatePeriod(LocalDate.of(2024, 7, 3), BigDecimal.valueOf(2.49), BigDecimal.valueOf(2.49), BigDecimal.valueOf(0.0));
+        ChargeRule scheduledRule = new ChargeRule(new Tool("LADW", "Ladder", "Werner"), BigDecimal.valueOf(1.99), BigDecimal.valueOf(1.99), BigDecimal.valueOf(0.0), Arrays.asList(increase), holidayProcessor);
+        RentalAgreement crossing = new RentalAgreement("LADW", "Ladder", "Werner", 3, LocalDate.of(2024, 7, 2), 10, 1, new ChargeProcessor(Arrays.asList(scheduledRule), holidayProcessor));
+
+        json = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            generator.writeStartObject();
+            RentalJson.writeAgreementFields(generator, crossing);
+            generator.writeEndObject();
+        }
+        assertTrue(json.toString().contains("\"dailyRentalCharge\":1.99,\"ratePeriodCharges\":["
+                + "{\"startDate\":\"2024-07-02\",\"dailyRentalCharge\":1.99,\"chargeDays\":1},"
+                + "{\"startDate\":\"2024-07-03\",\"dailyRentalCharge\":2.49,\"chargeDays\":1}],\"quantity\":1"), json.toString());
+    }
+}
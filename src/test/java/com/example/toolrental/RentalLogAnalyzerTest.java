@@ -0,0 +1,200 @@
+/**
+ * Test class for RentalLogAnalyzer in the Tool Rental System application.
+ *
+ * This class contains unit tests for the RentalLogAnalyzer class, ensuring
+ * that agreements logged through a SimpleFormatter are recovered and summed
+ * per tool code per check out date exactly, whatever the chunk size and
+ * parallelism, and that consolidated agreements, other log records and cut
+ * off agreements are not counted.
+ *
+ * Test cases:
+ * - Matching the totals of the logged agreements for any chunk size.
+ * - Reading logs written with CRLF line endings and a decimal comma.
+ * - Skipping an agreement cut off at the end of the log.
+ * - Writing the aggregates as CSV.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RentalLogAnalyzerTest {
+
+    @TempDir
+    Path directory;
+
+    private ChargeProcessor chargeProcessor;
+    private List<RentalAgreement> agreements;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        HolidayProcessor holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+        chargeProcessor = new ChargeProcessor(ChargeProcessorConfig.getChargeRules(ConfigFileType.JSON, "tools", holidayProcessor), holidayProcessor);
+
+        agreements = new ArrayList<>();
+        List<String> toolCodes = Arrays.asList("LADW", "CHNS", "JAKD", "JAKR");
+        for (int i = 0; i < 400; i++) {
+            agreements.add(new RentalAgreement(toolCodes.get(i % 4), null, null, 1 + i % 9, LocalDate.of(2024, 6, 25).plusDays(i % 13), i % 30, 1 + i % 3, chargeProcessor));
+        }
+    }
+
+    @Test
+    public void testMatchesLoggedAgreements() throws IOException {
+        Path log = writeLog("rental_agreements.log", agreements, "\n");
+        Map<String, List<Long>> expected = expected(agreements, 1);
+
+        for (int chunkSize : new int[]{1, 97, 4096, RentalLogAnalyzer.DEFAULT_CHUNK_SIZE}) {
+            try (RentalLogAnalyzer analyzer = new RentalLogAnalyzer(4, chunkSize)) {
+                RentalLogAnalyzer.Result result = analyzer.analyze(Collections.singletonList(log));
+                assertEquals(agreements.size(), result.getAgreements(), "chunk size " + chunkSize);
+                assertEquals(0, result.getSkipped());
+                assertEquals(expected, actual(result), "chunk size " + chunkSize);
+                assertEquals(Files.size(log), result.getBytes());
+            }
+        }
+    }
+
+    @Test
+    public void testCrlfAndDecimalComma() throws IOException {
+        Locale previousLocale = Locale.getDefault(Locale.Category.FORMAT);
+        Path log;
+        try {
+            Locale.setDefault(Locale.Category.FORMAT, Locale.GERMANY);
+            log = writeLog("windows.log", agreements, "\r\n");
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, previousLocale);
+        }
+        assertTrue(new String(Files.readAllBytes(log), StandardCharsets.UTF_8).contains("Final charge: $"));
+
+        try (RentalLogAnalyzer analyzer = new RentalLogAnalyzer(2, 1000)) {
+            RentalLogAnalyzer.Result result = analyzer.analyze(Arrays.asList(log, log));
+            assertEquals(2L * agreements.size(), result.getAgreements());
+
+            assertEquals(expected(agreements, 2), actual(result));
+        }
+    }
+
+    @Test
+    public void testSkipsCutOffAgreement() throws IOException {
+        Path log = writeLog("partial.log", agreements.subList(0, 3), "\n");
+        byte[] bytes = Files.readAllBytes(log);
+        String text = new String(bytes, StandardCharsets.UTF_8);
+
+        // Cut the log inside the last agreement, before its charges
+        Files.write(log, text.substring(0, text.lastIndexOf("Rental days:")).getBytes(StandardCharsets.UTF_8));
+
+        try (RentalLogAnalyzer analyzer = new RentalLogAnalyzer(1)) {
+            RentalLogAnalyzer.Result result = analyzer.analyze(Collections.singletonList(log));
+            assertEquals(2, result.getAgreements());
+            assertEquals(1, result.getSkipped());
+            assertEquals(expected(agreements.subList(0, 2), 1), actual(result));
+        }
+    }
+
+    @Test
+    public void testWritesCsv() throws IOException {
+        List<RentalAgreement> ladders = Arrays.asList(
+                new RentalAgreement("LADW", "Ladder", "Werner", 3, LocalDate.of(2024, 7, 2), 10, 1, chargeProcessor),
+                new RentalAgreement("LADW", "Ladder", "Werner", 3, LocalDate.of(2024, 7, 2), 0, 2, chargeProcessor)
+        );
+        Path log = writeLog("csv.log", ladders, "\n");
+
+        try (RentalLogAnalyzer analyzer = new RentalLogAnalyzer(1)) {
+            StringWriter csv = new StringWriter();
+            analyzer.analyze(Collections.singletonList(log)).writeCsv(csv);
+            assertEquals("toolCode,checkOutDate,agreements,quantity,chargeDays,finalCharge\n"
+                    + "LADW,2024-07-02,2,3,4,11.54\n", csv.toString());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new RentalLogAnalyzer(0));
+    }
+
+    // Writes the agreements as LoggerConfig would, with other records and a consolidated agreement in between
+    private Path writeLog(String name, List<RentalAgreement> logged, String lineSeparator) throws IOException {
+        SimpleFormatter formatter = new SimpleFormatter();
+        StringBuilder log = new StringBuilder();
+        log.append(format(formatter, "ChargeProcessor initialized with rule: LADW, Ladder, Werner"));
+        for (int i = 0; i < logged.size(); i++) {
+            log.append(format(formatter, AgreementTemplate.AGREEMENT.render(logged.get(i), i + 1)));
+            if (i % 50 == 49) {
+                StringBuilder consolidated = new StringBuilder("\n********** Consolidated Rental Agreement **********\n");
+                AgreementTemplate.Totals totals = new AgreementTemplate.Totals();
+                AgreementTemplate.CONSOLIDATED_TOOL.render(consolidated, logged.get(i), 1, null);
+                totals.add(logged.get(i));
+                AgreementTemplate.CONSOLIDATED_SUMMARY.render(consolidated, null, 0, totals);
+                log.append(format(formatter, consolidated.toString()));
+            }
+            if (i % 7 == 0) {
+                log.append(format(formatter, "Daily Rental Charge: 1.99"));
+            }
+        }
+
+        Path file = directory.resolve(name);
+        String text = log.toString().replace("\r\n", "\n").replace("\n", lineSeparator);
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String format(SimpleFormatter formatter, String message) {
+        LogRecord record = new LogRecord(Level.INFO, message);
+        record.setSourceClassName("com.example.toolrental.RentalAgreement");
+        record.setSourceMethodName("printAgreement");
+        return formatter.format(record);
+    }
+
+    // Agreements, quantity, charge days and final charge in cents per tool code and check out date, each logged times times
+    private static Map<String, List<Long>> expected(List<RentalAgreement> agreements, int times) {
+        Map<String, long[]> expected = new TreeMap<>();
+        for (RentalAgreement agreement : agreements) {
+            long[] totals = expected.computeIfAbsent(agreement.getToolCode() + " " + agreement.getCheckOutDate(), key -> new long[4]);
+            totals[0] += times;
+            totals[1] += (long) times * agreement.getQuantity();
+            totals[2] += (long) times * agreement.getChargeDays();
+            totals[3] += times * FixedPointPricing.toCents(agreement.getFinalCharge());
+        }
+
+        Map<String, List<Long>> lists = new TreeMap<>();
+        for (Map.Entry<String, long[]> entry : expected.entrySet()) {
+            long[] totals = entry.getValue();
+            lists.put(entry.getKey(), Arrays.asList(totals[0], totals[1], totals[2], totals[3]));
+        }
+        return lists;
+    }
+
+    private static Map<String, List<Long>> actual(RentalLogAnalyzer.Result result) {
+        Map<String, List<Long>> actual = new TreeMap<>();
+        for (RentalLogAnalyzer.Aggregate aggregate : result.getAggregates()) {
+            actual.put(aggregate.getToolCode() + " " + aggregate.getCheckOutDate(), Arrays.asList(
+                    aggregate.getAgreements(),
+                    aggregate.getQuantity(),
+                    aggregate.getChargeDays(),
+                    aggregate.getFinalChargeCents()
+            ));
+        }
+        return actual;
+    }
+}
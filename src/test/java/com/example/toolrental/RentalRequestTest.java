@@ -0,0 +1,47 @@
+/**
+ * Test class for RentalRequest in the Tool Rental System application.
+ *
+ * This class contains unit tests for the RentalRequest class, ensuring that
+ * requests hold their inputs, pack their tool code and reject invalid rental
+ * days and discounts when they are created.
+ *
+ * Test cases:
+ * - Creating a request and reading back its fields and due date.
+ * - Rejecting invalid rental days and discount percentages.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+public class RentalRequestTest {
+
+    @Test
+    public void testRentalRequest() {
+        RentalRequest request = new RentalRequest("LADW", "Ladder", "Werner", 3, 10, 2, LocalDate.of(2024, 7, 2));
+
+        assertEquals("LADW", request.getToolCode());
+        assertEquals(ToolCodeKey.pack("LADW"), request.getToolCodeKey());
+        assertEquals("Ladder", request.getToolType());
+        assertEquals("Werner", request.getToolBrand());
+        assertEquals(3, request.getRentalDays());
+        assertEquals(10, request.getDiscountPercent());
+        assertEquals(2, request.getQuantity());
+        assertEquals(LocalDate.of(2024, 7, 2), request.getCheckOutDate());
+        assertEquals(LocalDate.of(2024, 7, 4), request.getDueDate());
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> new RentalRequest("LADW", "Ladder", "Werner", 0, 10, 1, checkOutDate));
+        assertThrows(IllegalArgumentException.class, () -> new RentalRequest("LADW", "Ladder", "Werner", 3, -1, 1, checkOutDate));
+        assertThrows(IllegalArgumentException.class, () -> new RentalRequest("LADW", "Ladder", "Werner", 3, 101, 1, checkOutDate));
+    }
+}
@@ -12,6 +12,8 @@
  * - Ensuring correct application of holiday and weekend charges.
  * - Validating behavior with discounts and invalid input.
  * - Checking consolidated rental agreements for multiple tools.
+ * - Streaming the consolidated agreement to several sinks in one pass, one
+ *   tool at a time, with running totals.
  *
  * Each test ensures the proper functioning of shopping cart operations
  * and rental agreement generation.
@@ -20,7 +22,11 @@
  */
 package com.example.toolrental;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -374,4 +380,89 @@ public class ShoppingCartTest {
 
         cart.printConsolidatedAgreement();
     }
+
+    @Test
+    public void testWriteConsolidatedAgreementToSeveralSinks() throws IOException {
+        ShoppingCart cart = new ShoppingCart(chargeProcessor);
+
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+        cart.addTool("LADW", "Ladder", "Werner", 3, 10, 1, checkOutDate);
+        cart.addTool("CHNS", "Chainsaw", "Stihl", 5, 25, 2, checkOutDate);
+        cart.addTool("JAKR", "Jackhammer", "Ridgid", 9, 0, 1, checkOutDate);
+
+        List<RentalAgreement> agreements = cart.checkout();
+        StringWriter writer = new StringWriter();
+        StringBuilder builder = new StringBuilder();
+        AgreementTemplate.Totals totals = cart.writeConsolidatedAgreement(agreements, writer, builder);
+
+        assertEquals(writer.toString(), builder.toString());
+        assertTrue(builder.toString().contains(String.format("Total final charge: $%.2f%n", totals.getFinalCharge())));
+
+        BigDecimal finalCharge = BigDecimal.ZERO;
+        for (RentalAgreement agreement : agreements) {
+            finalCharge = finalCharge.add(agreement.getFinalCharge());
+        }
+        assertEquals(finalCharge, totals.getFinalCharge());
+
+        // Printing the same agreements writes the same document to the console
+        PrintStream previousOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true));
+        try {
+            cart.printConsolidatedAgreement(agreements);
+        } finally {
+            System.setOut(previousOut);
+        }
+        assertEquals(builder + System.lineSeparator(), output.toString());
+    }
+
+    @Test
+    public void testWriteConsolidatedAgreementOneToolAtATime() throws IOException {
+        ShoppingCart cart = new ShoppingCart(chargeProcessor);
+        LocalDate checkOutDate = LocalDate.of(2024, 6, 1);
+        for (int i = 0; i < 2000; i++) {
+            cart.addTool("JAKD", "Jackhammer", "DeWalt", 1 + i % 30, i % 50, 1 + i % 4, checkOutDate.plusDays(i % 90));
+        }
+
+        // Every write carries at most one tool, so nothing holds the whole document
+        int[] largestWrite = new int[1];
+        int[] writes = new int[1];
+        Writer sink = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                largestWrite[0] = Math.max(largestWrite[0], length);
+                writes[0]++;
+            }
+
+            @Override
+            public Writer append(CharSequence text) {
+                largestWrite[0] = Math.max(largestWrite[0], text.length());
+                writes[0]++;
+                return this;
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        AgreementTemplate.Totals totals = cart.writeConsolidatedAgreement(cart.checkout(), sink);
+        assertEquals(2001, writes[0]);
+        assertTrue(largestWrite[0] < 1024);
+        assertTrue(totals.getFinalCharge().signum() > 0);
+    }
+
+    @Test
+    public void testWriteConsolidatedAgreementEmptyCart() throws IOException {
+        ShoppingCart cart = new ShoppingCart(chargeProcessor);
+        StringBuilder builder = new StringBuilder();
+
+        AgreementTemplate.Totals totals = cart.writeConsolidatedAgreement(cart.checkout(), builder);
+        assertEquals("No tools in the cart." + System.lineSeparator(), builder.toString());
+        assertEquals(BigDecimal.ZERO, totals.getFinalCharge());
+    }
 }
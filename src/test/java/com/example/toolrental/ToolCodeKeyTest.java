@@ -0,0 +1,49 @@
+/**
+ * Test class for ToolCodeKey in the Tool Rental System application.
+ *
+ * This class contains unit tests for the ToolCodeKey class, ensuring that
+ * conforming tool codes pack into distinct non-zero longs and unpack back to
+ * the same code, and that non-conforming codes are reported as NONE.
+ *
+ * Test cases:
+ * - Packing and unpacking the configured tool codes.
+ * - Keeping codes of different lengths distinct.
+ * - Rejecting empty, overlong, non-ASCII and NUL-containing codes.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+public class ToolCodeKeyTest {
+
+    @Test
+    public void testPackAndUnpack() {
+        for (String toolCode : new String[]{"LADW", "CHNS", "JAKD", "JAKR", "A", "ABCDEFGH", "~ 1z"}) {
+            long key = ToolCodeKey.pack(toolCode);
+            assertNotEquals(ToolCodeKey.NONE, key);
+            assertEquals(toolCode, ToolCodeKey.unpack(key));
+        }
+        assertEquals(0x4C414457L, ToolCodeKey.pack("LADW"));
+    }
+
+    @Test
+    public void testDistinctLengths() {
+        assertNotEquals(ToolCodeKey.pack("A"), ToolCodeKey.pack("AA"));
+        assertNotEquals(ToolCodeKey.pack("JAK"), ToolCodeKey.pack("JAKD"));
+    }
+
+    @Test
+    public void testNonConformingCodes() {
+        assertEquals(ToolCodeKey.NONE, ToolCodeKey.pack(null));
+        assertEquals(ToolCodeKey.NONE, ToolCodeKey.pack(""));
+        assertEquals(ToolCodeKey.NONE, ToolCodeKey.pack("ABCDEFGHI"));
+        assertEquals(ToolCodeKey.NONE, ToolCodeKey.pack("L\u00C4DW"));
+        assertEquals(ToolCodeKey.NONE, ToolCodeKey.pack("LA\u0000W"));
+        assertThrows(IllegalArgumentException.class, () -> ToolCodeKey.unpack(ToolCodeKey.NONE));
+    }
+}
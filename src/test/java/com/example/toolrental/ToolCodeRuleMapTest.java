@@ -0,0 +1,81 @@
+/**
+ * Test class for ToolCodeRuleMap in the Tool Rental System application.
+ *
+ * This class contains unit tests for the ToolCodeRuleMap class, ensuring that
+ * charge rules are found by packed key and by tool code, that the first rule
+ * for a tool code wins, and that non-conforming codes use the fallback map.
+ *
+ * Test cases:
+ * - Looking up every rule in a large catalog.
+ * - Missing tool codes and the NONE key.
+ * - Duplicate tool codes.
+ * - Tool codes that cannot be packed.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ToolCodeRuleMapTest {
+
+    private HolidayProcessor holidayProcessor;
+
+    @BeforeEach
+    public void setUp() {
+        holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+    }
+
+    @Test
+    public void testLargeCatalog() {
+        List<ChargeRule> chargeRules = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            chargeRules.add(rule("S" + Integer.toString(i, 36).toUpperCase()));
+        }
+
+        ToolCodeRuleMap map = new ToolCodeRuleMap(chargeRules);
+        assertEquals(20000, map.size());
+        for (ChargeRule rule : chargeRules) {
+            assertSame(rule, map.get(rule.getToolCode()));
+            assertSame(rule, map.get(ToolCodeKey.pack(rule.getToolCode())));
+        }
+        assertNull(map.get("NONE"));
+        assertNull(map.get(ToolCodeKey.NONE));
+        assertNull(map.get((String) null));
+    }
+
+    @Test
+    public void testDuplicateToolCodeKeepsFirst() {
+        ChargeRule first = rule("LADW");
+        ToolCodeRuleMap map = new ToolCodeRuleMap(Arrays.asList(first, rule("LADW")));
+
+        assertEquals(1, map.size());
+        assertSame(first, map.get("LADW"));
+    }
+
+    @Test
+    public void testFallbackForNonConformingCodes() {
+        ChargeRule longCode = rule("LADDER-WERNER-8FT");
+        ChargeRule shortCode = rule("LADW");
+        ToolCodeRuleMap map = new ToolCodeRuleMap(Arrays.asList(longCode, shortCode));
+
+        assertEquals(2, map.size());
+        assertSame(longCode, map.get("LADDER-WERNER-8FT"));
+        assertSame(shortCode, map.get("LADW"));
+    }
+
+    private ChargeRule rule(String toolCode) {
+        return new ChargeRule(toolCode, "Test", "Test", BigDecimal.valueOf(1.99), BigDecimal.valueOf(1.99), BigDecimal.ZERO, holidayProcessor);
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Test class for ToolRegistry in the Tool Rental System application.
+ *
+ * This class contains unit tests for the ToolRegistry class, ensuring that
+ * tools are interned to one shared instance per code, type and brand, and
+ * that carts, agreements and snapshots all reference the interned tools.
+ *
+ * Test cases:
+ * - Returning the canonical Tool for matching code, type and brand.
+ * - Interning variants and sharing their strings with the canonical Tool.
+ * - Keeping the first Tool registered for a code.
+ * - Returning variants without interning them past the bound.
+ * - Sharing one Tool between the rule, cart lines and agreements.
+ *
+ * @version 1.0
+ */
+package com.example.toolrental;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+public class ToolRegistryTest {
+
+    @Test
+    public void testInternCanonical() {
+        ToolRegistry registry = new ToolRegistry();
+        Tool ladder = registry.register(new Tool("LADW", "Ladder", "Werner"));
+
+        assertSame(ladder, registry.intern(new String("LADW"), new String("Ladder"), new String("Werner")));
+        assertSame(ladder, registry.intern(new Tool("LADW", "Ladder", "Werner")));
+        assertSame(ladder, registry.getCanonical("LADW"));
+        assertEquals(0, registry.getVariantCount());
+    }
+
+    @Test
+    public void testInternVariants() {
+        ToolRegistry registry = new ToolRegistry();
+        Tool ladder = registry.register(new Tool("LADW", "Ladder", "Werner"));
+
+        Tool noBrand = registry.intern(new String("LADW"), new String("Ladder"), null);
+        assertNotSame(ladder, noBrand);
+        assertSame(noBrand, registry.intern("LADW", "Ladder", null));
+        assertSame(ladder.getToolCode(), noBrand.getToolCode());
+        assertSame(ladder.getToolType(), noBrand.getToolType());
+
+        Tool unknown = registry.intern("NONE", "None", "None");
+        assertSame(unknown, registry.intern(new Tool("NONE", "None", "None")));
+        assertEquals(2, registry.getVariantCount());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void testFirstRegistrationWins() {
+        ToolRegistry registry = new ToolRegistry();
+        Tool first = registry.register(new Tool("LADW", "Ladder", "Werner"));
+
+        assertSame(first, registry.register(new Tool("LADW", "Ladder", "Louisville")));
+        assertSame(first, registry.getCanonical("LADW"));
+    }
+
+    @Test
+    public void testVariantBound() {
+        ToolRegistry registry = new ToolRegistry(2);
+        registry.intern("AAAA", "Type", "Brand");
+        registry.intern("BBBB", "Type", "Brand");
+
+        Tool extra = registry.intern("CCCC", "Type", "Brand");
+        assertNotSame(extra, registry.intern("CCCC", "Type", "Brand"));
+        assertEquals(extra, registry.intern("CCCC", "Type", "Brand"));
+        assertEquals(2, registry.getVariantCount());
+
+        assertThrows(IllegalArgumentException.class, () -> new ToolRegistry(-1));
+    }
+
+    @Test
+    public void testSharedByCartAndAgreements() throws IOException {
+        HolidayProcessor holidayProcessor = new HolidayProcessor();
+        holidayProcessor.addHolidayRule(new IndependenceDayRule());
+        holidayProcessor.addHolidayRule(new LaborDayRule());
+        List<ChargeRule> chargeRules = ChargeProcessorConfig.getChargeRules(ConfigFileType.JSON, "tools", holidayProcessor);
+        ChargeProcessor chargeProcessor = new ChargeProcessor(chargeRules, holidayProcessor);
+        Tool chainsaw = chargeProcessor.findRule("CHNS").getTool();
+
+        ShoppingCart cart = new ShoppingCart(chargeProcessor);
+        LocalDate checkOutDate = LocalDate.of(2024, 7, 2);
+        cart.addTool(new String("CHNS"), new String("Chainsaw"), new String("Stihl"), 3, 0, 1, checkOutDate);
+        cart.addTool("CHNS", "Chainsaw", "Stihl", 5, 10, 2, checkOutDate);
+        List<RentalAgreement> agreements = cart.checkout();
+        assertSame(chainsaw, agreements.get(0).getTool());
+        assertSame(chainsaw, agreements.get(1).getTool());
+
+        RentalAgreement single = new RentalAgreement("CHNS", "Chainsaw", "Stihl", 3, checkOutDate, 0, 1, chargeProcessor);
+        assertSame(chainsaw, single.getTool());
+
+        ChargeProcessor snapshot = chargeProcessor.snapshot();
+        assertSame(chargeProcessor.getToolRegistry(), snapshot.getToolRegistry());
+        assertSame(chainsaw, snapshot.findRule("CHNS").getTool());
+        RentalAgreement fromSnapshot = snapshot.priceAll(Arrays.asList(new RentalRequest("CHNS", "Chainsaw", "Stihl", 3, 0, 1, checkOutDate))).get(0);
+        assertSame(chainsaw, fromSnapshot.getTool());
+        assertEquals(agreements.get(0).getFinalCharge(), fromSnapshot.getFinalCharge());
+    }
+}
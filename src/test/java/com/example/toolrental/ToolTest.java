@@ -8,6 +8,7 @@
  * Test cases:
  * - Testing the Tool constructor to ensure objects are created successfully.
  * - Verifying the correct retrieval of tool code, tool type, and brand.
+ * - Comparing tools by value and packing the tool code once.
  *
  * Each test ensures the proper functioning of the Tool class and its methods.
  *
@@ -16,6 +17,7 @@
 package com.example.toolrental;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -49,4 +51,13 @@ public class ToolTest {
     public void testGetToolBrand() {
         assertEquals("Stihl", tool.getToolBrand());
     }
+
+    @Test
+    public void testEquality() {
+        Tool same = new Tool(new String("CHNS"), new String("Chainsaw"), new String("Stihl"));
+        assertEquals(tool, same);
+        assertEquals(tool.hashCode(), same.hashCode());
+        assertNotEquals(tool, new Tool("CHNS", "Chainsaw", null));
+        assertEquals(ToolCodeKey.pack("CHNS"), tool.getToolCodeKey());
+    }
 }